@@ -0,0 +1,123 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Claim;
+import model.Claim.ServiceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read scaling of ClaimDirectory under its striped DirectoryLock
+ * 100k claims over 5k patients; reads mix per-patient lookups (one stripe)
+ * with lookups by claim number. "read" runs readers only; compare
+ * throughput across thread counts, e.g.
+ *   ant bench -Dbench.args="DirectoryContentionBenchmark.read -t 1"
+ *   ant bench -Dbench.args="DirectoryContentionBenchmark.read -t 8"
+ * "readWrite" runs 8 readers next to one writer that inserts and removes
+ * claims. Scaling needs as many CPUs as threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectoryContentionBenchmark {
+
+    private static final int CLAIMS = 100_000;
+    private static final int PATIENTS = 5_000;
+
+    /**
+     * Directory shared by every thread
+     */
+    @State(Scope.Benchmark)
+    public static class Directory {
+        ClaimDirectory claims;
+        String[] patientIds;
+        String[] claimNumbers;
+
+        @Setup
+        public void setUp() {
+            claims = new ClaimDirectory();
+            claims.clearAll();
+            patientIds = new String[PATIENTS];
+            for (int i = 0; i < PATIENTS; i++) {
+                patientIds[i] = "PAT-" + i;
+            }
+            LocalDate serviceDate = LocalDate.of(2025, 6, 1);
+            for (int i = 0; i < CLAIMS; i++) {
+                claims.createClaim("POL-" + (i % 2000), patientIds[i % PATIENTS], serviceDate, "Provider",
+                        "Diagnosis", ServiceType.DOCTOR_VISIT, 100 + i % 50);
+            }
+            List<Claim> all = claims.getAllClaims();
+            claimNumbers = new String[all.size()];
+            for (int i = 0; i < claimNumbers.length; i++) {
+                claimNumbers[i] = all.get(i).getClaimNumber();
+            }
+        }
+    }
+
+    /**
+     * Per-thread random source
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        Random random;
+
+        @Setup
+        public void setUp() {
+            random = new Random(Thread.currentThread().getId());
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object read(Directory directory, Caller caller) {
+        return readOnce(directory, caller);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(8)
+    public Object reader(Directory directory, Caller caller) {
+        return readOnce(directory, caller);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean writer(Directory directory, Caller caller) {
+        String patientId = directory.patientIds[caller.random.nextInt(PATIENTS)];
+        Claim claim = directory.claims.createClaim("POL-1", patientId, LocalDate.of(2025, 6, 2), "Provider",
+                "Diagnosis", ServiceType.DENTAL, 10);
+        return directory.claims.removeClaim(claim.getClaimNumber());
+    }
+
+    private static Object readOnce(Directory directory, Caller caller) {
+        Random random = caller.random;
+        String patientId = directory.patientIds[random.nextInt(PATIENTS)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return directory.claims.getClaimsByPatient(patientId);
+            case 1:
+                return directory.claims.getPendingClaimCountForPatient(patientId);
+            case 2:
+                return directory.claims.findClaimByNumber(directory.claimNumbers[random.nextInt(CLAIMS)]);
+            default:
+                return directory.claims.getTotalClaimAmountForPatient(patientId);
+        }
+    }
+}
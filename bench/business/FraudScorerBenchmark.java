@@ -0,0 +1,87 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Claim.ServiceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Claims scored per second by FraudScorer, with full rolling windows
+ * Submissions come from 50k providers and 200k patients over one year, so
+ * the scorer runs at its key limits, as it would on a busy book.
+ * Run with: ant bench -Dbench.args=FraudScorerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudScorerBenchmark {
+
+    private static final int SUBMISSIONS = 1 << 20; // Power of two, for the index mask
+    private static final int PROVIDERS = 50_000;
+    private static final int PATIENTS = 200_000;
+
+    private FraudScorer scorer;
+    private String[] providerNames;
+    private String[] patientIds;
+    private LocalDate[] serviceDates;
+    private ServiceType[] serviceTypes;
+    private double[] claimAmounts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] providers = new String[PROVIDERS];
+        for (int i = 0; i < PROVIDERS; i++) {
+            providers[i] = "Provider " + i;
+        }
+        String[] patients = new String[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patients[i] = "PAT-" + i;
+        }
+        ServiceType[] types = ServiceType.values();
+        LocalDate firstDay = LocalDate.of(2025, 1, 1);
+        Random random = new Random(3);
+
+        providerNames = new String[SUBMISSIONS];
+        patientIds = new String[SUBMISSIONS];
+        serviceDates = new LocalDate[SUBMISSIONS];
+        serviceTypes = new ServiceType[SUBMISSIONS];
+        claimAmounts = new double[SUBMISSIONS];
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            providerNames[i] = providers[random.nextInt(PROVIDERS)];
+            patientIds[i] = patients[random.nextInt(PATIENTS)];
+            serviceDates[i] = firstDay.plusDays((long) i * 365 / SUBMISSIONS);
+            serviceTypes[i] = types[random.nextInt(types.length)];
+            claimAmounts[i] = 100 + random.nextGaussian() * 30 + (random.nextInt(1000) == 0 ? 1000 : 0);
+        }
+
+        scorer = new FraudScorer();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            score(i);
+        }
+    }
+
+    @Benchmark
+    public FraudScore score() {
+        FraudScore score = score(next);
+        next = (next + 1) & (SUBMISSIONS - 1);
+        return score;
+    }
+
+    private FraudScore score(int i) {
+        return scorer.score(providerNames[i], patientIds[i], serviceDates[i], serviceTypes[i], claimAmounts[i]);
+    }
+}
@@ -0,0 +1,76 @@
+package business;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Policy.PolicyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Quotes per second of PremiumRatingEngine, one quote at a time and in batches
+ * Run with: ant bench -Dbench.args=PremiumRatingEngineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PremiumRatingEngineBenchmark {
+
+    private static final int QUOTES = 100_000;
+
+    private PremiumRatingEngine engine;
+    private PolicyType[] types;
+    private int[] typeOrdinals;
+    private double[] coverageAmounts;
+    private double[] deductibles;
+    private double[] copayments;
+    private double[] premiums;
+
+    @Setup
+    public void setUp() {
+        engine = new PremiumRatingEngine(PremiumRatingEngine.defaultAnnualRates());
+        PolicyType[] allTypes = PolicyType.values();
+        Random random = new Random(42);
+        types = new PolicyType[QUOTES];
+        typeOrdinals = new int[QUOTES];
+        coverageAmounts = new double[QUOTES];
+        deductibles = new double[QUOTES];
+        copayments = new double[QUOTES];
+        premiums = new double[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            types[i] = allTypes[random.nextInt(allTypes.length)];
+            typeOrdinals[i] = types[i].ordinal();
+            coverageAmounts[i] = 50_000 + random.nextInt(950) * 1_000;
+            deductibles[i] = random.nextInt(50) * 100;
+            copayments[i] = random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUOTES)
+    public double singleQuotes() {
+        double total = 0;
+        for (int i = 0; i < QUOTES; i++) {
+            total += engine.monthlyPremium(types[i], coverageAmounts[i], deductibles[i], copayments[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUOTES)
+    public double[] batch() {
+        engine.monthlyPremiums(typeOrdinals, coverageAmounts, deductibles, copayments, premiums);
+        return premiums;
+    }
+}
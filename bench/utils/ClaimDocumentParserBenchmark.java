@@ -0,0 +1,97 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time and allocation per claim document, ClaimDocumentParser against the
+ * parser it replaced (LegacyClaimDocumentParser)
+ * Run with the GC profiler to see bytes allocated per document
+ * (gc.alloc.rate.norm):
+ *   ant bench -Dbench.args="ClaimDocumentParserBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimDocumentParserBenchmark {
+
+    private static final int DOCUMENTS = 200;
+    private static final String[] SERVICE_TYPES = {
+        "Doctor Visit", "Lab test", "Surgery", "Hospital stay", "Pharmacy"
+    };
+
+    private Path directory;
+    private List<File> documents;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("claim-documents");
+        documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Path document = directory.resolve("claim" + i + ".txt");
+            Files.writeString(document, "MEDICAL CLAIM FORM\n"
+                    + "=================\n"
+                    + "Patient Name: John Doe " + i + "\n"
+                    + "Patient ID: PAT-" + i + "\n"
+                    + "Policy Number: POL-" + i + "\n"
+                    + "Service Date: 0" + (1 + i % 9) + "/15/2025\n"
+                    + "Provider Name: City Clinic " + (i % 7) + "\n"
+                    + "Provider ID: 99" + i + "\n"
+                    + "Diagnosis: Acute bronchitis\n"
+                    + "Service Type: " + SERVICE_TYPES[i % SERVICE_TYPES.length] + "\n"
+                    + "Claim Amount: $" + (100 + i) + ".50\n"
+                    + "Approved Amount: $0.00\n"
+                    + "Notes: paid in full\n");
+            documents.add(document.toFile());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void parse(Blackhole blackhole) throws IOException {
+        for (File document : documents) {
+            Map<String, String> claimData = ClaimDocumentParser.parseClaimDocument(document);
+            blackhole.consume(claimData);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void parseLegacy(Blackhole blackhole) throws IOException {
+        for (File document : documents) {
+            Map<String, String> claimData = LegacyClaimDocumentParser.parseClaimDocument(document);
+            blackhole.consume(claimData);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package business;
+
+/**
+ * Result of one ClaimAdjudicationEngine run
+ */
+public class AdjudicationReport {
+
+    // Properties
+    private final int claimCount;
+    private final int approvedCount;
+    private final int deniedCount;
+    private final int referredCount; // Left pending for a claims processor
+    private final int skippedCount; // Changed by someone else during the run
+    private final double totalApprovedAmount;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    /**
+     * Constructor
+     */
+    AdjudicationReport(int claimCount, int approvedCount, int deniedCount, int referredCount, int skippedCount,
+                       double totalApprovedAmount, long elapsedNanos, int parallelism) {
+        this.claimCount = claimCount;
+        this.approvedCount = approvedCount;
+        this.deniedCount = deniedCount;
+        this.referredCount = referredCount;
+        this.skippedCount = skippedCount;
+        this.totalApprovedAmount = totalApprovedAmount;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    // Getters
+    public int getClaimCount() {
+        return claimCount;
+    }
+
+    public int getApprovedCount() {
+        return approvedCount;
+    }
+
+    public int getDeniedCount() {
+        return deniedCount;
+    }
+
+    public int getReferredCount() {
+        return referredCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public double getTotalApprovedAmount() {
+        return totalApprovedAmount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Throughput of the run
+     */
+    public double getClaimsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : claimCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d claims: %d approved ($%,.2f), %d denied, %d referred, %d skipped"
+                + " in %d ms (%,.0f claims/s, %d threads)",
+                claimCount, approvedCount, totalApprovedAmount, deniedCount, referredCount, skippedCount,
+                getElapsedMillis(), getClaimsPerSecond(), parallelism);
+    }
+}
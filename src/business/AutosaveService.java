@@ -0,0 +1,199 @@
+package business;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically saves SystemData in the background
+ * Each save captures an in-memory snapshot and writes it to disk, both on
+ * the autosave thread. Capture holds every directory's read lock only while
+ * entities are copied, so screens keep reading during a save; a write from
+ * any thread waits for the copy (not the encoding or file write) to finish.
+ * Saves are skipped while nothing has changed.
+ */
+public class AutosaveService {
+
+    public static final long DEFAULT_INTERVAL_SECONDS = 120;
+
+    private final long intervalSeconds;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock saveLock; // One save at a time (scheduled or explicit)
+    private long lastSavedChangeCount; // Guarded by saveLock
+
+    // Metrics
+    private final AtomicLong saveCount;
+    private final AtomicLong skippedCount;
+    private final AtomicLong failureCount;
+    private final AtomicLong totalSaveNanos;
+    private volatile long lastSaveLatencyMillis;
+    private volatile long lastCaptureMillis;
+    private volatile long lastSaveBytes;
+    private volatile LocalDateTime lastSaveTime;
+    private volatile LocalDateTime startTime;
+
+    /**
+     * Constructor with default interval
+     */
+    public AutosaveService() {
+        this(DEFAULT_INTERVAL_SECONDS);
+    }
+
+    /**
+     * Constructor
+     */
+    public AutosaveService(long intervalSeconds) {
+        if (intervalSeconds < 1) {
+            throw new IllegalArgumentException("Autosave interval must be at least 1 second");
+        }
+        this.intervalSeconds = intervalSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "healthguard360-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.saveLock = new ReentrantLock();
+        this.lastSavedChangeCount = 0;
+        this.saveCount = new AtomicLong();
+        this.skippedCount = new AtomicLong();
+        this.failureCount = new AtomicLong();
+        this.totalSaveNanos = new AtomicLong();
+    }
+
+    /**
+     * Start saving every interval
+     */
+    public void start() {
+        startTime = LocalDateTime.now();
+        lastSavedChangeCount = SystemData.getInstance().getChangeCount();
+        scheduler.scheduleWithFixedDelay(() -> save(false), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        System.out.println("💾 Autosave every " + intervalSeconds + "s");
+    }
+
+    /**
+     * Stop the schedule, waiting for a save in progress to finish
+     * Call from a background thread, never from the Swing event thread.
+     */
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Save now (even if nothing changed) and wait for the result
+     * Call from a background thread, never from the Swing event thread.
+     */
+    public boolean saveNow() {
+        return save(true);
+    }
+
+    /**
+     * Capture and write on the calling thread
+     */
+    private boolean save(boolean force) {
+        saveLock.lock();
+        try {
+            SystemData systemData = SystemData.getInstance();
+            if (!force && systemData.getChangeCount() == lastSavedChangeCount) {
+                skippedCount.incrementAndGet();
+                return true;
+            }
+            long start = System.nanoTime();
+            systemData.loadPendingSections(); // Decode lazily loaded sections outside the directory locks
+            DataSnapshot snapshot = systemData.captureSnapshot();
+            boolean saved = systemData.persistSnapshot(snapshot);
+            long elapsed = System.nanoTime() - start;
+            if (!saved) {
+                failureCount.incrementAndGet();
+                return false;
+            }
+            lastSavedChangeCount = snapshot.getChangeCount();
+            saveCount.incrementAndGet();
+            totalSaveNanos.addAndGet(elapsed);
+            lastSaveLatencyMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            lastCaptureMillis = TimeUnit.NANOSECONDS.toMillis(snapshot.getCaptureNanos());
+            lastSaveBytes = snapshot.getSize();
+            lastSaveTime = LocalDateTime.now();
+            System.out.println("💾 Autosaved " + lastSaveBytes + " bytes in " + lastSaveLatencyMillis
+                    + " ms (capture " + lastCaptureMillis + " ms)");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failureCount.incrementAndGet();
+            System.err.println("❌ Autosave failed: " + e.getMessage());
+            return false;
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    // ==================== METRICS ====================
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public long getSaveCount() {
+        return saveCount.get();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getLastSaveLatencyMillis() {
+        return lastSaveLatencyMillis;
+    }
+
+    public long getLastCaptureMillis() {
+        return lastCaptureMillis;
+    }
+
+    public long getLastSaveBytes() {
+        return lastSaveBytes;
+    }
+
+    public LocalDateTime getLastSaveTime() {
+        return lastSaveTime;
+    }
+
+    /**
+     * Average time per save (capture plus write), 0 before the first save
+     */
+    public double getAverageSaveLatencyMillis() {
+        long saves = saveCount.get();
+        return saves == 0 ? 0.0 : totalSaveNanos.get() / 1_000_000.0 / saves;
+    }
+
+    /**
+     * Saves actually written per hour since start
+     */
+    public double getSavesPerHour() {
+        LocalDateTime started = startTime;
+        if (started == null) {
+            return 0.0;
+        }
+        double hours = java.time.Duration.between(started, LocalDateTime.now()).toMillis() / 3_600_000.0;
+        return hours <= 0 ? 0.0 : saveCount.get() / hours;
+    }
+
+    /**
+     * One-line metrics summary
+     */
+    public String getMetricsSummary() {
+        return String.format("Autosave every %ds: %d saves (%.1f/h), %d skipped, %d failed, last %d ms, avg %.1f ms",
+                intervalSeconds, getSaveCount(), getSavesPerHour(), getSkippedCount(), getFailureCount(),
+                getLastSaveLatencyMillis(), getAverageSaveLatencyMillis());
+    }
+}
@@ -0,0 +1,280 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import model.Claim;
+import model.Claim.ClaimStatus;
+import model.Claim.ServiceType;
+import model.Policy;
+import model.Policy.PolicyStatus;
+
+/**
+ * Automatic approve/deny of pending claims against their policies
+ * Each claim is joined with its policy (status, active dates, deductible,
+ * copayment, coverage amount) and the CoverageRule for its service type.
+ *
+ * Claims are grouped by policy and the groups are spread over a fork-join
+ * pool. Claims of one policy run in service date order on one thread,
+ * because they draw on the same deductible and coverage, read from the
+ * PolicyLedger before each decision. Decisions are written with versioned
+ * updates, so a claim a processor changed during the run is skipped rather
+ * than overwritten.
+ */
+public class ClaimAdjudicationEngine {
+
+    public static final String PROCESSOR_ID = "AUTO-ADJUDICATION";
+
+    private static final int GROUPS_PER_TASK = 16; // Policy groups a task handles without splitting
+
+    private final ClaimDirectory claimDirectory;
+    private final PolicyDirectory policyDirectory;
+    private final Map<ServiceType, CoverageRule> rules;
+    private final int parallelism;
+
+    /**
+     * Constructor using the system directories, default rules and all cores
+     */
+    public ClaimAdjudicationEngine() {
+        this(SystemData.getInstance().getClaimDirectory(), SystemData.getInstance().getPolicyDirectory(),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     */
+    public ClaimAdjudicationEngine(ClaimDirectory claimDirectory, PolicyDirectory policyDirectory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.claimDirectory = claimDirectory;
+        this.policyDirectory = policyDirectory;
+        this.rules = new EnumMap<>(CoverageRule.defaults());
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Replace the coverage rule for a service type (applies to later runs)
+     */
+    public synchronized void setRule(ServiceType serviceType, CoverageRule rule) {
+        rules.put(serviceType, rule);
+    }
+
+    public synchronized CoverageRule getRule(ServiceType serviceType) {
+        return rules.get(serviceType);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Adjudicate all submitted and under-review claims
+     */
+    public AdjudicationReport adjudicatePending() {
+        return adjudicate(claimDirectory.getPendingClaims());
+    }
+
+    /**
+     * Adjudicate the given claims
+     */
+    public AdjudicationReport adjudicate(List<Claim> claims) {
+        long start = System.nanoTime();
+        Map<ServiceType, CoverageRule> runRules;
+        synchronized (this) {
+            runRules = new EnumMap<>(rules);
+        }
+        List<List<Claim>> groups = groupByPolicy(claims);
+        Run run = new Run(runRules);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new GroupTask(run, groups, 0, groups.size()));
+        } finally {
+            pool.shutdown();
+        }
+
+        AdjudicationReport report = new AdjudicationReport(claims.size(), run.approved.get(), run.denied.get(),
+                run.referred.get(), run.skipped.get(), run.approvedAmount.sum(), System.nanoTime() - start,
+                parallelism);
+        System.out.println("✅ Adjudicated " + report);
+        return report;
+    }
+
+    /**
+     * Group claims by policy number, each group in service date order
+     */
+    private static List<List<Claim>> groupByPolicy(List<Claim> claims) {
+        Map<String, List<Claim>> byPolicy = new LinkedHashMap<>();
+        for (Claim claim : claims) {
+            byPolicy.computeIfAbsent(claim.getPolicyNumber(), k -> new ArrayList<>()).add(claim);
+        }
+        List<List<Claim>> groups = new ArrayList<>(byPolicy.values());
+        for (List<Claim> group : groups) {
+            group.sort(Comparator.comparing(Claim::getServiceDate, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return groups;
+    }
+
+    /**
+     * Adjudicate the claims of one policy in order
+     */
+    private void adjudicateGroup(Run run, List<Claim> group) {
+        String policyNumber = group.get(0).getPolicyNumber();
+        Policy policy = policyDirectory.findPolicyByNumber(policyNumber);
+
+        for (Claim claim : group) {
+            long version = claim.getVersion(); // Read before the fields the decision is based on
+            // Ledger read of the current term; includes the claims this task approved before
+            PolicyBalance balance = policy == null ? null : claimDirectory.getPolicyBalance(policy);
+            Decision decision = decide(run.rules, claim, policy, balance);
+            UpdateResult result;
+            switch (decision.outcome) {
+                case APPROVE:
+                    result = claimDirectory.approveClaim(claim.getClaimNumber(), version, decision.amount,
+                            PROCESSOR_ID, decision.note);
+                    break;
+                case DENY:
+                    result = claimDirectory.denyClaim(claim.getClaimNumber(), version, PROCESSOR_ID, decision.note);
+                    break;
+                default:
+                    run.referred.incrementAndGet();
+                    continue;
+            }
+            if (!result.isUpdated()) {
+                run.skipped.incrementAndGet();
+            } else if (decision.outcome == Outcome.APPROVE) {
+                run.approved.incrementAndGet();
+                run.approvedAmount.add(decision.amount);
+            } else {
+                run.denied.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Decide one claim (no side effects)
+     */
+    private static Decision decide(Map<ServiceType, CoverageRule> rules, Claim claim, Policy policy,
+                                   PolicyBalance balance) {
+        if (claim.getClaimStatus() == ClaimStatus.UNDER_REVIEW
+                && FraudScorer.PROCESSOR_ID.equals(claim.getProcessorId())) {
+            return Decision.refer(); // Flagged by fraud screening, needs a processor
+        }
+        if (policy == null) {
+            return Decision.deny("No policy found: " + claim.getPolicyNumber());
+        }
+        if (!policy.getPatientId().equals(claim.getPatientId())) {
+            return Decision.deny("Policy " + policy.getPolicyNumber() + " does not belong to this patient");
+        }
+        LocalDate serviceDate = claim.getServiceDate();
+        if (policy.getPolicyStatus() != PolicyStatus.ACTIVE || serviceDate == null
+                || serviceDate.isBefore(policy.getStartDate()) || serviceDate.isAfter(policy.getExpiryDate())) {
+            return Decision.deny("Policy was not active on the service date");
+        }
+        CoverageRule rule = rules.get(claim.getServiceType());
+        if (rule == null || !rule.isCovered()) {
+            return Decision.deny("Service not covered: " + claim.getServiceType());
+        }
+        double claimAmount = claim.getClaimAmount();
+        if (!rule.canAutoDecide(claimAmount)) {
+            return Decision.refer();
+        }
+        if (balance.getRemainingCoverage() <= 0) {
+            return Decision.deny("Policy coverage limit reached");
+        }
+
+        double deductible = Math.min(balance.getRemainingDeductible(), claimAmount);
+        double copay = Math.min(policy.getCopayment(), claimAmount - deductible);
+        double payable = (claimAmount - deductible - copay) * rule.getCoveragePercent() / 100.0;
+        payable = Math.min(Math.round(payable * 100) / 100.0, balance.getRemainingCoverage());
+        String note = String.format("Auto-adjudicated: deductible $%.2f, copay $%.2f, plan pays %.0f%%",
+                deductible, copay, rule.getCoveragePercent());
+        return Decision.approve(payable, note);
+    }
+
+    // ==================== RUN STATE ====================
+
+    private enum Outcome {
+        APPROVE,
+        DENY,
+        REFER
+    }
+
+    private static final class Decision {
+        private final Outcome outcome;
+        private final double amount;
+        private final String note;
+
+        private Decision(Outcome outcome, double amount, String note) {
+            this.outcome = outcome;
+            this.amount = amount;
+            this.note = note;
+        }
+
+        static Decision approve(double amount, String note) {
+            return new Decision(Outcome.APPROVE, amount, note);
+        }
+
+        static Decision deny(String reason) {
+            return new Decision(Outcome.DENY, 0.0, reason);
+        }
+
+        static Decision refer() {
+            return new Decision(Outcome.REFER, 0.0, null);
+        }
+    }
+
+    /**
+     * Counters and rules shared by the tasks of one run
+     */
+    private static final class Run {
+        private final Map<ServiceType, CoverageRule> rules;
+        private final AtomicInteger approved = new AtomicInteger();
+        private final AtomicInteger denied = new AtomicInteger();
+        private final AtomicInteger referred = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final DoubleAdder approvedAmount = new DoubleAdder();
+
+        Run(Map<ServiceType, CoverageRule> rules) {
+            this.rules = rules;
+        }
+    }
+
+    /**
+     * Fork-join task over a range of policy groups
+     */
+    private final class GroupTask extends RecursiveAction {
+        private final Run run;
+        private final List<List<Claim>> groups;
+        private final int from;
+        private final int to;
+
+        GroupTask(Run run, List<List<Claim>> groups, int from, int to) {
+            this.run = run;
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GROUPS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    adjudicateGroup(run, groups.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GroupTask(run, groups, from, middle), new GroupTask(run, groups, middle, to));
+        }
+    }
+}
@@ -1,33 +1,394 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import model.Claim;
+import model.Claim.ChangeType;
 import model.Claim.ClaimStatus;
 import model.Claim.ServiceType;
+import model.Policy;
+import utils.IdGenerator;
+import utils.SnapshotSection;
+import utils.SnapshotWriter;
 
 /**
  * Complete ClaimDirectory class
  * Manages all insurance claims in the system
+ * Keeps hash indexes on claim number, patient, policy, status and duplicate
+ * fingerprint so that lookups do not scan the whole claim list, plus
+ * running ClaimStatistics and a per-policy PolicyLedger
+ * Thread-safe: guarded by a DirectoryLock striped by patient ID, so
+ * per-patient reads only wait for writes to patients on the same stripe.
  */
-public class ClaimDirectory implements Serializable {
+public class ClaimDirectory implements Serializable, Claim.ChangeListener {
 
     private static final long serialVersionUID = 1L;
 
     // Properties
     private List<Claim> claims;
 
+    // Indexes (not serialized, rebuilt from the claim list after loading)
+    private transient Map<String, Claim> claimsByNumber;
+    private transient Map<String, Map<String, Claim>> claimsByPatient; // Buckets guarded by patient stripes
+    private transient Map<String, Map<String, Claim>> claimsByPolicy;
+    private transient Map<ClaimStatus, Map<String, Claim>> claimsByStatus;
+    private transient Map<String, Map<String, Claim>> claimsByFingerprint; // See Claim.fingerprint
+    private transient Map<String, String> fingerprintByClaim; // Claim number -> indexed fingerprint
+
+    // Running aggregates (not serialized, rebuilt together with the indexes)
+    private transient ClaimStatistics statistics;
+    private transient PolicyLedger ledger;
+
+    // Fraud screening of new claims (not serialized, warmed from the claim list)
+    private transient FraudScorer fraudScorer;
+
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+
+    // Claim inside updateClaim, journaled once when the update ends; guarded by the write lock
+    private transient Claim updatingClaim;
+    private transient List<String> updatingClaimOldNumbers;
+    private transient boolean updatingClaimStatusChanged;
+
+    // Claim being given a fresh number by renumber, whose change event is ignored
+    private transient Claim renumberingClaim;
+
+    // Number of patient stripes; per-patient buckets are guarded by their stripe
+    private static final int PATIENT_STRIPES = 16;
+    private transient DirectoryLock lock;
+
     /**
      * Constructor
      */
     public ClaimDirectory() {
+        this.lock = new DirectoryLock(PATIENT_STRIPES);
         this.claims = new ArrayList<>();
+        rebuildIndexes();
         createSampleClaims(); // Create sample data for testing
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    ClaimDirectory(SnapshotSection<Claim> section) throws IOException {
+        this.lock = new DirectoryLock(PATIENT_STRIPES);
+        this.claims = section.readAll();
+        rebuildIndexes();
+    }
+
+    /**
+     * Copy every claim for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<Claim> copyForSnapshot() {
+        List<Claim> copies = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            copies.add(claim.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write claims to a binary snapshot as a separately decodable section
+     */
+    static void writeSnapshot(SnapshotWriter out, List<Claim> claims) throws IOException {
+        SnapshotSection.write(out, claims, Claim::writeSnapshot);
+    }
+
+    /**
+     * Restore indexes after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock(PATIENT_STRIPES);
+        rebuildIndexes();
+    }
+
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+
+    // ==================== INDEX MAINTENANCE ====================
+
+    /**
+     * Rebuild all indexes from the claim list (caller holds every stripe)
+     */
+    private void rebuildIndexes() {
+        claimsByNumber = new HashMap<>();
+        claimsByPatient = new ConcurrentHashMap<>(); // Buckets come and go under different stripes
+        claimsByPolicy = new HashMap<>();
+        claimsByStatus = new EnumMap<>(ClaimStatus.class);
+        claimsByFingerprint = new HashMap<>();
+        fingerprintByClaim = new HashMap<>();
+        statistics = new ClaimStatistics();
+        ledger = new PolicyLedger();
+        fraudScorer = new FraudScorer(fraudScorer == null
+                ? FraudScorer.DEFAULT_FLAG_THRESHOLD : fraudScorer.getFlagThreshold());
+        // Index unique numbers first so renumbered duplicates never take a number loaded later
+        List<Claim> duplicates = new ArrayList<>();
+        for (Claim claim : claims) {
+            if (claimsByNumber.containsKey(claim.getClaimNumber())) {
+                duplicates.add(claim);
+            } else {
+                indexClaim(claim);
+            }
+            fraudScorer.record(claim);
+        }
+        for (Claim claim : duplicates) {
+            indexClaim(claim);
+        }
+    }
+
+    /**
+     * Add claim to every index and start listening for key changes
+     * A claim whose number is already taken (e.g. legacy data) is renumbered first.
+     */
+    private void indexClaim(Claim claim) {
+        if (claimsByNumber.containsKey(claim.getClaimNumber())) {
+            renumber(claim);
+        }
+        claimsByNumber.put(claim.getClaimNumber(), claim);
+        addToBucket(claimsByPatient, claim.getPatientId(), claim);
+        addToBucket(claimsByPolicy, claim.getPolicyNumber(), claim);
+        addToBucket(claimsByStatus, claim.getClaimStatus(), claim);
+        indexFingerprint(claim);
+        statistics.claimAdded(claim);
+        ledger.claimAdded(claim);
+        claim.setChangeListener(this);
+    }
+
+    /**
+     * Remove claim from every index and stop listening
+     */
+    private void unindexClaim(Claim claim) {
+        unindexNumber(claim, claim.getClaimNumber());
+        statistics.claimRemoved(claim);
+        ledger.claimRemoved(claim);
+        claim.setChangeListener(null);
+    }
+
+    /**
+     * Remove claim from the number, patient, policy, status and fingerprint indexes
+     * Entries under the number that belong to another claim are left alone.
+     */
+    private void unindexNumber(Claim claim, String claimNumber) {
+        if (claimsByNumber.get(claimNumber) != claim) {
+            return;
+        }
+        claimsByNumber.remove(claimNumber);
+        removeFromBucket(claimsByPatient, claim.getPatientId(), claimNumber);
+        removeFromBucket(claimsByPolicy, claim.getPolicyNumber(), claimNumber);
+        removeFromBucket(claimsByStatus, claim.getClaimStatus(), claimNumber);
+        unindexFingerprint(claimNumber);
+    }
+
+    /**
+     * Give a claim whose number collides with an indexed claim a fresh number
+     * (caller holds the write lock; the claim is not in the indexes yet)
+     */
+    private void renumber(Claim claim) {
+        String takenNumber = claim.getClaimNumber();
+        String freshNumber;
+        do {
+            freshNumber = IdGenerator.nextId("CLM", 5);
+        } while (claimsByNumber.containsKey(freshNumber));
+        renumberingClaim = claim;
+        try {
+            claim.setClaimNumber(freshNumber);
+        } finally {
+            renumberingClaim = null;
+        }
+        System.out.println("⚠️ Claim number " + takenNumber + " already in use, renumbered to " + freshNumber);
+    }
+
+    private void indexFingerprint(Claim claim) {
+        String fingerprint = claim.getFingerprint();
+        fingerprintByClaim.put(claim.getClaimNumber(), fingerprint);
+        addToBucket(claimsByFingerprint, fingerprint, claim);
+    }
+
+    private void unindexFingerprint(String claimNumber) {
+        String fingerprint = fingerprintByClaim.remove(claimNumber);
+        if (fingerprint != null) {
+            removeFromBucket(claimsByFingerprint, fingerprint, claimNumber);
+        }
+    }
+
+    /**
+     * Move a claim to its new fingerprint after a fingerprint field changed
+     */
+    private void reindexFingerprint(Claim claim) {
+        unindexFingerprint(claim.getClaimNumber());
+        indexFingerprint(claim);
+    }
+
+    private static <K> void addToBucket(Map<K, Map<String, Claim>> index, K key, Claim claim) {
+        index.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(claim.getClaimNumber(), claim);
+    }
+
+    private static <K> void removeFromBucket(Map<K, Map<String, Claim>> index, K key, String claimNumber) {
+        Map<String, Claim> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(claimNumber);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static <K> List<Claim> bucketAsList(Map<K, Map<String, Claim>> index, K key) {
+        Map<String, Claim> bucket = index.get(key);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(bucket.values());
+    }
+
+    private static <K> int bucketSize(Map<K, Map<String, Claim>> index, K key) {
+        Map<String, Claim> bucket = index.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    /**
+     * Keep indexes in sync when an indexed claim field changes
+     */
+    @Override
+    public void claimChanged(Claim claim, ChangeType changeType, Object oldValue) {
+        if (claim == renumberingClaim) {
+            return; // Indexed by the caller of renumber
+        }
+        String[] patients;
+        if (changeType == ChangeType.PATIENT_ID) {
+            patients = new String[] { (String) oldValue, claim.getPatientId() };
+        } else if (changeType == ChangeType.CLAIM_NUMBER) {
+            patients = new String[] { claim.getPatientId() };
+        } else {
+            patients = new String[0];
+        }
+        lock.writeKeys(() -> updateIndexes(claim, changeType, oldValue), patients);
+    }
+
+    private void updateIndexes(Claim claim, ChangeType changeType, Object oldValue) {
+        switch (changeType) {
+            case CLAIM_NUMBER:
+                unindexNumber(claim, (String) oldValue);
+                if (claimsByNumber.containsKey(claim.getClaimNumber())) {
+                    renumber(claim);
+                }
+                claimsByNumber.put(claim.getClaimNumber(), claim);
+                addToBucket(claimsByPatient, claim.getPatientId(), claim);
+                addToBucket(claimsByPolicy, claim.getPolicyNumber(), claim);
+                addToBucket(claimsByStatus, claim.getClaimStatus(), claim);
+                indexFingerprint(claim);
+                break;
+            case PATIENT_ID:
+                removeFromBucket(claimsByPatient, (String) oldValue, claim.getClaimNumber());
+                addToBucket(claimsByPatient, claim.getPatientId(), claim);
+                reindexFingerprint(claim);
+                break;
+            case POLICY_NUMBER:
+                removeFromBucket(claimsByPolicy, (String) oldValue, claim.getClaimNumber());
+                addToBucket(claimsByPolicy, claim.getPolicyNumber(), claim);
+                reindexFingerprint(claim);
+                ledger.policyChanged(claim, (String) oldValue);
+                break;
+            case STATUS:
+                ClaimStatus oldStatus = (ClaimStatus) oldValue;
+                removeFromBucket(claimsByStatus, oldStatus, claim.getClaimNumber());
+                addToBucket(claimsByStatus, claim.getClaimStatus(), claim);
+                statistics.statusChanged(claim, oldStatus);
+                ledger.statusChanged(claim, oldStatus);
+                break;
+            case CLAIM_AMOUNT:
+                statistics.claimAmountChanged(claim, (Double) oldValue);
+                ledger.claimAmountChanged(claim, (Double) oldValue);
+                reindexFingerprint(claim);
+                break;
+            case APPROVED_AMOUNT:
+                statistics.approvedAmountChanged(claim, (Double) oldValue);
+                ledger.approvedAmountChanged(claim, (Double) oldValue);
+                break;
+            case PROCESSED_DATE:
+                statistics.processedDateChanged(claim, (LocalDate) oldValue);
+                break;
+            case SERVICE_DATE:
+                reindexFingerprint(claim);
+                ledger.serviceDateChanged(claim, (LocalDate) oldValue);
+                break;
+            case SERVICE_DETAILS:
+                reindexFingerprint(claim);
+                break;
+        }
+        journalChange(claim, changeType, oldValue);
+    }
+
+    // ==================== JOURNAL ====================
+
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+
+    private void journalChange(Claim claim, ChangeType changeType, Object oldValue) {
+        if (mutationLog == null) {
+            return;
+        }
+        if (claim == updatingClaim) {
+            if (changeType == ChangeType.CLAIM_NUMBER) {
+                updatingClaimOldNumbers.add((String) oldValue);
+            } else if (changeType == ChangeType.STATUS) {
+                updatingClaimStatusChanged = true;
+            }
+            return;
+        }
+        if (changeType == ChangeType.CLAIM_NUMBER) {
+            journal(MutationRecord.removal(MutationRecord.Type.CLAIM_REMOVED, (String) oldValue));
+            journal(MutationRecord.claim(MutationRecord.Type.CLAIM_CREATED, claim));
+        } else if (changeType == ChangeType.STATUS) {
+            journal(MutationRecord.claim(MutationRecord.Type.CLAIM_STATUS_CHANGED, claim));
+        } else {
+            journal(MutationRecord.claim(MutationRecord.Type.CLAIM_UPDATED, claim));
+        }
+    }
+
+    /**
+     * Apply replayed journal changes (claim number -> claim, null = removed)
+     */
+    void applyJournaledChanges(Map<String, Claim> changes) {
+        lock.writeAll(() -> {
+            for (Claim claim : claims) {
+                claim.setChangeListener(null);
+            }
+            claims = MutationRecord.mergeChanges(claims, Claim::getClaimNumber, changes);
+            rebuildIndexes();
+        });
+    }
+
     /**
      * Create sample claims for demonstration
      */
@@ -114,7 +475,7 @@ public class ClaimDirectory implements Serializable {
         claim1.approveClaim(280.0, "EMP-PROC-001", "Standard checkup - Approved");
         claim1.setSubmittedDate(LocalDate.of(2025, 11, 16));
         claim1.setLastUpdatedDate(LocalDate.of(2025, 11, 20));
-        claims.add(claim1);
+        addClaim(claim1);
 
         // Sample claim 2 - Under Review
         Claim claim2 = new Claim("POL-2024-00123", patientId, LocalDate.of(2025, 11, 20),
@@ -124,7 +485,7 @@ public class ClaimDirectory implements Serializable {
         claim2.moveToUnderReview("EMP-PROC-002");
         claim2.setSubmittedDate(LocalDate.of(2025, 11, 21));
         claim2.setLastUpdatedDate(LocalDate.of(2025, 11, 22));
-        claims.add(claim2);
+        addClaim(claim2);
 
         // Sample claim 3 - Paid
         Claim claim3 = new Claim("POL-2023-00456", patientId, LocalDate.of(2025, 10, 28),
@@ -135,7 +496,7 @@ public class ClaimDirectory implements Serializable {
         claim3.markAsPaid();
         claim3.setSubmittedDate(LocalDate.of(2025, 10, 29));
         claim3.setLastUpdatedDate(LocalDate.of(2025, 11, 10));
-        claims.add(claim3);
+        addClaim(claim3);
 
         // Sample claim 4 - Denied
         Claim claim4 = new Claim("POL-2024-00123", patientId, LocalDate.of(2025, 10, 15),
@@ -145,7 +506,7 @@ public class ClaimDirectory implements Serializable {
         claim4.denyClaim("EMP-PROC-001", "OTC medications not covered under policy");
         claim4.setSubmittedDate(LocalDate.of(2025, 10, 16));
         claim4.setLastUpdatedDate(LocalDate.of(2025, 10, 20));
-        claims.add(claim4);
+        addClaim(claim4);
 
         // Sample claim 5 - Submitted
         Claim claim5 = new Claim("POL-2023-00456", patientId, LocalDate.of(2025, 11, 25),
@@ -153,14 +514,14 @@ public class ClaimDirectory implements Serializable {
                 ServiceType.PHYSICAL_THERAPY, 450.0);
         claim5.setClaimNumber("CLM-2025-00789");
         claim5.setSubmittedDate(LocalDate.of(2025, 11, 26));
-        claims.add(claim5);
+        addClaim(claim5);
     }
 
     /**
      * Get all claims
      */
     public List<Claim> getAllClaims() {
-        return new ArrayList<>(claims);
+        return lock.read(() -> new ArrayList<>(claims));
     }
 
     /**
@@ -171,83 +532,201 @@ public class ClaimDirectory implements Serializable {
             double claimAmount) {
         Claim claim = new Claim(policyNumber, patientId, serviceDate, providerName,
                 diagnosis, serviceType, claimAmount);
-        claims.add(claim);
+        lock.writeKeys(() -> {
+            claims.add(claim);
+            indexClaim(claim);
+            journal(MutationRecord.claim(MutationRecord.Type.CLAIM_CREATED, claim));
+        }, patientId);
+        screenForFraud(claim);
         return claim;
     }
 
+    /**
+     * Score a new claim and send it to review if it looks suspicious
+     */
+    private void screenForFraud(Claim claim) {
+        FraudScore score = getFraudScorer().score(claim);
+        if (score.isSuspicious()) {
+            updateClaim(claim.getClaimNumber(), UpdateResult.ANY_VERSION, flagged -> {
+                flagged.moveToUnderReview(FraudScorer.PROCESSOR_ID);
+                flagged.setReviewNotes("Flagged by fraud screening: " + score);
+            });
+            System.out.println("⚠️ Claim " + claim.getClaimNumber() + " flagged for review: " + score);
+        }
+    }
+
     /**
      * Add existing claim
      */
     public void addClaim(Claim claim) {
-        if (!claims.contains(claim)) {
-            claims.add(claim);
+        lock.writeKeys(() -> {
+            if (!claimsByNumber.containsKey(claim.getClaimNumber())) {
+                claims.add(claim);
+                indexClaim(claim);
+                journal(MutationRecord.claim(MutationRecord.Type.CLAIM_CREATED, claim));
+            }
+        }, claim.getPatientId());
+    }
+
+    /**
+     * Store a batch of new claims under one lock, then screen them for fraud
+     * Claims whose number already exists are skipped.
+     *
+     * @return Claims actually added
+     */
+    public List<Claim> createClaims(List<Claim> newClaims) {
+        String[] patients = newClaims.stream().map(Claim::getPatientId).distinct().toArray(String[]::new);
+        List<Claim> added = lock.writeKeys(() -> {
+            List<Claim> stored = new ArrayList<>(newClaims.size());
+            for (Claim claim : newClaims) {
+                if (!claimsByNumber.containsKey(claim.getClaimNumber())) {
+                    claims.add(claim);
+                    indexClaim(claim);
+                    journal(MutationRecord.claim(MutationRecord.Type.CLAIM_CREATED, claim));
+                    stored.add(claim);
+                }
+            }
+            return stored;
+        }, patients);
+        for (Claim claim : added) {
+            screenForFraud(claim);
         }
+        return added;
     }
 
     /**
      * Remove claim
      */
     public boolean removeClaim(String claimNumber) {
-        return claims.removeIf(c -> c.getClaimNumber().equals(claimNumber));
+        return lock.write(() -> {
+            Claim claim = claimsByNumber.get(claimNumber);
+            if (claim == null) {
+                return false;
+            }
+            return lock.writeKeys(() -> {
+                unindexClaim(claim);
+                journal(MutationRecord.removal(MutationRecord.Type.CLAIM_REMOVED, claimNumber));
+                return removeInstance(claim);
+            }, claim.getPatientId());
+        });
     }
 
     /**
-     * Find claim by claim number
+     * Remove exactly this claim from the claim list (Claim.equals compares numbers only)
      */
-    public Claim findClaimByNumber(String claimNumber) {
-        for (Claim claim : claims) {
-            if (claim.getClaimNumber().equals(claimNumber)) {
-                return claim;
+    private boolean removeInstance(Claim claim) {
+        for (int i = 0; i < claims.size(); i++) {
+            if (claims.get(i) == claim) {
+                claims.remove(i);
+                return true;
             }
         }
-        return null;
+        return false;
+    }
+
+    /**
+     * Find claim by claim number
+     */
+    public Claim findClaimByNumber(String claimNumber) {
+        return lock.read(() -> claimsByNumber.get(claimNumber));
     }
 
     /**
      * Get all claims for a patient
      */
     public List<Claim> getClaimsByPatient(String patientId) {
-        return claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
-                .collect(Collectors.toList());
+        return lock.readKey(patientId, () -> bucketAsList(claimsByPatient, patientId));
     }
 
     /**
      * Get claims by policy
      */
     public List<Claim> getClaimsByPolicy(String policyNumber) {
-        return claims.stream()
-                .filter(c -> c.getPolicyNumber().equals(policyNumber))
-                .collect(Collectors.toList());
+        return lock.read(() -> bucketAsList(claimsByPolicy, policyNumber));
+    }
+
+    /**
+     * Find earlier submissions identical to a new one (O(1) fingerprint lookup)
+     * Withdrawn claims are ignored; denied ones still count, since
+     * resubmitting a denied claim unchanged is also a duplicate.
+     */
+    public List<Claim> findPossibleDuplicates(String policyNumber, String patientId, LocalDate serviceDate,
+                                              String providerName, ServiceType serviceType, double claimAmount) {
+        String fingerprint = Claim.fingerprint(patientId, policyNumber, serviceDate, providerName, serviceType,
+                claimAmount);
+        return lock.read(() -> activeDuplicates(claimsByFingerprint.get(fingerprint), null));
+    }
+
+    /**
+     * Find other claims with the same fingerprint as a claim
+     */
+    public List<Claim> findDuplicatesOf(Claim claim) {
+        return lock.read(() -> {
+            String fingerprint = fingerprintByClaim.get(claim.getClaimNumber());
+            return activeDuplicates(fingerprint == null ? null : claimsByFingerprint.get(fingerprint),
+                    claim.getClaimNumber());
+        });
+    }
+
+    /**
+     * Sweep the whole claim history for groups of duplicate claims
+     * Each group lists the claims sharing a fingerprint, oldest submission first.
+     */
+    public List<List<Claim>> findDuplicateGroups() {
+        return lock.read(() -> {
+            List<List<Claim>> groups = new ArrayList<>();
+            for (Map<String, Claim> bucket : claimsByFingerprint.values()) {
+                if (bucket.size() > 1) {
+                    List<Claim> group = activeDuplicates(bucket, null);
+                    if (group.size() > 1) {
+                        group.sort(Comparator.comparing(Claim::getSubmittedDate,
+                                Comparator.nullsLast(Comparator.naturalOrder())));
+                        groups.add(group);
+                    }
+                }
+            }
+            return groups;
+        });
+    }
+
+    private static List<Claim> activeDuplicates(Map<String, Claim> bucket, String excludedClaimNumber) {
+        List<Claim> duplicates = new ArrayList<>();
+        if (bucket != null) {
+            for (Claim claim : bucket.values()) {
+                if (claim.getClaimStatus() != ClaimStatus.WITHDRAWN
+                        && !claim.getClaimNumber().equals(excludedClaimNumber)) {
+                    duplicates.add(claim);
+                }
+            }
+        }
+        return duplicates;
     }
 
     /**
      * Get claims by status
      */
     public List<Claim> getClaimsByStatus(ClaimStatus status) {
-        return claims.stream()
-                .filter(c -> c.getClaimStatus() == status)
-                .collect(Collectors.toList());
+        return lock.read(() -> bucketAsList(claimsByStatus, status));
     }
 
     /**
      * Get claims by patient and status
      */
     public List<Claim> getClaimsByPatientAndStatus(String patientId, ClaimStatus status) {
-        return claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
+        return lock.readKey(patientId, () -> patientClaims(patientId).stream()
                 .filter(c -> c.getClaimStatus() == status)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Get pending claims for review
      */
     public List<Claim> getPendingClaims() {
-        return claims.stream()
-                .filter(c -> c.getClaimStatus() == ClaimStatus.SUBMITTED ||
-                        c.getClaimStatus() == ClaimStatus.UNDER_REVIEW)
-                .collect(Collectors.toList());
+        return lock.read(() -> {
+            List<Claim> pending = bucketAsList(claimsByStatus, ClaimStatus.SUBMITTED);
+            pending.addAll(bucketAsList(claimsByStatus, ClaimStatus.UNDER_REVIEW));
+            return pending;
+        });
     }
 
     /**
@@ -275,143 +754,230 @@ public class ClaimDirectory implements Serializable {
      * Get claim count
      */
     public int getClaimCount() {
-        return claims.size();
+        return lock.read(() -> claims.size());
     }
 
     /**
      * Get claim count for patient
      */
     public int getClaimCountForPatient(String patientId) {
-        return (int) claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
-                .count();
+        return lock.readKey(patientId, () -> bucketSize(claimsByPatient, patientId));
     }
 
     /**
      * Get claim count by status
      */
     public int getClaimCountByStatus(ClaimStatus status) {
-        return (int) claims.stream()
-                .filter(c -> c.getClaimStatus() == status)
-                .count();
+        return lock.read(() -> bucketSize(claimsByStatus, status));
     }
 
     /**
      * Get pending claim count for patient
      */
     public int getPendingClaimCountForPatient(String patientId) {
-        return (int) claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
+        return lock.readKey(patientId, () -> (int) patientClaims(patientId).stream()
                 .filter(c -> c.getClaimStatus() == ClaimStatus.SUBMITTED ||
                         c.getClaimStatus() == ClaimStatus.UNDER_REVIEW)
-                .count();
+                .count());
     }
 
     /**
      * Get approved claim count for patient
      */
     public int getApprovedClaimCountForPatient(String patientId) {
-        return (int) claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
+        return lock.readKey(patientId, () -> (int) patientClaims(patientId).stream()
                 .filter(c -> c.getClaimStatus() == ClaimStatus.APPROVED ||
                         c.getClaimStatus() == ClaimStatus.PAID)
-                .count();
+                .count());
     }
 
     /**
      * Get denied claim count for patient
      */
     public int getDeniedClaimCountForPatient(String patientId) {
-        return (int) claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
+        return lock.readKey(patientId, () -> (int) patientClaims(patientId).stream()
                 .filter(c -> c.getClaimStatus() == ClaimStatus.DENIED)
-                .count();
+                .count());
     }
 
     /**
      * Calculate total claim amount for patient
      */
     public double getTotalClaimAmountForPatient(String patientId) {
-        return claims.stream()
-                .filter(c -> c.getPatientId().equals(patientId))
+        return lock.readKey(patientId, () -> patientClaims(patientId).stream()
                 .mapToDouble(Claim::getClaimAmount)
-                .sum();
+                .sum());
+    }
+
+    /**
+     * A patient's claims (caller holds the patient's stripe)
+     */
+    private Collection<Claim> patientClaims(String patientId) {
+        return claimsByPatient.getOrDefault(patientId, Collections.emptyMap()).values();
     }
 
     /**
      * Calculate total approved amount
      */
     public double getTotalApprovedAmount() {
-        return claims.stream()
-                .filter(c -> c.getClaimStatus() == ClaimStatus.APPROVED ||
-                        c.getClaimStatus() == ClaimStatus.PAID)
-                .mapToDouble(Claim::getApprovedAmount)
-                .sum();
+        return getStatistics().getTotalApprovedAmount();
+    }
+
+    /**
+     * Calculate total claimed amount for a status
+     */
+    public double getTotalClaimAmountByStatus(ClaimStatus status) {
+        return getStatistics().getTotalClaimAmountByStatus(status);
+    }
+
+    /**
+     * Get running claim statistics (dashboard figures)
+     */
+    public ClaimStatistics getStatistics() {
+        return lock.read(() -> statistics);
+    }
+
+    /**
+     * Get the fraud scorer that screens new claims (for its threshold and counts)
+     */
+    public FraudScorer getFraudScorer() {
+        return lock.read(() -> fraudScorer);
+    }
+
+    /**
+     * Get per-policy deductible and coverage totals (kept current on every change)
+     */
+    public PolicyLedger getPolicyLedger() {
+        return lock.read(() -> ledger);
+    }
+
+    /**
+     * Get the deductible and coverage balance of a policy in O(1)
+     */
+    public PolicyBalance getPolicyBalance(Policy policy) {
+        return getPolicyLedger().getBalance(policy);
+    }
+
+    /**
+     * Apply a change to a claim if it still has the expected version
+     * Optimistic concurrency: processors read a claim (and its version)
+     * without holding any lock, and the check-and-apply runs under the
+     * directory write lock every claim change takes anyway. A stale write
+     * gets CONFLICT instead of silently overwriting the other processor.
+     * Transitions the claim refuses (IllegalStateException) give REJECTED.
+     * The change is journaled as one record, however many fields it touched.
+     *
+     * @param expectedVersion Version the caller read, or UpdateResult.ANY_VERSION
+     */
+    public UpdateResult updateClaim(String claimNumber, long expectedVersion, Consumer<Claim> update) {
+        return lock.write(() -> {
+            Claim claim = claimsByNumber.get(claimNumber);
+            if (claim == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            if (expectedVersion != UpdateResult.ANY_VERSION && claim.getVersion() != expectedVersion) {
+                return UpdateResult.CONFLICT;
+            }
+            long versionBefore = claim.getVersion();
+            updatingClaim = claim;
+            updatingClaimOldNumbers = new ArrayList<>(1);
+            updatingClaimStatusChanged = false;
+            try {
+                update.accept(claim);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                return UpdateResult.REJECTED;
+            } finally {
+                updatingClaim = null;
+                if (claim.getVersion() != versionBefore) {
+                    journalUpdate(claim);
+                }
+            }
+            return UpdateResult.UPDATED;
+        });
+    }
+
+    /**
+     * One journal record for everything an updateClaim changed
+     * (a rejected update is journaled too, for the fields it changed before failing)
+     */
+    private void journalUpdate(Claim claim) {
+        for (String oldNumber : updatingClaimOldNumbers) {
+            journal(MutationRecord.removal(MutationRecord.Type.CLAIM_REMOVED, oldNumber));
+        }
+        journal(MutationRecord.claim(updatingClaimStatusChanged ? MutationRecord.Type.CLAIM_STATUS_CHANGED
+                : MutationRecord.Type.CLAIM_UPDATED, claim));
     }
 
     /**
      * Withdraw claim
      */
     public boolean withdrawClaim(String claimNumber) {
-        Claim claim = findClaimByNumber(claimNumber);
-        if (claim != null && claim.canBeWithdrawn()) {
+        return updateClaim(claimNumber, UpdateResult.ANY_VERSION, claim -> {
+            if (!claim.canBeWithdrawn()) {
+                throw new IllegalStateException("Claim cannot be withdrawn");
+            }
             claim.withdrawClaim();
-            return true;
-        }
-        return false;
+        }).isUpdated();
     }
 
     /**
      * Approve claim
      */
     public boolean approveClaim(String claimNumber, double approvedAmount, String processorId, String notes) {
-        Claim claim = findClaimByNumber(claimNumber);
-        if (claim != null) {
-            try {
-                claim.approveClaim(approvedAmount, processorId, notes);
-                return true;
-            } catch (IllegalStateException e) {
-                return false;
-            }
-        }
-        return false;
+        return approveClaim(claimNumber, UpdateResult.ANY_VERSION, approvedAmount, processorId, notes).isUpdated();
+    }
+
+    /**
+     * Approve claim if it is still at the version the processor reviewed
+     */
+    public UpdateResult approveClaim(String claimNumber, long expectedVersion, double approvedAmount,
+                                     String processorId, String notes) {
+        return updateClaim(claimNumber, expectedVersion,
+                claim -> claim.approveClaim(approvedAmount, processorId, notes));
     }
 
     /**
      * Deny claim
      */
     public boolean denyClaim(String claimNumber, String processorId, String reason) {
-        Claim claim = findClaimByNumber(claimNumber);
-        if (claim != null) {
-            try {
-                claim.denyClaim(processorId, reason);
-                return true;
-            } catch (IllegalStateException e) {
-                return false;
-            }
-        }
-        return false;
+        return denyClaim(claimNumber, UpdateResult.ANY_VERSION, processorId, reason).isUpdated();
+    }
+
+    /**
+     * Deny claim if it is still at the version the processor reviewed
+     */
+    public UpdateResult denyClaim(String claimNumber, long expectedVersion, String processorId, String reason) {
+        return updateClaim(claimNumber, expectedVersion, claim -> claim.denyClaim(processorId, reason));
     }
 
     /**
      * Clear all claims (for testing)
      */
     public void clearAll() {
-        claims.clear();
+        lock.writeAll(() -> {
+            for (Claim claim : claims) {
+                claim.setChangeListener(null);
+                journal(MutationRecord.removal(MutationRecord.Type.CLAIM_REMOVED, claim.getClaimNumber()));
+            }
+            claims.clear();
+            rebuildIndexes();
+        });
     }
 
     /**
      * Reload sample data
      */
     public void reloadSampleData() {
-        claims.clear();
-        createSampleClaims();
+        lock.writeAll(() -> {
+            clearAll();
+            createSampleClaims();
+        });
     }
 
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return claims.isEmpty();
+        return lock.read(() -> claims.isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,346 @@
+package business;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import model.Claim;
+import model.Claim.ServiceType;
+import utils.ClaimDocumentParser;
+import utils.ClaimRecordReader;
+
+/**
+ * Bulk import of claim documents from a directory (e.g. a hospital's nightly drop)
+ * Files are parsed on a bounded thread pool with ClaimDocumentParser and
+ * stored with ClaimDirectory.createClaims one batch at a time. The next
+ * batch is parsed while the current one is stored, and at most two batches
+ * of documents are in memory. Every file gets a line in the report: the new
+ * claim number, or why it was rejected (unreadable, incomplete, duplicate).
+ * Batch files (CSV, JSON lines, X12 837) are streamed with a ClaimRecordReader
+ * and get one report line per record; see ingestBatchFile.
+ */
+public class ClaimIngestionService {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String DOCUMENT_EXTENSION = ".txt";
+    private static final String REPORT_PREFIX = "ingestion_report_";
+    private static final int QUEUED_CHUNKS = 2; // Read-ahead of batch files, in batches
+    private static final DateTimeFormatter SERVICE_DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final DateTimeFormatter REPORT_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final ClaimDirectory claimDirectory;
+    private final int threads;
+    private final int batchSize;
+
+    /**
+     * Constructor using the system claim directory and one thread per core
+     */
+    public ClaimIngestionService() {
+        this(SystemData.getInstance().getClaimDirectory(), Runtime.getRuntime().availableProcessors(),
+                DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     */
+    public ClaimIngestionService(ClaimDirectory claimDirectory, int threads, int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads and batch size must be at least 1");
+        }
+        this.claimDirectory = claimDirectory;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ingest every .txt document and batch file under a directory and write the report next to them
+     */
+    public IngestionReport ingestDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith(REPORT_PREFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<Path> documents = files.stream()
+                .filter(path -> path.getFileName().toString().toLowerCase().endsWith(DOCUMENT_EXTENSION))
+                .collect(Collectors.toList());
+        List<Path> batchFiles = files.stream().filter(ClaimRecordReader::isBatchFile).collect(Collectors.toList());
+
+        IngestionReport report = ingest(documents, batchFiles);
+        Path reportFile = directory.resolve(REPORT_PREFIX + LocalDateTime.now().format(REPORT_NAME_FORMAT)
+                + ".csv");
+        report.writeCsv(reportFile);
+        System.out.println("💾 Ingestion report: " + reportFile);
+        return report;
+    }
+
+    /**
+     * Ingest the given documents (report not written)
+     */
+    public IngestionReport ingestFiles(List<Path> files) {
+        return ingest(files, Collections.emptyList());
+    }
+
+    /**
+     * Ingest one batch file of many claims (report not written)
+     * Records are read on a worker thread while the previous batch is being
+     * stored; the reader blocks once QUEUED_CHUNKS batches are waiting, so
+     * memory stays bounded however large the file is.
+     */
+    public IngestionReport ingestBatchFile(Path file) {
+        return ingest(Collections.emptyList(), Collections.singletonList(file));
+    }
+
+    private IngestionReport ingest(List<Path> documents, List<Path> batchFiles) {
+        long start = System.nanoTime();
+        List<IngestionReport.FileResult> results = new ArrayList<>(documents.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, newThreadFactory());
+        try {
+            ingestDocuments(executor, documents, results);
+            for (Path batchFile : batchFiles) {
+                ingestBatchFile(executor, batchFile, results);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        IngestionReport report = new IngestionReport(results, System.nanoTime() - start, threads);
+        System.out.println("✅ Ingested " + report);
+        return report;
+    }
+
+    private void ingestDocuments(ExecutorService executor, List<Path> files,
+            List<IngestionReport.FileResult> results) {
+        List<Future<ParsedDocument>> current = submitBatch(executor, files, 0);
+        for (int from = 0; from < files.size(); from += batchSize) {
+            List<Future<ParsedDocument>> next = submitBatch(executor, files, from + batchSize);
+            store(awaitAll(current, files, from), results);
+            current = next;
+        }
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "healthguard360-ingest-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private List<Future<ParsedDocument>> submitBatch(ExecutorService executor, List<Path> files, int from) {
+        List<Future<ParsedDocument>> futures = new ArrayList<>();
+        for (int i = from; i < Math.min(from + batchSize, files.size()); i++) {
+            Path file = files.get(i);
+            futures.add(executor.submit(() -> parse(file)));
+        }
+        return futures;
+    }
+
+    private static List<ParsedDocument> awaitAll(List<Future<ParsedDocument>> futures, List<Path> files, int from) {
+        List<ParsedDocument> parsed = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Path file = files.get(from + i);
+            try {
+                parsed.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                parsed.add(ParsedDocument.failure(file, null, "Parser error: " + e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                parsed.add(ParsedDocument.failure(file, null, "Interrupted"));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Stream a batch file into chunks on a worker and store them as they arrive
+     */
+    private void ingestBatchFile(ExecutorService executor, Path file, List<IngestionReport.FileResult> results) {
+        BlockingQueue<List<ParsedDocument>> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        Future<?> reader = executor.submit(() -> {
+            readChunks(file, chunks);
+            return null;
+        });
+        try {
+            for (List<ParsedDocument> chunk = chunks.take(); !chunk.isEmpty(); chunk = chunks.take()) {
+                store(chunk, results);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reader.cancel(true);
+        }
+    }
+
+    // ==================== PARSING (worker threads) ====================
+
+    /**
+     * Read a batch file into chunks of batchSize parsed records, then an empty end-of-file chunk
+     * Blocks while QUEUED_CHUNKS chunks are waiting to be stored.
+     */
+    private void readChunks(Path file, BlockingQueue<List<ParsedDocument>> chunks) throws InterruptedException {
+        List<ParsedDocument> chunk = new ArrayList<>(batchSize);
+        try (ClaimRecordReader reader = ClaimRecordReader.open(file)) {
+            Map<String, String> data;
+            while ((data = reader.next()) != null) {
+                chunk.add(toClaim(file, reader.getLocation(), data));
+                if (chunk.size() == batchSize) {
+                    chunks.put(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            chunk.add(ParsedDocument.failure(file, null, "Cannot read rest of file: " + e.getMessage()));
+        }
+        if (!chunk.isEmpty()) {
+            chunks.put(chunk);
+        }
+        chunks.put(Collections.emptyList());
+    }
+
+    /**
+     * Parse and validate one document into an unsaved claim
+     */
+    private static ParsedDocument parse(Path file) {
+        Map<String, String> data;
+        try {
+            data = ClaimDocumentParser.parseClaimDocument(file.toFile());
+        } catch (IOException e) {
+            return ParsedDocument.failure(file, null, "Cannot read file: " + e.getMessage());
+        }
+        return toClaim(file, null, data);
+    }
+
+    /**
+     * Validate parsed claim data and build an unsaved claim from it
+     */
+    private static ParsedDocument toClaim(Path file, String location, Map<String, String> data) {
+        if (data.containsKey(ClaimRecordReader.ERROR_KEY)) {
+            return ParsedDocument.failure(file, location, data.get(ClaimRecordReader.ERROR_KEY));
+        }
+        if (!ClaimDocumentParser.isValidClaimData(data)) {
+            return ParsedDocument.failure(file, location, "No claim data found");
+        }
+        for (String field : new String[] { "policyNumber", "patientId", "serviceDate", "providerName",
+                "claimAmount" }) {
+            if (!data.containsKey(field)) {
+                return ParsedDocument.failure(file, location, "Missing " + field);
+            }
+        }
+
+        LocalDate serviceDate;
+        double claimAmount;
+        try {
+            serviceDate = LocalDate.parse(data.get("serviceDate"), SERVICE_DATE_FORMAT);
+            claimAmount = Double.parseDouble(data.get("claimAmount"));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return ParsedDocument.failure(file, location, "Invalid value: " + e.getMessage());
+        }
+        if (claimAmount <= 0) {
+            return ParsedDocument.failure(file, location, "Claim amount must be greater than zero");
+        }
+        if (serviceDate.isAfter(LocalDate.now())) {
+            return ParsedDocument.failure(file, location, "Service date is in the future");
+        }
+
+        Claim claim = new Claim(data.get("policyNumber"), data.get("patientId"), serviceDate,
+                data.get("providerName"), data.getOrDefault("diagnosis", "Not specified"),
+                serviceTypeFor(data.get("serviceType")), claimAmount);
+        claim.addDocument(file.toString());
+        return new ParsedDocument(file, location, claim, null);
+    }
+
+    private static ServiceType serviceTypeFor(String displayName) {
+        for (ServiceType serviceType : ServiceType.values()) {
+            if (serviceType.getDisplayName().equals(displayName)) {
+                return serviceType;
+            }
+        }
+        return ServiceType.OTHER;
+    }
+
+    // ==================== STORING (calling thread) ====================
+
+    /**
+     * Reject duplicates, store the rest as one batch, and record every file's result
+     */
+    private void store(List<ParsedDocument> batch, List<IngestionReport.FileResult> results) {
+        List<Claim> accepted = new ArrayList<>(batch.size());
+        Set<String> batchFingerprints = new HashSet<>();
+        String[] errors = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ParsedDocument document = batch.get(i);
+            Claim claim = document.claim;
+            if (claim == null) {
+                errors[i] = document.error;
+                continue;
+            }
+            List<Claim> duplicates = claimDirectory.findPossibleDuplicates(claim.getPolicyNumber(),
+                    claim.getPatientId(), claim.getServiceDate(), claim.getProviderName(), claim.getServiceType(),
+                    claim.getClaimAmount());
+            if (!duplicates.isEmpty()) {
+                errors[i] = "Duplicate of claim " + duplicates.get(0).getClaimNumber();
+            } else if (!batchFingerprints.add(claim.getFingerprint())) {
+                errors[i] = "Duplicate of another document in this import";
+            } else {
+                accepted.add(claim);
+            }
+        }
+
+        Set<Claim> added = new HashSet<>(claimDirectory.createClaims(accepted));
+        for (int i = 0; i < batch.size(); i++) {
+            ParsedDocument document = batch.get(i);
+            if (errors[i] != null) {
+                results.add(IngestionReport.FileResult.failure(document.file, document.location, errors[i]));
+            } else if (added.contains(document.claim)) {
+                results.add(IngestionReport.FileResult.success(document.file, document.location,
+                        document.claim.getClaimNumber()));
+            } else {
+                results.add(IngestionReport.FileResult.failure(document.file, document.location,
+                        "Claim number already exists"));
+            }
+        }
+    }
+
+    /**
+     * Parse result of one document or batch file record: an unsaved claim, or an error
+     */
+    private static final class ParsedDocument {
+        private final Path file;
+        private final String location;
+        private final Claim claim;
+        private final String error;
+
+        ParsedDocument(Path file, String location, Claim claim, String error) {
+            this.file = file;
+            this.location = location;
+            this.claim = claim;
+            this.error = error;
+        }
+
+        static ParsedDocument failure(Path file, String location, String error) {
+            return new ParsedDocument(file, location, null, error);
+        }
+    }
+}
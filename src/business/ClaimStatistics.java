@@ -0,0 +1,147 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import model.Claim;
+import model.Claim.ClaimStatus;
+
+/**
+ * Running claim aggregates for dashboards
+ * Owned by ClaimDirectory, which feeds it every claim mutation, so all
+ * figures are read in O(1) instead of streaming the claim list
+ * Updates run under ClaimDirectory's write lock; reads need no lock.
+ * Money is summed in whole cents, so adding and removing the same claim
+ * always brings a total back to exactly where it was.
+ */
+public class ClaimStatistics {
+
+    // Counters
+    private volatile int totalClaimCount;
+    private volatile int approvedClaimCount; // APPROVED and PAID claims
+    private volatile long totalApprovedCents; // Payouts of APPROVED and PAID claims
+    private final Map<ClaimStatus, Long> claimCentsByStatus;
+    private final Map<LocalDate, Integer> processedCountByDate;
+
+    /**
+     * Constructor
+     */
+    ClaimStatistics() {
+        this.claimCentsByStatus = new ConcurrentHashMap<>();
+        this.processedCountByDate = new ConcurrentHashMap<>();
+    }
+
+    // ==================== UPDATES (called by ClaimDirectory) ====================
+
+    void claimAdded(Claim claim) {
+        totalClaimCount++;
+        applyStatus(claim.getClaimStatus(), claim.getClaimAmount(), claim.getApprovedAmount(), 1);
+        applyProcessedDate(claim.getProcessedDate(), 1);
+    }
+
+    void claimRemoved(Claim claim) {
+        totalClaimCount--;
+        applyStatus(claim.getClaimStatus(), claim.getClaimAmount(), claim.getApprovedAmount(), -1);
+        applyProcessedDate(claim.getProcessedDate(), -1);
+    }
+
+    void statusChanged(Claim claim, ClaimStatus oldStatus) {
+        applyStatus(oldStatus, claim.getClaimAmount(), claim.getApprovedAmount(), -1);
+        applyStatus(claim.getClaimStatus(), claim.getClaimAmount(), claim.getApprovedAmount(), 1);
+    }
+
+    void claimAmountChanged(Claim claim, double oldAmount) {
+        claimCentsByStatus.merge(claim.getClaimStatus(), toCents(claim.getClaimAmount()) - toCents(oldAmount),
+                Long::sum);
+    }
+
+    void approvedAmountChanged(Claim claim, double oldAmount) {
+        if (isPayableStatus(claim.getClaimStatus())) {
+            totalApprovedCents += toCents(claim.getApprovedAmount()) - toCents(oldAmount);
+        }
+    }
+
+    void processedDateChanged(Claim claim, LocalDate oldDate) {
+        applyProcessedDate(oldDate, -1);
+        applyProcessedDate(claim.getProcessedDate(), 1);
+    }
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) a claim's contribution for a status
+     */
+    private void applyStatus(ClaimStatus status, double claimAmount, double approvedAmount, int sign) {
+        claimCentsByStatus.merge(status, sign * toCents(claimAmount), Long::sum);
+        if (isPayableStatus(status)) {
+            approvedClaimCount += sign;
+            totalApprovedCents += sign * toCents(approvedAmount);
+        }
+    }
+
+    private void applyProcessedDate(LocalDate date, int sign) {
+        if (date != null) {
+            processedCountByDate.merge(date, sign, Integer::sum);
+            if (processedCountByDate.get(date) <= 0) {
+                processedCountByDate.remove(date);
+            }
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static boolean isPayableStatus(ClaimStatus status) {
+        return status == ClaimStatus.APPROVED || status == ClaimStatus.PAID;
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Get total claim count
+     */
+    public int getTotalClaimCount() {
+        return totalClaimCount;
+    }
+
+    /**
+     * Get approved claim count (APPROVED and PAID)
+     */
+    public int getApprovedClaimCount() {
+        return approvedClaimCount;
+    }
+
+    /**
+     * Get approval rate as a percentage of all claims
+     */
+    public double getApprovalRate() {
+        return totalClaimCount > 0 ? (approvedClaimCount * 100.0 / totalClaimCount) : 0;
+    }
+
+    /**
+     * Get total payouts (approved amount of APPROVED and PAID claims)
+     */
+    public double getTotalApprovedAmount() {
+        return totalApprovedCents / 100.0;
+    }
+
+    /**
+     * Get total claimed amount for a status
+     */
+    public double getTotalClaimAmountByStatus(ClaimStatus status) {
+        return claimCentsByStatus.getOrDefault(status, 0L) / 100.0;
+    }
+
+    /**
+     * Get number of claims processed on a date
+     */
+    public int getProcessedCount(LocalDate date) {
+        return processedCountByDate.getOrDefault(date, 0);
+    }
+
+    /**
+     * Get number of claims processed today
+     */
+    public int getProcessedTodayCount() {
+        return getProcessedCount(LocalDate.now());
+    }
+}
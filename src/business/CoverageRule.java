@@ -0,0 +1,93 @@
+package business;
+
+import java.util.EnumMap;
+import java.util.Map;
+import model.Claim.ServiceType;
+
+/**
+ * Coverage rule for one service type, used by ClaimAdjudicationEngine
+ * A covered service is paid at coveragePercent after deductible and copay.
+ * Claims above the auto-approve limit are left for a claims processor.
+ */
+public class CoverageRule {
+
+    // Properties
+    private final boolean covered;
+    private final double coveragePercent; // Share the plan pays after deductible and copay
+    private final double autoApproveLimit; // Largest claim amount decided automatically
+
+    /**
+     * Constructor
+     */
+    public CoverageRule(boolean covered, double coveragePercent, double autoApproveLimit) {
+        if (coveragePercent < 0 || coveragePercent > 100) {
+            throw new IllegalArgumentException("Coverage percent must be between 0 and 100");
+        }
+        if (autoApproveLimit < 0) {
+            throw new IllegalArgumentException("Auto-approve limit cannot be negative");
+        }
+        this.covered = covered;
+        this.coveragePercent = coveragePercent;
+        this.autoApproveLimit = autoApproveLimit;
+    }
+
+    /**
+     * Rule for a covered service
+     */
+    public static CoverageRule covered(double coveragePercent, double autoApproveLimit) {
+        return new CoverageRule(true, coveragePercent, autoApproveLimit);
+    }
+
+    /**
+     * Rule for a service the plans do not cover (claims are denied)
+     */
+    public static CoverageRule notCovered() {
+        return new CoverageRule(false, 0.0, Double.MAX_VALUE);
+    }
+
+    /**
+     * Default rules for every service type
+     */
+    public static Map<ServiceType, CoverageRule> defaults() {
+        Map<ServiceType, CoverageRule> rules = new EnumMap<>(ServiceType.class);
+        rules.put(ServiceType.EMERGENCY_ROOM, covered(90, 10000));
+        rules.put(ServiceType.HOSPITAL_STAY, covered(80, 25000));
+        rules.put(ServiceType.SURGERY, covered(80, 15000));
+        rules.put(ServiceType.DOCTOR_VISIT, covered(100, 1000));
+        rules.put(ServiceType.DIAGNOSTIC_TEST, covered(90, 3000));
+        rules.put(ServiceType.PRESCRIPTION_MEDICATION, covered(80, 1000));
+        rules.put(ServiceType.PHYSICAL_THERAPY, covered(70, 2000));
+        rules.put(ServiceType.DENTAL, covered(50, 1500));
+        rules.put(ServiceType.VISION, covered(50, 500));
+        rules.put(ServiceType.OTHER, covered(80, 0)); // Always reviewed by a processor
+        return rules;
+    }
+
+    // Getters
+    public boolean isCovered() {
+        return covered;
+    }
+
+    public double getCoveragePercent() {
+        return coveragePercent;
+    }
+
+    public double getAutoApproveLimit() {
+        return autoApproveLimit;
+    }
+
+    /**
+     * Check if a claim amount is small enough to decide automatically
+     */
+    public boolean canAutoDecide(double claimAmount) {
+        return claimAmount <= autoApproveLimit;
+    }
+
+    @Override
+    public String toString() {
+        if (!covered) {
+            return "Not covered";
+        }
+        return String.format("%.0f%% up to $%,.2f", coveragePercent, autoApproveLimit);
+    }
+}
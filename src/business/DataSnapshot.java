@@ -0,0 +1,46 @@
+package business;
+
+/**
+ * Point-in-time copy of all SystemData, encoded in memory
+ * Copied under the directory read locks, then encoded and written to disk
+ * without them (see SystemData.captureSnapshot).
+ */
+public class DataSnapshot {
+
+    // Properties
+    private final byte[] data;
+    private final long changeCount; // SystemData change count when captured
+    private final long journalMark; // Journal records covered, -1 without a journal
+    private final long captureNanos;
+
+    /**
+     * Constructor
+     */
+    DataSnapshot(byte[] data, long changeCount, long journalMark, long captureNanos) {
+        this.data = data;
+        this.changeCount = changeCount;
+        this.journalMark = journalMark;
+        this.captureNanos = captureNanos;
+    }
+
+    // Getters
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getSize() {
+        return data.length;
+    }
+
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    public long getJournalMark() {
+        return journalMark;
+    }
+
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+}
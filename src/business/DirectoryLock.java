@@ -0,0 +1,190 @@
+package business;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Read/write lock for a directory, optionally striped by a key (patient ID)
+ * Readers never block each other. A plain write holds the directory lock;
+ * a write that also touches per-key data (e.g. a patient's claim bucket)
+ * additionally holds the stripe lock for that key, so reads scoped to one
+ * patient only wait for writes to patients on the same stripe.
+ *
+ * Lock order is always directory lock, then stripes in index order.
+ * Reentrant, because entity change listeners run inside directory writes.
+ * Never take another directory's lock while holding a write lock here.
+ */
+final class DirectoryLock {
+
+    private final ReentrantReadWriteLock directoryLock;
+    private final ReentrantReadWriteLock[] stripes;
+
+    /**
+     * Constructor for a directory without per-key data
+     */
+    DirectoryLock() {
+        this(0);
+    }
+
+    /**
+     * Constructor with the given number of key stripes
+     */
+    DirectoryLock(int stripeCount) {
+        this.directoryLock = new ReentrantReadWriteLock();
+        this.stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Run a read of directory-wide data
+     */
+    <T> T read(Supplier<T> action) {
+        Lock lock = directoryLock.readLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a read of one key's data (holds only that key's stripe)
+     */
+    <T> T readKey(String key, Supplier<T> action) {
+        Lock lock = stripe(key).readLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hold the directory read lock until unlockRead (for snapshot capture)
+     */
+    void lockRead() {
+        directoryLock.readLock().lock();
+    }
+
+    void unlockRead() {
+        directoryLock.readLock().unlock();
+    }
+
+    // ==================== WRITES ====================
+
+    /**
+     * Run a write of directory-wide data
+     */
+    <T> T write(Supplier<T> action) {
+        Lock lock = directoryLock.writeLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a write that also changes the data of the given keys
+     */
+    <T> T writeKeys(Supplier<T> action, String... keys) {
+        Lock lock = directoryLock.writeLock();
+        lock.lock();
+        try {
+            return withStripes(stripeMask(keys), action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void writeKeys(Runnable action, String... keys) {
+        writeKeys(() -> {
+            action.run();
+            return null;
+        }, keys);
+    }
+
+    /**
+     * Run a write that may change the data of any key (clear, rebuild)
+     */
+    void writeAll(Runnable action) {
+        Lock lock = directoryLock.writeLock();
+        lock.lock();
+        try {
+            withStripes(allStripes(), () -> {
+                action.run();
+                return null;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== STRIPES ====================
+
+    private ReentrantReadWriteLock stripe(String key) {
+        if (stripes.length == 0) {
+            return directoryLock;
+        }
+        return stripes[stripeIndex(key)];
+    }
+
+    private int stripeIndex(String key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    private boolean[] stripeMask(String... keys) {
+        boolean[] mask = new boolean[stripes.length];
+        for (String key : keys) {
+            if (stripes.length > 0) {
+                mask[stripeIndex(key)] = true;
+            }
+        }
+        return mask;
+    }
+
+    private boolean[] allStripes() {
+        boolean[] mask = new boolean[stripes.length];
+        Arrays.fill(mask, true);
+        return mask;
+    }
+
+    /**
+     * Lock the marked stripes in index order, run the action, unlock
+     */
+    private <T> T withStripes(boolean[] mask, Supplier<T> action) {
+        int locked = 0;
+        try {
+            for (; locked < mask.length; locked++) {
+                if (mask[locked]) {
+                    stripes[locked].writeLock().lock();
+                }
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (mask[i]) {
+                    stripes[i].writeLock().unlock();
+                }
+            }
+        }
+    }
+}
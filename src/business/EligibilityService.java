@@ -0,0 +1,396 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Claim.ServiceType;
+import model.Policy;
+import model.Policy.PolicyStatus;
+import model.Policy.PolicyType;
+
+/**
+ * Answers "is this patient covered for this service on this date" at check-in
+ * A patient's policies are resolved once and cached as immutable snapshots;
+ * each answer is then a date and CoverageRule check on the snapshots, with
+ * no directory lock. A cached patient is resolved again when its entry is
+ * older than the TTL, or when that patient's PolicyDirectory coverage
+ * version moved (one of their policies was added, removed, renewed, or
+ * changed status, dates or owner); changes to other patients leave the
+ * entry alone. Deductible, copay and coverage edits are picked up within
+ * the TTL.
+ * checkAppointments resolves every uncached patient of a day's list under
+ * one read lock.
+ * Screens share one instance (getInstance), so they share its cache.
+ */
+public class EligibilityService {
+
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final int MAX_CACHED_PATIENTS = 100_000;
+
+    // Shared instance, replaced when SystemData's policy directory changes; guarded by the class
+    private static EligibilityService instance;
+
+    private final PolicyDirectory policyDirectory;
+    private final long ttlNanos;
+    private final Map<ServiceType, CoverageRule> rules;
+    private final ConcurrentHashMap<String, PatientCoverage> cache;
+
+    // Metrics
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * One check: a patient, a service type and a date
+     */
+    public static class Appointment {
+        private final String patientId;
+        private final ServiceType serviceType;
+        private final LocalDate date;
+
+        public Appointment(String patientId, ServiceType serviceType, LocalDate date) {
+            this.patientId = patientId;
+            this.serviceType = serviceType;
+            this.date = date;
+        }
+
+        public String getPatientId() {
+            return patientId;
+        }
+
+        public ServiceType getServiceType() {
+            return serviceType;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+    }
+
+    /**
+     * Answer to one check; policy details are those of the patient's active
+     * policy (null or 0 when there is none)
+     */
+    public static class Eligibility {
+        private final boolean eligible;
+        private final String reason;
+        private final PolicySnapshot policy;
+        private final double coveragePercent;
+
+        private Eligibility(boolean eligible, String reason, PolicySnapshot policy, double coveragePercent) {
+            this.eligible = eligible;
+            this.reason = reason;
+            this.policy = policy;
+            this.coveragePercent = coveragePercent;
+        }
+
+        public boolean isEligible() {
+            return eligible;
+        }
+
+        /**
+         * Why the patient is not eligible, null if eligible
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        public String getPolicyNumber() {
+            return policy != null ? policy.policyNumber : null;
+        }
+
+        public PolicyType getPolicyType() {
+            return policy != null ? policy.policyType : null;
+        }
+
+        public String getInsuranceProviderId() {
+            return policy != null ? policy.insuranceProviderId : null;
+        }
+
+        public double getDeductible() {
+            return policy != null ? policy.deductible : 0.0;
+        }
+
+        public double getCopayment() {
+            return policy != null ? policy.copayment : 0.0;
+        }
+
+        public double getCoverageAmount() {
+            return policy != null ? policy.coverageAmount : 0.0;
+        }
+
+        /**
+         * Share the plan pays after deductible and copay
+         */
+        public double getCoveragePercent() {
+            return coveragePercent;
+        }
+
+        @Override
+        public String toString() {
+            return eligible ? "Eligible under " + policy.policyNumber + " (" + coveragePercent + "%)"
+                    : "Not eligible: " + reason;
+        }
+    }
+
+    /**
+     * Immutable copy of the policy fields eligibility depends on
+     */
+    private static final class PolicySnapshot {
+        private final String policyNumber;
+        private final PolicyType policyType;
+        private final PolicyStatus status;
+        private final LocalDate startDate;
+        private final LocalDate expiryDate;
+        private final String insuranceProviderId;
+        private final double deductible;
+        private final double copayment;
+        private final double coverageAmount;
+
+        PolicySnapshot(Policy policy) {
+            this.policyNumber = policy.getPolicyNumber();
+            this.policyType = policy.getPolicyType();
+            this.status = policy.getPolicyStatus();
+            this.startDate = policy.getStartDate();
+            this.expiryDate = policy.getExpiryDate();
+            this.insuranceProviderId = policy.getInsuranceProviderId();
+            this.deductible = policy.getDeductible();
+            this.copayment = policy.getCopayment();
+            this.coverageAmount = policy.getCoverageAmount();
+        }
+
+        boolean isActiveOn(LocalDate date) {
+            return status == PolicyStatus.ACTIVE && startDate != null && expiryDate != null
+                    && !date.isBefore(startDate) && !date.isAfter(expiryDate);
+        }
+    }
+
+    /**
+     * Cached policies of one patient
+     */
+    private static final class PatientCoverage {
+        private final PolicySnapshot[] policies;
+        private final long coverageVersion;
+        private final long loadedNanos;
+
+        PatientCoverage(List<Policy> policies, long coverageVersion) {
+            this.policies = new PolicySnapshot[policies.size()];
+            for (int i = 0; i < this.policies.length; i++) {
+                this.policies[i] = new PolicySnapshot(policies.get(i));
+            }
+            this.coverageVersion = coverageVersion;
+            this.loadedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Constructor using the system policy directory, default rules and TTL
+     */
+    public EligibilityService() {
+        this(SystemData.getInstance().getPolicyDirectory(), CoverageRule.defaults(), DEFAULT_TTL_SECONDS);
+    }
+
+    /**
+     * Shared service for the current system policy directory
+     * A new instance (with an empty cache) is created after the data was
+     * loaded or replaced.
+     */
+    public static synchronized EligibilityService getInstance() {
+        PolicyDirectory current = SystemData.getInstance().getPolicyDirectory();
+        if (instance == null || instance.policyDirectory != current) {
+            instance = new EligibilityService(current, CoverageRule.defaults(), DEFAULT_TTL_SECONDS);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructor
+     */
+    public EligibilityService(PolicyDirectory policyDirectory, Map<ServiceType, CoverageRule> rules,
+            long ttlSeconds) {
+        if (ttlSeconds < 0) {
+            throw new IllegalArgumentException("TTL cannot be negative");
+        }
+        this.policyDirectory = policyDirectory;
+        this.rules = new EnumMap<>(rules);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Check one patient, service type and date
+     */
+    public Eligibility check(String patientId, ServiceType serviceType, LocalDate date) {
+        if (patientId == null) {
+            return missingPatientId();
+        }
+        long version = policyDirectory.getCoverageVersion(patientId);
+        PatientCoverage coverage = cached(patientId, version);
+        if (coverage == null) {
+            // Version read before the policies, so a change while loading makes the entry stale
+            coverage = store(patientId, policyDirectory.getPoliciesByPatient(patientId), version);
+        }
+        return decide(coverage, serviceType, date);
+    }
+
+    /**
+     * Check a whole appointment list (e.g. a day's check-ins), answers in the same order
+     * Patients not cached are resolved together under one directory read lock.
+     */
+    public List<Eligibility> checkAppointments(List<Appointment> appointments) {
+        long now = System.nanoTime();
+        int count = appointments.size();
+        PatientCoverage[] coverages = new PatientCoverage[count];
+        Map<String, Long> toLoad = new HashMap<>(); // Patient ID -> version read before loading
+        int missingIds = 0;
+        for (int i = 0; i < count; i++) {
+            String patientId = appointments.get(i).patientId;
+            if (patientId == null) {
+                missingIds++;
+                continue;
+            }
+            if (toLoad.containsKey(patientId)) {
+                continue;
+            }
+            long version = policyDirectory.getCoverageVersion(patientId);
+            PatientCoverage coverage = cache.get(patientId);
+            if (isFresh(coverage, version, now)) {
+                coverages[i] = coverage;
+            } else {
+                toLoad.put(patientId, version);
+            }
+        }
+        misses.addAndGet(toLoad.size());
+        hits.addAndGet(count - missingIds - toLoad.size());
+
+        Map<String, PatientCoverage> loaded = new HashMap<>();
+        if (!toLoad.isEmpty()) {
+            for (Map.Entry<String, List<Policy>> entry : policyDirectory.getPoliciesByPatients(toLoad.keySet())
+                    .entrySet()) {
+                String patientId = entry.getKey();
+                loaded.put(patientId, store(patientId, entry.getValue(), toLoad.get(patientId)));
+            }
+        }
+        List<Eligibility> answers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = appointments.get(i);
+            if (appointment.patientId == null) {
+                answers.add(missingPatientId());
+                continue;
+            }
+            PatientCoverage coverage = coverages[i] != null ? coverages[i] : loaded.get(appointment.patientId);
+            answers.add(decide(coverage, appointment.serviceType, appointment.date));
+        }
+        return answers;
+    }
+
+    /**
+     * Cached entry if still fresh, else null (counted as a miss)
+     */
+    private PatientCoverage cached(String patientId, long version) {
+        PatientCoverage coverage = cache.get(patientId);
+        if (isFresh(coverage, version, System.nanoTime())) {
+            hits.incrementAndGet();
+            return coverage;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private boolean isFresh(PatientCoverage coverage, long version, long now) {
+        return coverage != null && coverage.coverageVersion == version && now - coverage.loadedNanos < ttlNanos;
+    }
+
+    private PatientCoverage store(String patientId, List<Policy> policies, long version) {
+        PatientCoverage coverage = new PatientCoverage(policies, version);
+        if (cache.size() >= MAX_CACHED_PATIENTS) {
+            evictStale();
+        }
+        cache.put(patientId, coverage);
+        return coverage;
+    }
+
+    /**
+     * Drop expired and stale entries, or everything if that is not enough
+     */
+    private void evictStale() {
+        long now = System.nanoTime();
+        cache.entrySet().removeIf(entry -> !isFresh(entry.getValue(),
+                policyDirectory.getCoverageVersion(entry.getKey()), now));
+        if (cache.size() >= MAX_CACHED_PATIENTS) {
+            cache.clear();
+        }
+    }
+
+    private static Eligibility missingPatientId() {
+        return new Eligibility(false, "No patient ID given", null, 0.0);
+    }
+
+    /**
+     * Decide from a patient's policies: the active policy with the largest coverage wins
+     */
+    private Eligibility decide(PatientCoverage coverage, ServiceType serviceType, LocalDate date) {
+        if (coverage.policies.length == 0) {
+            return new Eligibility(false, "No insurance policy on file", null, 0.0);
+        }
+        PolicySnapshot best = null;
+        for (PolicySnapshot policy : coverage.policies) {
+            if (policy.isActiveOn(date) && (best == null || policy.coverageAmount > best.coverageAmount)) {
+                best = policy;
+            }
+        }
+        if (best == null) {
+            return new Eligibility(false, "No policy active on " + date, null, 0.0);
+        }
+        CoverageRule rule = rules.get(serviceType);
+        if (rule == null || !rule.isCovered()) {
+            return new Eligibility(false, "Service not covered: " + serviceType.getDisplayName(), best, 0.0);
+        }
+        return new Eligibility(true, null, best, rule.getCoveragePercent());
+    }
+
+    /**
+     * Drop every cached patient
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    // ==================== METRICS ====================
+
+    public int getCachedPatientCount() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Fraction of patient lookups answered from the cache, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0.0 : (double) hits.get() / lookups;
+    }
+
+    /**
+     * One-line metrics summary
+     */
+    public String getMetricsSummary() {
+        return String.format("Eligibility cache: %d patients, %.1f%% hits (%d hits, %d misses), TTL %ds",
+                getCachedPatientCount(), getHitRate() * 100, getHits(), getMisses(),
+                TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+    }
+}
@@ -1,15 +1,22 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import model.Enterprise;
 import model.Enterprise.EnterpriseType;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete EnterpriseDirectory class
  * Manages all enterprises in the system
+ * Thread-safe: guarded by a DirectoryLock (concurrent reads, exclusive writes)
  */
 public class EnterpriseDirectory implements Serializable {
     
@@ -18,18 +25,73 @@ public class EnterpriseDirectory implements Serializable {
     // Properties
     private List<Enterprise> enterprises;
     
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+    
+    private transient DirectoryLock lock;
+    
     /**
      * Constructor
      */
     public EnterpriseDirectory() {
+        this.lock = new DirectoryLock();
         this.enterprises = new ArrayList<>();
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    EnterpriseDirectory(SnapshotReader in) throws IOException {
+        this.lock = new DirectoryLock();
+        int count = in.readVarInt();
+        this.enterprises = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            enterprises.add(Enterprise.readSnapshot(in));
+        }
+    }
+    
+    /**
+     * Copy every enterprise for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<Enterprise> copyForSnapshot() {
+        List<Enterprise> copies = new ArrayList<>(enterprises.size());
+        for (Enterprise enterprise : enterprises) {
+            copies.add(enterprise.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write enterprises to a binary snapshot
+     */
+    static void writeSnapshot(SnapshotWriter out, List<Enterprise> enterprises) throws IOException {
+        out.writeVarInt(enterprises.size());
+        for (Enterprise enterprise : enterprises) {
+            enterprise.writeSnapshot(out);
+        }
+    }
+    
+    /**
+     * Create the lock after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock();
+    }
+    
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+    
     /**
      * Get all enterprises
      */
     public List<Enterprise> getAllEnterprises() {
-        return new ArrayList<>(enterprises);
+        return lock.read(() -> new ArrayList<>(enterprises));
     }
     
     /**
@@ -37,7 +99,10 @@ public class EnterpriseDirectory implements Serializable {
      */
     public Enterprise createEnterprise(String name, EnterpriseType type) {
         Enterprise enterprise = new Enterprise(name, type);
-        enterprises.add(enterprise);
+        lock.write(() -> {
+            enterprises.add(enterprise);
+            journal(MutationRecord.enterprise(MutationRecord.Type.ENTERPRISE_CREATED, enterprise));
+        });
         return enterprise;
     }
     
@@ -45,49 +110,62 @@ public class EnterpriseDirectory implements Serializable {
      * Add existing enterprise
      */
     public void addEnterprise(Enterprise enterprise) {
-        if (!enterprises.contains(enterprise)) {
-            enterprises.add(enterprise);
-        }
+        lock.write(() -> {
+            if (!enterprises.contains(enterprise)) {
+                enterprises.add(enterprise);
+                journal(MutationRecord.enterprise(MutationRecord.Type.ENTERPRISE_CREATED, enterprise));
+            }
+        });
     }
     
     /**
      * Remove enterprise
      */
     public boolean removeEnterprise(String enterpriseId) {
-        return enterprises.removeIf(e -> e.getEnterpriseId().equals(enterpriseId));
+        return lock.write(() -> {
+            if (enterprises.removeIf(e -> e.getEnterpriseId().equals(enterpriseId))) {
+                journal(MutationRecord.removal(MutationRecord.Type.ENTERPRISE_REMOVED, enterpriseId));
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
      * Find enterprise by ID
      */
     public Enterprise findEnterpriseById(String enterpriseId) {
-        for (Enterprise enterprise : enterprises) {
-            if (enterprise.getEnterpriseId().equals(enterpriseId)) {
-                return enterprise;
+        return lock.read(() -> {
+            for (Enterprise enterprise : enterprises) {
+                if (enterprise.getEnterpriseId().equals(enterpriseId)) {
+                    return enterprise;
+                }
             }
-        }
-        return null;
+            return null;
+        });
     }
     
     /**
      * Find enterprise by name
      */
     public Enterprise findEnterpriseByName(String name) {
-        for (Enterprise enterprise : enterprises) {
-            if (enterprise.getEnterpriseName().equalsIgnoreCase(name)) {
-                return enterprise;
+        return lock.read(() -> {
+            for (Enterprise enterprise : enterprises) {
+                if (enterprise.getEnterpriseName().equalsIgnoreCase(name)) {
+                    return enterprise;
+                }
             }
-        }
-        return null;
+            return null;
+        });
     }
     
     /**
      * Get all enterprises of a specific type
      */
     public List<Enterprise> getEnterprisesByType(EnterpriseType type) {
-        return enterprises.stream()
+        return lock.read(() -> enterprises.stream()
                 .filter(e -> e.getEnterpriseType() == type)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -122,88 +200,102 @@ public class EnterpriseDirectory implements Serializable {
      * Get all active enterprises
      */
     public List<Enterprise> getActiveEnterprises() {
-        return enterprises.stream()
+        return lock.read(() -> enterprises.stream()
                 .filter(Enterprise::isActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get enterprise count
      */
     public int getEnterpriseCount() {
-        return enterprises.size();
+        return lock.read(() -> enterprises.size());
     }
     
     /**
      * Get enterprise count by type
      */
     public int getEnterpriseCountByType(EnterpriseType type) {
-        return (int) enterprises.stream()
+        return lock.read(() -> (int) enterprises.stream()
                 .filter(e -> e.getEnterpriseType() == type)
-                .count();
+                .count());
     }
     
     /**
      * Check if enterprise name already exists
      */
     public boolean isEnterpriseNameExists(String name) {
-        return enterprises.stream()
-                .anyMatch(e -> e.getEnterpriseName().equalsIgnoreCase(name));
+        return lock.read(() -> enterprises.stream()
+                .anyMatch(e -> e.getEnterpriseName().equalsIgnoreCase(name)));
     }
     
     /**
      * Deactivate enterprise
      */
     public boolean deactivateEnterprise(String enterpriseId) {
-        Enterprise enterprise = findEnterpriseById(enterpriseId);
-        if (enterprise != null) {
-            enterprise.deactivate();
-            return true;
-        }
-        return false;
+        return updateEnterprise(enterpriseId, Enterprise::deactivate);
     }
     
     /**
      * Activate enterprise
      */
     public boolean activateEnterprise(String enterpriseId) {
-        Enterprise enterprise = findEnterpriseById(enterpriseId);
-        if (enterprise != null) {
-            enterprise.activate();
-            return true;
-        }
-        return false;
+        return updateEnterprise(enterpriseId, Enterprise::activate);
     }
     
     /**
      * Update enterprise name
      */
     public boolean updateEnterpriseName(String enterpriseId, String newName) {
-        Enterprise enterprise = findEnterpriseById(enterpriseId);
-        if (enterprise != null) {
-            enterprise.setEnterpriseName(newName);
+        return updateEnterprise(enterpriseId, enterprise -> enterprise.setEnterpriseName(newName));
+    }
+    
+    /**
+     * Add organization to enterprise
+     */
+    public boolean addOrganizationToEnterprise(String enterpriseId, String organizationId) {
+        return updateEnterprise(enterpriseId, enterprise -> enterprise.addOrganization(organizationId));
+    }
+    
+    /**
+     * Add employee to enterprise
+     */
+    public boolean addEmployeeToEnterprise(String enterpriseId, String employeeId) {
+        return updateEnterprise(enterpriseId, enterprise -> enterprise.addEmployee(employeeId));
+    }
+    
+    /**
+     * Change enterprise under the write lock, so a snapshot never sees it half changed
+     */
+    private boolean updateEnterprise(String enterpriseId, Consumer<Enterprise> update) {
+        return lock.write(() -> {
+            Enterprise enterprise = findEnterpriseById(enterpriseId);
+            if (enterprise == null) {
+                return false;
+            }
+            update.accept(enterprise);
+            journal(MutationRecord.enterprise(MutationRecord.Type.ENTERPRISE_UPDATED, enterprise));
             return true;
-        }
-        return false;
+        });
     }
     
     /**
      * Get enterprise names for dropdown (UI helper)
      */
     public List<String> getEnterpriseNamesForDropdown() {
-        return enterprises.stream()
+        return lock.read(() -> enterprises.stream()
                 .map(Enterprise::getEnterpriseName)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get enterprise names by type for dropdown
      */
     public List<String> getEnterpriseNamesByType(EnterpriseType type) {
-        return enterprises.stream()
+        return lock.read(() -> enterprises.stream()
                 .filter(e -> e.getEnterpriseType() == type)
                 .map(Enterprise::getEnterpriseName)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -211,22 +303,51 @@ public class EnterpriseDirectory implements Serializable {
      */
     public List<Enterprise> searchEnterprisesByName(String searchTerm) {
         String lowerSearch = searchTerm.toLowerCase();
-        return enterprises.stream()
+        return lock.read(() -> enterprises.stream()
                 .filter(e -> e.getEnterpriseName().toLowerCase().contains(lowerSearch))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Clear all enterprises (for testing)
      */
     public void clearAll() {
-        enterprises.clear();
+        lock.write(() -> {
+            for (Enterprise enterprise : enterprises) {
+                journal(MutationRecord.removal(MutationRecord.Type.ENTERPRISE_REMOVED, enterprise.getEnterpriseId()));
+            }
+            enterprises.clear();
+        });
+    }
+    
+    // ==================== JOURNAL ====================
+    
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+    
+    /**
+     * Apply replayed journal changes (enterprise ID -> enterprise, null = removed)
+     */
+    void applyJournaledChanges(Map<String, Enterprise> changes) {
+        lock.write(() -> {
+            enterprises = MutationRecord.mergeChanges(enterprises, Enterprise::getEnterpriseId, changes);
+        });
     }
     
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return enterprises.isEmpty();
+        return lock.read(() -> enterprises.isEmpty());
     }
 }
\ No newline at end of file
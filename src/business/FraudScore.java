@@ -0,0 +1,48 @@
+package business;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Risk score of one claim submission (0 = no risk signals, 100 = maximum)
+ */
+public class FraudScore {
+
+    // Properties
+    private final int score;
+    private final List<String> reasons; // One entry per signal that added to the score
+    private final boolean suspicious;
+
+    /**
+     * Constructor
+     */
+    FraudScore(int score, List<String> reasons, boolean suspicious) {
+        this.score = score;
+        this.reasons = Collections.unmodifiableList(reasons);
+        this.suspicious = suspicious;
+    }
+
+    // Getters
+    public int getScore() {
+        return score;
+    }
+
+    public List<String> getReasons() {
+        return reasons;
+    }
+
+    /**
+     * Check if the score reached the flag threshold
+     */
+    public boolean isSuspicious() {
+        return suspicious;
+    }
+
+    @Override
+    public String toString() {
+        if (reasons.isEmpty()) {
+            return "Risk score " + score;
+        }
+        return "Risk score " + score + " (" + String.join("; ", reasons) + ")";
+    }
+}
@@ -0,0 +1,362 @@
+package business;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.Claim;
+import model.Claim.ServiceType;
+
+/**
+ * Streaming fraud and anomaly scorer for claim submissions
+ * Scores each new claim against rolling statistics, then adds it to them:
+ * - amount z-score against recent claims of the same service type
+ * - claim frequency of the provider (per week) and the patient (per month)
+ * - scheduled care on weekends and holidays, and providers that mostly
+ *   bill for those days
+ * All state lives in fixed-size windows: the last claims per provider and
+ * patient (for the most recently seen providers and patients only) and the
+ * last amounts per service type, so memory does not grow with history.
+ * Owned by ClaimDirectory, which flags suspicious claims for review.
+ */
+public class FraudScorer {
+
+    public static final String PROCESSOR_ID = "FRAUD-SCREEN";
+    public static final int DEFAULT_FLAG_THRESHOLD = 50;
+
+    // Window sizes
+    private static final int MAX_TRACKED_KEYS = 10_000; // Providers and patients each; least recently seen dropped
+    private static final int EVENTS_PER_KEY = 64;
+    private static final int AMOUNTS_PER_SERVICE_TYPE = 1_000;
+    private static final int MIN_AMOUNT_SAMPLES = 30;
+
+    // Signal thresholds
+    private static final double AMOUNT_Z_THRESHOLD = 2.0;
+    private static final int PROVIDER_WINDOW_DAYS = 7;
+    private static final int PROVIDER_CLAIMS_PER_WINDOW = 20;
+    private static final int PATIENT_WINDOW_DAYS = 30;
+    private static final int PATIENT_CLAIMS_PER_WINDOW = 5;
+    private static final int MIN_CLAIMS_FOR_OFF_DAY_SHARE = 10;
+
+    private final Map<String, DateWindow> providerWindows;
+    private final Map<String, DateWindow> patientWindows;
+    private final Map<ServiceType, AmountWindow> amountWindows;
+    private volatile int flagThreshold;
+    private long scoredCount; // Guarded by this
+    private long flaggedCount; // Guarded by this
+
+    /**
+     * Constructor
+     */
+    public FraudScorer() {
+        this(DEFAULT_FLAG_THRESHOLD);
+    }
+
+    /**
+     * Constructor with the score from which claims are flagged
+     */
+    public FraudScorer(int flagThreshold) {
+        setFlagThreshold(flagThreshold);
+        this.providerWindows = lruMap();
+        this.patientWindows = lruMap();
+        this.amountWindows = new EnumMap<>(ServiceType.class);
+    }
+
+    private static Map<String, DateWindow> lruMap() {
+        return new LinkedHashMap<String, DateWindow>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DateWindow> eldest) {
+                return size() > MAX_TRACKED_KEYS;
+            }
+        };
+    }
+
+    // ==================== SCORING ====================
+
+    /**
+     * Score a claim, then add it to the rolling statistics
+     */
+    public FraudScore score(Claim claim) {
+        return score(claim.getProviderName(), claim.getPatientId(), claim.getServiceDate(),
+                claim.getServiceType(), claim.getClaimAmount());
+    }
+
+    /**
+     * Score a submission, then add it to the rolling statistics
+     */
+    public synchronized FraudScore score(String providerName, String patientId, LocalDate serviceDate,
+                                         ServiceType serviceType, double claimAmount) {
+        DateWindow provider = window(providerWindows, providerKey(providerName));
+        DateWindow patient = window(patientWindows, patientId == null ? "" : patientId);
+        AmountWindow amounts = amountWindow(serviceType);
+        int day = serviceDate == null ? 0 : (int) serviceDate.toEpochDay();
+        boolean offDay = serviceDate != null && isWeekendOrHoliday(serviceDate);
+
+        int score = 0;
+        List<String> reasons = new ArrayList<>(2);
+
+        if (amounts.size() >= MIN_AMOUNT_SAMPLES) {
+            double z = amounts.zScore(claimAmount);
+            if (z > AMOUNT_Z_THRESHOLD) {
+                score += Math.min(40, (int) Math.round((z - AMOUNT_Z_THRESHOLD) * 15));
+                reasons.add(String.format("amount %.1f std dev above average %s", z, displayName(serviceType)));
+            }
+        }
+
+        int providerCount = provider.countWithin(day, PROVIDER_WINDOW_DAYS) + 1;
+        if (providerCount > PROVIDER_CLAIMS_PER_WINDOW) {
+            score += Math.min(25, (providerCount - PROVIDER_CLAIMS_PER_WINDOW) * 2);
+            reasons.add("provider billed " + providerCount + " claims within " + PROVIDER_WINDOW_DAYS + " days");
+        }
+
+        int patientCount = patient.countWithin(day, PATIENT_WINDOW_DAYS) + 1;
+        if (patientCount > PATIENT_CLAIMS_PER_WINDOW) {
+            score += Math.min(25, (patientCount - PATIENT_CLAIMS_PER_WINDOW) * 5);
+            reasons.add("patient filed " + patientCount + " claims within " + PATIENT_WINDOW_DAYS + " days");
+        }
+
+        if (offDay && isScheduledCare(serviceType)) {
+            score += 15;
+            reasons.add(displayName(serviceType) + " on a weekend or holiday");
+        }
+        if (provider.size() >= MIN_CLAIMS_FOR_OFF_DAY_SHARE && provider.offDayShare() > 0.5) {
+            score += 10;
+            reasons.add("provider bills mostly weekends and holidays");
+        }
+
+        provider.add(day, offDay);
+        patient.add(day, offDay);
+        amounts.add(claimAmount);
+
+        score = Math.min(100, score);
+        boolean suspicious = score >= flagThreshold;
+        scoredCount++;
+        if (suspicious) {
+            flaggedCount++;
+        }
+        return new FraudScore(score, reasons, suspicious);
+    }
+
+    /**
+     * Add an existing claim to the rolling statistics without scoring it
+     * Used to warm the windows from claim history after loading.
+     */
+    public synchronized void record(Claim claim) {
+        LocalDate serviceDate = claim.getServiceDate();
+        int day = serviceDate == null ? 0 : (int) serviceDate.toEpochDay();
+        boolean offDay = serviceDate != null && isWeekendOrHoliday(serviceDate);
+        window(providerWindows, providerKey(claim.getProviderName())).add(day, offDay);
+        window(patientWindows, claim.getPatientId() == null ? "" : claim.getPatientId()).add(day, offDay);
+        amountWindow(claim.getServiceType()).add(claim.getClaimAmount());
+    }
+
+    private static DateWindow window(Map<String, DateWindow> windows, String key) {
+        DateWindow window = windows.get(key);
+        if (window == null) {
+            window = new DateWindow();
+            windows.put(key, window);
+        }
+        return window;
+    }
+
+    private AmountWindow amountWindow(ServiceType serviceType) {
+        return amountWindows.computeIfAbsent(serviceType == null ? ServiceType.OTHER : serviceType,
+                type -> new AmountWindow());
+    }
+
+    private static String providerKey(String providerName) {
+        return providerName == null ? "" : providerName.trim().toLowerCase();
+    }
+
+    private static String displayName(ServiceType serviceType) {
+        return serviceType == null ? "claim" : serviceType.getDisplayName();
+    }
+
+    /**
+     * Services that are normally booked on working days
+     */
+    private static boolean isScheduledCare(ServiceType serviceType) {
+        if (serviceType == null) {
+            return false;
+        }
+        switch (serviceType) {
+            case DOCTOR_VISIT:
+            case DIAGNOSTIC_TEST:
+            case PHYSICAL_THERAPY:
+            case DENTAL:
+            case VISION:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check for a Saturday, Sunday or US federal holiday
+     */
+    static boolean isWeekendOrHoliday(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return true;
+        }
+        int day = date.getDayOfMonth();
+        switch (date.getMonth()) {
+            case JANUARY:
+                return day == 1 || date.equals(nthWeekday(date, 3, DayOfWeek.MONDAY)); // New Year, MLK Day
+            case FEBRUARY:
+                return date.equals(nthWeekday(date, 3, DayOfWeek.MONDAY)); // Presidents Day
+            case MAY:
+                return date.equals(date.with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY))); // Memorial Day
+            case JUNE:
+                return day == 19;
+            case JULY:
+                return day == 4;
+            case SEPTEMBER:
+                return date.equals(nthWeekday(date, 1, DayOfWeek.MONDAY)); // Labor Day
+            case OCTOBER:
+                return date.equals(nthWeekday(date, 2, DayOfWeek.MONDAY)); // Columbus Day
+            case NOVEMBER:
+                return day == 11 || date.equals(nthWeekday(date, 4, DayOfWeek.THURSDAY)); // Veterans, Thanksgiving
+            case DECEMBER:
+                return day == 25;
+            default:
+                return false;
+        }
+    }
+
+    private static LocalDate nthWeekday(LocalDate date, int n, DayOfWeek dayOfWeek) {
+        return date.with(TemporalAdjusters.dayOfWeekInMonth(n, dayOfWeek));
+    }
+
+    // ==================== SETTINGS AND METRICS ====================
+
+    public int getFlagThreshold() {
+        return flagThreshold;
+    }
+
+    public void setFlagThreshold(int flagThreshold) {
+        if (flagThreshold < 1 || flagThreshold > 100) {
+            throw new IllegalArgumentException("Flag threshold must be between 1 and 100");
+        }
+        this.flagThreshold = flagThreshold;
+    }
+
+    public synchronized long getScoredCount() {
+        return scoredCount;
+    }
+
+    public synchronized long getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    /**
+     * Number of providers and patients currently tracked (bounded)
+     */
+    public synchronized int getTrackedKeyCount() {
+        return providerWindows.size() + patientWindows.size();
+    }
+
+    // ==================== WINDOWS ====================
+
+    /**
+     * Service days of the last claims of one provider or patient (ring buffer)
+     */
+    private static final class DateWindow {
+        private final int[] days = new int[EVENTS_PER_KEY];
+        private final boolean[] offDays = new boolean[EVENTS_PER_KEY];
+        private int size;
+        private int next;
+        private int offDayCount;
+
+        void add(int day, boolean offDay) {
+            if (size == days.length) {
+                if (offDays[next]) {
+                    offDayCount--;
+                }
+            } else {
+                size++;
+            }
+            days[next] = day;
+            offDays[next] = offDay;
+            if (offDay) {
+                offDayCount++;
+            }
+            next = (next + 1) % days.length;
+        }
+
+        /**
+         * Claims with a service day less than windowDays away from day
+         */
+        int countWithin(int day, int windowDays) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (Math.abs(days[i] - day) < windowDays) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        double offDayShare() {
+            return size == 0 ? 0.0 : (double) offDayCount / size;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Last claim amounts of one service type with running mean and variance
+     */
+    private static final class AmountWindow {
+        private final double[] amounts = new double[AMOUNTS_PER_SERVICE_TYPE];
+        private int size;
+        private int next;
+        private double sum;
+        private double sumOfSquares;
+
+        void add(double amount) {
+            if (size == amounts.length) {
+                double dropped = amounts[next];
+                sum -= dropped;
+                sumOfSquares -= dropped * dropped;
+            } else {
+                size++;
+            }
+            amounts[next] = amount;
+            sum += amount;
+            sumOfSquares += amount * amount;
+            next = (next + 1) % amounts.length;
+            if (next == 0) {
+                recomputeSums(); // Drop rounding drift once per full turn
+            }
+        }
+
+        double zScore(double amount) {
+            double mean = sum / size;
+            double variance = sumOfSquares / size - mean * mean;
+            if (variance <= 0) {
+                return 0.0;
+            }
+            return (amount - mean) / Math.sqrt(variance);
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void recomputeSums() {
+            sum = 0;
+            sumOfSquares = 0;
+            for (int i = 0; i < size; i++) {
+                sum += amounts[i];
+                sumOfSquares += amounts[i] * amounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package business;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-file result of one ClaimIngestionService run
+ */
+public class IngestionReport {
+
+    /**
+     * Outcome for one document or batch file record: the new claim number,
+     * or the reason it was rejected
+     */
+    public static class FileResult {
+        private final Path file;
+        private final String location; // Record within a batch file, null for single documents
+        private final String claimNumber;
+        private final String error;
+
+        FileResult(Path file, String location, String claimNumber, String error) {
+            this.file = file;
+            this.location = location;
+            this.claimNumber = claimNumber;
+            this.error = error;
+        }
+
+        static FileResult success(Path file, String location, String claimNumber) {
+            return new FileResult(file, location, claimNumber, null);
+        }
+
+        static FileResult failure(Path file, String location, String error) {
+            return new FileResult(file, location, null, error);
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getClaimNumber() {
+            return claimNumber;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    // Properties
+    private final List<FileResult> results;
+    private final int successCount;
+    private final long elapsedNanos;
+    private final int threads;
+    private Path reportFile; // Where the CSV report was written, if anywhere
+
+    /**
+     * Constructor
+     */
+    IngestionReport(List<FileResult> results, long elapsedNanos, int threads) {
+        this.results = Collections.unmodifiableList(results);
+        this.successCount = (int) results.stream().filter(FileResult::isSuccess).count();
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    // Getters
+    public List<FileResult> getResults() {
+        return results;
+    }
+
+    public int getFileCount() {
+        return results.size();
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return results.size() - successCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Path getReportFile() {
+        return reportFile;
+    }
+
+    /**
+     * Throughput of the run (parsing, validation and storing)
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : results.size() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Write one CSV line per document or record: file, location, status, claim number, message
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("file,location,status,claim_number,message");
+            writer.newLine();
+            for (FileResult result : results) {
+                writer.write(csv(result.getFile().toString()));
+                writer.write(',');
+                writer.write(result.getLocation() == null ? "" : csv(result.getLocation()));
+                writer.write(result.isSuccess() ? ",OK," : ",ERROR,");
+                writer.write(result.isSuccess() ? result.getClaimNumber() : "");
+                writer.write(',');
+                writer.write(result.isSuccess() ? "" : csv(result.getError()));
+                writer.newLine();
+            }
+        }
+        reportFile = file;
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d documents: %d claims created, %d rejected in %d ms (%,.0f docs/s, %d threads)",
+                getFileCount(), getSuccessCount(), getFailureCount(), getElapsedMillis(), getDocumentsPerSecond(),
+                threads);
+    }
+}
@@ -0,0 +1,15 @@
+package business;
+
+/**
+ * Destination for journaled SystemData changes
+ * Directories append a record after every mutation they perform.
+ * Implementations must copy the record state before returning, because the
+ * entity keeps changing after append() returns.
+ */
+public interface MutationLog {
+
+    /**
+     * Append a mutation record
+     */
+    void append(MutationRecord record);
+}
@@ -0,0 +1,165 @@
+package business;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import model.Claim;
+import model.Enterprise;
+import model.Organization;
+import model.Policy;
+import model.Prescription;
+import model.User;
+
+/**
+ * One journaled change to SystemData
+ * Every record carries the full state of the entity after the change (or
+ * only its key for removals), so replaying records is idempotent and only
+ * the last record for each key matters.
+ */
+public class MutationRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Entity a record applies to
+    public enum EntityType {
+        CLAIM,
+        POLICY,
+        PRESCRIPTION,
+        USER,
+        ENTERPRISE,
+        ORGANIZATION
+    }
+
+    // Mutation types
+    public enum Type {
+        CLAIM_CREATED(EntityType.CLAIM, false),
+        CLAIM_STATUS_CHANGED(EntityType.CLAIM, false),
+        CLAIM_UPDATED(EntityType.CLAIM, false),
+        CLAIM_REMOVED(EntityType.CLAIM, true),
+        POLICY_CREATED(EntityType.POLICY, false),
+        POLICY_RENEWED(EntityType.POLICY, false),
+        POLICY_CANCELLED(EntityType.POLICY, false),
+        POLICY_UPDATED(EntityType.POLICY, false),
+        POLICY_REMOVED(EntityType.POLICY, true),
+        PRESCRIPTION_CREATED(EntityType.PRESCRIPTION, false),
+        PRESCRIPTION_REFILLED(EntityType.PRESCRIPTION, false),
+        PRESCRIPTION_CANCELLED(EntityType.PRESCRIPTION, false),
+        PRESCRIPTION_REMOVED(EntityType.PRESCRIPTION, true),
+        USER_CREATED(EntityType.USER, false),
+        USER_UPDATED(EntityType.USER, false),
+        USER_REMOVED(EntityType.USER, true),
+        ENTERPRISE_CREATED(EntityType.ENTERPRISE, false),
+        ENTERPRISE_UPDATED(EntityType.ENTERPRISE, false),
+        ENTERPRISE_REMOVED(EntityType.ENTERPRISE, true),
+        ORGANIZATION_CREATED(EntityType.ORGANIZATION, false),
+        ORGANIZATION_UPDATED(EntityType.ORGANIZATION, false),
+        ORGANIZATION_REMOVED(EntityType.ORGANIZATION, true);
+
+        private final EntityType entityType;
+        private final boolean removal;
+
+        Type(EntityType entityType, boolean removal) {
+            this.entityType = entityType;
+            this.removal = removal;
+        }
+
+        public EntityType getEntityType() {
+            return entityType;
+        }
+
+        public boolean isRemoval() {
+            return removal;
+        }
+    }
+
+    // Properties
+    private final Type type;
+    private final String key; // Claim number, policy number, prescription number, user, enterprise or organization ID
+    private final Serializable entity; // State after the change, null for removals
+
+    /**
+     * Constructor
+     */
+    public MutationRecord(Type type, String key, Serializable entity) {
+        this.type = type;
+        this.key = key;
+        this.entity = entity;
+    }
+
+    // ==================== FACTORIES ====================
+
+    public static MutationRecord claim(Type type, Claim claim) {
+        return new MutationRecord(type, claim.getClaimNumber(), claim);
+    }
+
+    public static MutationRecord policy(Type type, Policy policy) {
+        return new MutationRecord(type, policy.getPolicyNumber(), policy);
+    }
+
+    public static MutationRecord prescription(Type type, Prescription prescription) {
+        return new MutationRecord(type, prescription.getPrescriptionNumber(), prescription);
+    }
+
+    public static MutationRecord user(Type type, User user) {
+        return new MutationRecord(type, user.getUserId(), user);
+    }
+
+    public static MutationRecord enterprise(Type type, Enterprise enterprise) {
+        return new MutationRecord(type, enterprise.getEnterpriseId(), enterprise);
+    }
+
+    public static MutationRecord organization(Type type, Organization organization) {
+        return new MutationRecord(type, organization.getOrganizationId(), organization);
+    }
+
+    public static MutationRecord removal(Type type, String key) {
+        return new MutationRecord(type, key, null);
+    }
+
+    /**
+     * Merge replayed changes (key -> new state, null = removed) into a list
+     * Replaced entries keep their position, new entries are appended
+     */
+    static <T> List<T> mergeChanges(List<T> current, Function<T, String> keyOf, Map<String, T> changes) {
+        Map<String, T> pending = new LinkedHashMap<>(changes);
+        List<T> merged = new ArrayList<>(current.size() + pending.size());
+        for (T item : current) {
+            String key = keyOf.apply(item);
+            if (pending.containsKey(key)) {
+                T replacement = pending.remove(key);
+                if (replacement != null) {
+                    merged.add(replacement);
+                }
+            } else {
+                merged.add(item);
+            }
+        }
+        for (T item : pending.values()) {
+            if (item != null) {
+                merged.add(item);
+            }
+        }
+        return merged;
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Serializable getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + key;
+    }
+}
@@ -1,15 +1,22 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import model.Organization;
 import model.Organization.OrganizationType;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete OrganizationDirectory class
  * Manages all organizations in the system
+ * Thread-safe: guarded by a DirectoryLock (concurrent reads, exclusive writes)
  */
 public class OrganizationDirectory implements Serializable {
     
@@ -18,18 +25,73 @@ public class OrganizationDirectory implements Serializable {
     // Properties
     private List<Organization> organizations;
     
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+    
+    private transient DirectoryLock lock;
+    
     /**
      * Constructor
      */
     public OrganizationDirectory() {
+        this.lock = new DirectoryLock();
         this.organizations = new ArrayList<>();
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    OrganizationDirectory(SnapshotReader in) throws IOException {
+        this.lock = new DirectoryLock();
+        int count = in.readVarInt();
+        this.organizations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            organizations.add(Organization.readSnapshot(in));
+        }
+    }
+    
+    /**
+     * Copy every organization for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<Organization> copyForSnapshot() {
+        List<Organization> copies = new ArrayList<>(organizations.size());
+        for (Organization organization : organizations) {
+            copies.add(organization.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write organizations to a binary snapshot
+     */
+    static void writeSnapshot(SnapshotWriter out, List<Organization> organizations) throws IOException {
+        out.writeVarInt(organizations.size());
+        for (Organization organization : organizations) {
+            organization.writeSnapshot(out);
+        }
+    }
+    
+    /**
+     * Create the lock after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock();
+    }
+    
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+    
     /**
      * Get all organizations
      */
     public List<Organization> getAllOrganizations() {
-        return new ArrayList<>(organizations);
+        return lock.read(() -> new ArrayList<>(organizations));
     }
     
     /**
@@ -37,7 +99,10 @@ public class OrganizationDirectory implements Serializable {
      */
     public Organization createOrganization(String name, OrganizationType type, String enterpriseId) {
         Organization organization = new Organization(name, type, enterpriseId);
-        organizations.add(organization);
+        lock.write(() -> {
+            organizations.add(organization);
+            journal(MutationRecord.organization(MutationRecord.Type.ORGANIZATION_CREATED, organization));
+        });
         return organization;
     }
     
@@ -45,147 +110,167 @@ public class OrganizationDirectory implements Serializable {
      * Add existing organization
      */
     public void addOrganization(Organization organization) {
-        if (!organizations.contains(organization)) {
-            organizations.add(organization);
-        }
+        lock.write(() -> {
+            if (!organizations.contains(organization)) {
+                organizations.add(organization);
+                journal(MutationRecord.organization(MutationRecord.Type.ORGANIZATION_CREATED, organization));
+            }
+        });
     }
     
     /**
      * Remove organization
      */
     public boolean removeOrganization(String organizationId) {
-        return organizations.removeIf(o -> o.getOrganizationId().equals(organizationId));
+        return lock.write(() -> {
+            if (organizations.removeIf(o -> o.getOrganizationId().equals(organizationId))) {
+                journal(MutationRecord.removal(MutationRecord.Type.ORGANIZATION_REMOVED, organizationId));
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
      * Find organization by ID
      */
     public Organization findOrganizationById(String organizationId) {
-        for (Organization organization : organizations) {
-            if (organization.getOrganizationId().equals(organizationId)) {
-                return organization;
+        return lock.read(() -> {
+            for (Organization organization : organizations) {
+                if (organization.getOrganizationId().equals(organizationId)) {
+                    return organization;
+                }
             }
-        }
-        return null;
+            return null;
+        });
     }
     
     /**
      * Find organization by name
      */
     public Organization findOrganizationByName(String name) {
-        for (Organization organization : organizations) {
-            if (organization.getOrganizationName().equalsIgnoreCase(name)) {
-                return organization;
+        return lock.read(() -> {
+            for (Organization organization : organizations) {
+                if (organization.getOrganizationName().equalsIgnoreCase(name)) {
+                    return organization;
+                }
             }
-        }
-        return null;
+            return null;
+        });
     }
     
     /**
      * Get all organizations for a specific enterprise
      */
     public List<Organization> getOrganizationsByEnterprise(String enterpriseId) {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .filter(o -> o.getEnterpriseId().equals(enterpriseId))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get organizations by type
      */
     public List<Organization> getOrganizationsByType(OrganizationType type) {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .filter(o -> o.getOrganizationType() == type)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get all active organizations
      */
     public List<Organization> getActiveOrganizations() {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .filter(Organization::isActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get organization count
      */
     public int getOrganizationCount() {
-        return organizations.size();
+        return lock.read(() -> organizations.size());
     }
     
     /**
      * Get organization count for enterprise
      */
     public int getOrganizationCountForEnterprise(String enterpriseId) {
-        return (int) organizations.stream()
+        return lock.read(() -> (int) organizations.stream()
                 .filter(o -> o.getEnterpriseId().equals(enterpriseId))
-                .count();
+                .count());
     }
     
     /**
      * Check if organization name exists within an enterprise
      */
     public boolean isOrganizationNameExistsInEnterprise(String name, String enterpriseId) {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .anyMatch(o -> o.getOrganizationName().equalsIgnoreCase(name) && 
-                              o.getEnterpriseId().equals(enterpriseId));
+                              o.getEnterpriseId().equals(enterpriseId)));
     }
     
     /**
      * Deactivate organization
      */
     public boolean deactivateOrganization(String organizationId) {
-        Organization organization = findOrganizationById(organizationId);
-        if (organization != null) {
-            organization.deactivate();
-            return true;
-        }
-        return false;
+        return updateOrganization(organizationId, Organization::deactivate);
     }
     
     /**
      * Activate organization
      */
     public boolean activateOrganization(String organizationId) {
-        Organization organization = findOrganizationById(organizationId);
-        if (organization != null) {
-            organization.activate();
-            return true;
-        }
-        return false;
+        return updateOrganization(organizationId, Organization::activate);
     }
     
     /**
      * Update organization name
      */
     public boolean updateOrganizationName(String organizationId, String newName) {
-        Organization organization = findOrganizationById(organizationId);
-        if (organization != null) {
-            organization.setOrganizationName(newName);
+        return updateOrganization(organizationId, organization -> organization.setOrganizationName(newName));
+    }
+    
+    /**
+     * Add employee to organization
+     */
+    public boolean addEmployeeToOrganization(String organizationId, String employeeId) {
+        return updateOrganization(organizationId, organization -> organization.addEmployee(employeeId));
+    }
+    
+    /**
+     * Change organization under the write lock, so a snapshot never sees it half changed
+     */
+    private boolean updateOrganization(String organizationId, Consumer<Organization> update) {
+        return lock.write(() -> {
+            Organization organization = findOrganizationById(organizationId);
+            if (organization == null) {
+                return false;
+            }
+            update.accept(organization);
+            journal(MutationRecord.organization(MutationRecord.Type.ORGANIZATION_UPDATED, organization));
             return true;
-        }
-        return false;
+        });
     }
     
     /**
      * Get organization names for dropdown (UI helper)
      */
     public List<String> getOrganizationNamesForDropdown() {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .map(Organization::getOrganizationName)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get organization names for specific enterprise
      */
     public List<String> getOrganizationNamesByEnterprise(String enterpriseId) {
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .filter(o -> o.getEnterpriseId().equals(enterpriseId))
                 .map(Organization::getOrganizationName)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
@@ -193,22 +278,51 @@ public class OrganizationDirectory implements Serializable {
      */
     public List<Organization> searchOrganizationsByName(String searchTerm) {
         String lowerSearch = searchTerm.toLowerCase();
-        return organizations.stream()
+        return lock.read(() -> organizations.stream()
                 .filter(o -> o.getOrganizationName().toLowerCase().contains(lowerSearch))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Clear all organizations (for testing)
      */
     public void clearAll() {
-        organizations.clear();
+        lock.write(() -> {
+            for (Organization organization : organizations) {
+                journal(MutationRecord.removal(MutationRecord.Type.ORGANIZATION_REMOVED, organization.getOrganizationId()));
+            }
+            organizations.clear();
+        });
+    }
+    
+    // ==================== JOURNAL ====================
+    
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+    
+    /**
+     * Apply replayed journal changes (organization ID -> organization, null = removed)
+     */
+    void applyJournaledChanges(Map<String, Organization> changes) {
+        lock.write(() -> {
+            organizations = MutationRecord.mergeChanges(organizations, Organization::getOrganizationId, changes);
+        });
     }
     
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return organizations.isEmpty();
+        return lock.read(() -> organizations.isEmpty());
     }
 }
\ No newline at end of file
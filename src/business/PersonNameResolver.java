@@ -0,0 +1,101 @@
+package business;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import model.Patient;
+import model.Person;
+import model.User;
+
+/**
+ * Resolves person and patient IDs to display names for table rendering
+ * Owned by UserDirectory, which registers and unregisters users as they
+ * change, so each lookup is a single hash read. Names are read from the
+ * live Person object, so edits to first/last name are always reflected.
+ * Updates run under UserDirectory's write lock; lookups need no lock.
+ */
+public class PersonNameResolver {
+
+    // Index keyed on personId, plus patientId for Patient persons
+    private final Map<String, Person> personsById;
+
+    /**
+     * Constructor
+     */
+    PersonNameResolver() {
+        this.personsById = new ConcurrentHashMap<>();
+    }
+
+    // ==================== UPDATES (called by UserDirectory) ====================
+
+    void register(User user) {
+        register(user.getPerson());
+    }
+
+    void unregister(User user) {
+        unregister(user.getPerson());
+    }
+
+    void register(Person person) {
+        if (person == null) {
+            return;
+        }
+        putIfPresent(person.getPersonId(), person);
+        if (person instanceof Patient) {
+            putIfPresent(((Patient) person).getPatientId(), person);
+        }
+    }
+
+    void unregister(Person person) {
+        if (person == null) {
+            return;
+        }
+        removeIfPresent(person.getPersonId(), person);
+        if (person instanceof Patient) {
+            removeIfPresent(((Patient) person).getPatientId(), person);
+        }
+    }
+
+    private void putIfPresent(String id, Person person) {
+        if (id != null) {
+            personsById.putIfAbsent(id, person);
+        }
+    }
+
+    private void removeIfPresent(String id, Person person) {
+        if (id != null) {
+            personsById.remove(id, person);
+        }
+    }
+
+    void clear() {
+        personsById.clear();
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Find person by person ID or patient ID
+     */
+    public Person findPerson(String id) {
+        if (id == null) {
+            return null;
+        }
+        return personsById.get(id);
+    }
+
+    /**
+     * Get full name for a person ID or patient ID, or null if unknown
+     */
+    public String resolveName(String id) {
+        Person person = findPerson(id);
+        return person != null ? person.getFullName() : null;
+    }
+
+    /**
+     * Get full name for a person ID or patient ID, or the fallback if unknown
+     */
+    public String resolveName(String id, String fallback) {
+        String name = resolveName(id);
+        return name != null ? name : fallback;
+    }
+}
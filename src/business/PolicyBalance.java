@@ -0,0 +1,100 @@
+package business;
+
+import model.Policy;
+
+/**
+ * Deductible and coverage balance of one policy (immutable)
+ * Built by PolicyLedger from its running totals and the policy's current
+ * deductible and coverage amount.
+ */
+public class PolicyBalance {
+
+    // Properties
+    private final String policyNumber;
+    private final double deductible;
+    private final double coverageAmount;
+    private final double chargesApplied; // Claim amounts of approved and paid claims
+    private final double approvedAmount; // Payouts of approved and paid claims
+    private final double paidAmount; // Payouts of paid claims
+    private final int claimCount; // Approved and paid claims
+
+    /**
+     * Constructor
+     */
+    PolicyBalance(Policy policy, double chargesApplied, double approvedAmount, double paidAmount, int claimCount) {
+        this.policyNumber = policy.getPolicyNumber();
+        this.deductible = policy.getDeductible();
+        this.coverageAmount = policy.getCoverageAmount();
+        this.chargesApplied = chargesApplied;
+        this.approvedAmount = approvedAmount;
+        this.paidAmount = paidAmount;
+        this.claimCount = claimCount;
+    }
+
+    // Getters
+    public String getPolicyNumber() {
+        return policyNumber;
+    }
+
+    public double getDeductible() {
+        return deductible;
+    }
+
+    public double getCoverageAmount() {
+        return coverageAmount;
+    }
+
+    public double getApprovedAmount() {
+        return approvedAmount;
+    }
+
+    public double getPaidAmount() {
+        return paidAmount;
+    }
+
+    public int getClaimCount() {
+        return claimCount;
+    }
+
+    /**
+     * Deductible met so far (approved charges count toward it)
+     */
+    public double getDeductibleMet() {
+        return Math.min(deductible, chargesApplied);
+    }
+
+    public double getRemainingDeductible() {
+        return deductible - getDeductibleMet();
+    }
+
+    /**
+     * Patient's share of approved charges (deductible, copays, coinsurance)
+     */
+    public double getOutOfPocket() {
+        return Math.max(0.0, chargesApplied - approvedAmount);
+    }
+
+    public double getRemainingCoverage() {
+        return Math.max(0.0, coverageAmount - approvedAmount);
+    }
+
+    /**
+     * Get formatted deductible met, e.g. "$500.00 of $2,000.00 met"
+     */
+    public String getFormattedDeductibleMet() {
+        return String.format("$%,.2f of $%,.2f met", getDeductibleMet(), deductible);
+    }
+
+    /**
+     * Get formatted remaining coverage
+     */
+    public String getFormattedRemainingCoverage() {
+        return String.format("$%,.2f remaining", getRemainingCoverage());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: deductible %s, out-of-pocket $%,.2f, coverage %s", policyNumber,
+                getFormattedDeductibleMet(), getOutOfPocket(), getFormattedRemainingCoverage());
+    }
+}
@@ -1,33 +1,339 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import model.Policy;
 import model.Policy.PolicyStatus;
 import model.Policy.PolicyType;
+import utils.SnapshotSection;
+import utils.SnapshotWriter;
 
 /**
  * Complete PolicyDirectory class
  * Manages all insurance policies in the system
+ * Keeps hash indexes on policy number and patient, and an index ordered by
+ * expiry date so that expiry and renewal window queries are range scans
+ * Also tracks which policies are active today, so the active count is O(1);
+ * the set is rolled forward by date when the day changes.
+ * Thread-safe: guarded by a DirectoryLock (concurrent reads, exclusive writes)
  */
-public class PolicyDirectory implements Serializable {
+public class PolicyDirectory implements Serializable, Policy.ChangeListener {
 
     private static final long serialVersionUID = 1L;
 
     // Properties
     private List<Policy> policies;
 
+    // Indexes (not serialized, rebuilt from the policy list after loading)
+    private transient Map<String, Policy> policiesByNumber;
+    private transient Map<String, Map<String, Policy>> policiesByPatient;
+    private transient NavigableMap<LocalDate, Map<String, Policy>> policiesByExpiry; // No entry if expiry not set
+    private transient NavigableMap<LocalDate, Map<String, Policy>> activeByStart; // ACTIVE status only
+    private transient NavigableMap<LocalDate, Map<String, Policy>> activeByExpiry; // ACTIVE status only
+    private transient Set<Policy> currentlyActive; // Active on activeDate (identity, numbers can change)
+    private transient volatile LocalDate activeDate;
+    private transient long coverageClock; // Last coverage version handed out, guarded by the write lock
+    private transient volatile long coverageEpoch; // Version of patients unchanged since the last rebuild
+    private transient volatile Map<String, Long> coverageVersions; // Patient ID -> version of last change
+
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+
+    private transient DirectoryLock lock;
+
     /**
      * Constructor
      */
     public PolicyDirectory() {
+        this.lock = new DirectoryLock();
         this.policies = new ArrayList<>();
+        rebuildIndexes();
         createSamplePolicies(); // Create sample data for testing
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    PolicyDirectory(SnapshotSection<Policy> section) throws IOException {
+        this.lock = new DirectoryLock();
+        this.policies = section.readAll();
+        rebuildIndexes();
+    }
+
+    /**
+     * Copy every policy for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<Policy> copyForSnapshot() {
+        List<Policy> copies = new ArrayList<>(policies.size());
+        for (Policy policy : policies) {
+            copies.add(policy.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write policies to a binary snapshot as a separately decodable section
+     */
+    static void writeSnapshot(SnapshotWriter out, List<Policy> policies) throws IOException {
+        SnapshotSection.write(out, policies, Policy::writeSnapshot);
+    }
+
+    /**
+     * Create the lock and restore indexes after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock();
+        rebuildIndexes();
+    }
+
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+
+    // ==================== INDEX MAINTENANCE ====================
+
+    /**
+     * Rebuild all indexes from the policy list (caller holds the write lock)
+     */
+    private void rebuildIndexes() {
+        policiesByNumber = new HashMap<>();
+        policiesByPatient = new HashMap<>();
+        policiesByExpiry = new TreeMap<>();
+        activeByStart = new TreeMap<>();
+        activeByExpiry = new TreeMap<>();
+        currentlyActive = Collections.newSetFromMap(new IdentityHashMap<>());
+        activeDate = LocalDate.now();
+        coverageEpoch = ++coverageClock; // Before the new map, so no reader sees an older version
+        coverageVersions = new ConcurrentHashMap<>();
+        for (Policy policy : policies) {
+            indexPolicy(policy);
+        }
+    }
+
+    /**
+     * Add policy to every index and start listening for key changes
+     */
+    private void indexPolicy(Policy policy) {
+        coverageChanged(policy.getPatientId());
+        policiesByNumber.putIfAbsent(policy.getPolicyNumber(), policy);
+        addToBucket(policiesByPatient, policy.getPatientId(), policy);
+        indexDates(policy);
+        policy.setChangeListener(this);
+    }
+
+    /**
+     * Remove policy from every index and stop listening
+     */
+    private void unindexPolicy(Policy policy) {
+        coverageChanged(policy.getPatientId());
+        if (policiesByNumber.get(policy.getPolicyNumber()) == policy) {
+            policiesByNumber.remove(policy.getPolicyNumber());
+        }
+        removeFromBucket(policiesByPatient, policy.getPatientId(), policy);
+        unindexDates(policy, policy.getStartDate(), policy.getExpiryDate(), policy.getPolicyStatus());
+        policy.setChangeListener(null);
+    }
+
+    /**
+     * Add policy to the date indexes and the active set
+     */
+    private void indexDates(Policy policy) {
+        LocalDate startDate = policy.getStartDate();
+        LocalDate expiryDate = policy.getExpiryDate();
+        if (expiryDate != null) {
+            addToBucket(policiesByExpiry, expiryDate, policy);
+        }
+        if (policy.getPolicyStatus() == PolicyStatus.ACTIVE) {
+            if (startDate != null) {
+                addToBucket(activeByStart, startDate, policy);
+            }
+            if (expiryDate != null) {
+                addToBucket(activeByExpiry, expiryDate, policy);
+            }
+        }
+        updateCurrentlyActive(policy);
+    }
+
+    /**
+     * Remove policy from the date indexes and the active set, given the values it was indexed under
+     */
+    private void unindexDates(Policy policy, LocalDate startDate, LocalDate expiryDate, PolicyStatus status) {
+        if (expiryDate != null) {
+            removeFromBucket(policiesByExpiry, expiryDate, policy);
+        }
+        if (status == PolicyStatus.ACTIVE) {
+            if (startDate != null) {
+                removeFromBucket(activeByStart, startDate, policy);
+            }
+            if (expiryDate != null) {
+                removeFromBucket(activeByExpiry, expiryDate, policy);
+            }
+        }
+        currentlyActive.remove(policy);
+    }
+
+    private void updateCurrentlyActive(Policy policy) {
+        if (policy.getStartDate() != null && policy.getExpiryDate() != null && policy.isActiveOn(activeDate)) {
+            currentlyActive.add(policy);
+        } else {
+            currentlyActive.remove(policy);
+        }
+    }
+
+    /**
+     * Move the active set to a new date (caller holds the write lock)
+     * Going forward only policies starting or expiring in between are checked.
+     */
+    private void advanceActiveDate(LocalDate date) {
+        LocalDate previous = activeDate;
+        if (date.equals(previous)) {
+            return;
+        }
+        activeDate = date;
+        if (date.isBefore(previous)) {
+            // Clock moved back
+            for (Policy policy : policies) {
+                updateCurrentlyActive(policy);
+            }
+            return;
+        }
+        // Policies that ended: expired on or after previous, before date
+        for (Map<String, Policy> bucket : activeByExpiry.subMap(previous, true, date, false).values()) {
+            bucket.values().forEach(this::updateCurrentlyActive);
+        }
+        // Policies that started: after previous, on or before date
+        for (Map<String, Policy> bucket : activeByStart.subMap(previous, false, date, true).values()) {
+            bucket.values().forEach(this::updateCurrentlyActive);
+        }
+    }
+
+    /**
+     * Stop listening to every policy, journal its removal and empty the list and indexes (caller holds the write lock)
+     */
+    private void clearPolicies() {
+        for (Policy policy : policies) {
+            policy.setChangeListener(null);
+            journal(MutationRecord.removal(MutationRecord.Type.POLICY_REMOVED, policy.getPolicyNumber()));
+        }
+        policies.clear();
+        rebuildIndexes();
+    }
+
+    /**
+     * Keep the indexes in sync when an indexed field of a policy changes
+     */
+    @Override
+    public void policyChanged(Policy policy, Policy.ChangeType changeType, Object oldValue) {
+        lock.write(() -> {
+            coverageChanged(policy.getPatientId());
+            switch (changeType) {
+                case POLICY_NUMBER:
+                    String oldNumber = (String) oldValue;
+                    if (policiesByNumber.get(oldNumber) == policy) {
+                        policiesByNumber.remove(oldNumber);
+                    }
+                    policiesByNumber.putIfAbsent(policy.getPolicyNumber(), policy);
+                    rekeyBucket(policiesByPatient, policy.getPatientId(), oldNumber, policy);
+                    if (policy.getExpiryDate() != null) {
+                        rekeyBucket(policiesByExpiry, policy.getExpiryDate(), oldNumber, policy);
+                    }
+                    if (policy.getPolicyStatus() == PolicyStatus.ACTIVE) {
+                        if (policy.getStartDate() != null) {
+                            rekeyBucket(activeByStart, policy.getStartDate(), oldNumber, policy);
+                        }
+                        if (policy.getExpiryDate() != null) {
+                            rekeyBucket(activeByExpiry, policy.getExpiryDate(), oldNumber, policy);
+                        }
+                    }
+                    break;
+                case PATIENT_ID:
+                    coverageChanged((String) oldValue);
+                    removeFromBucket(policiesByPatient, (String) oldValue, policy);
+                    addToBucket(policiesByPatient, policy.getPatientId(), policy);
+                    break;
+                case START_DATE:
+                    unindexDates(policy, (LocalDate) oldValue, policy.getExpiryDate(), policy.getPolicyStatus());
+                    indexDates(policy);
+                    break;
+                case EXPIRY_DATE:
+                    unindexDates(policy, policy.getStartDate(), (LocalDate) oldValue, policy.getPolicyStatus());
+                    indexDates(policy);
+                    break;
+                case STATUS:
+                    unindexDates(policy, policy.getStartDate(), policy.getExpiryDate(), (PolicyStatus) oldValue);
+                    indexDates(policy);
+                    break;
+                default:
+                    break;
+            }
+        });
+    }
+
+    /**
+     * Give a patient's coverage a new version (caller holds the write lock)
+     */
+    private void coverageChanged(String patientId) {
+        if (patientId != null) {
+            coverageVersions.put(patientId, ++coverageClock);
+        }
+    }
+
+    private static <K> void addToBucket(Map<K, Map<String, Policy>> index, K key, Policy policy) {
+        index.computeIfAbsent(key, k -> new LinkedHashMap<>()).putIfAbsent(policy.getPolicyNumber(), policy);
+    }
+
+    private static <K> void removeFromBucket(Map<K, Map<String, Policy>> index, K key, Policy policy) {
+        Map<String, Policy> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(policy.getPolicyNumber(), policy);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Move a policy to its new number within its bucket
+     */
+    private static <K> void rekeyBucket(Map<K, Map<String, Policy>> index, K key, String oldNumber,
+            Policy policy) {
+        Map<String, Policy> bucket = index.get(key);
+        if (bucket != null && bucket.get(oldNumber) == policy) {
+            bucket.remove(oldNumber);
+        }
+        addToBucket(index, key, policy);
+    }
+
+    private static <K> List<Policy> bucketAsList(Map<K, Map<String, Policy>> index, K key) {
+        Map<String, Policy> bucket = index.get(key);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(bucket.values());
+    }
+
     /**
      * Create sample policies for demonstration
      */
@@ -109,8 +415,15 @@ public class PolicyDirectory implements Serializable {
      * Create sample policies for a specific patient
      */
     public void createSamplePoliciesForPatient(String patientId) {
+        lock.write(() -> replaceWithSamplePolicies(patientId));
+    }
+
+    /**
+     * Replace all policies with the samples (caller holds the write lock)
+     */
+    private void replaceWithSamplePolicies(String patientId) {
         // Clear existing policies first
-        policies.clear();
+        clearPolicies();
 
         // Sample policy 1 - Active Family PPO
         Policy policy1 = new Policy(patientId, PolicyType.FAMILY_PPO, 500000);
@@ -149,13 +462,25 @@ public class PolicyDirectory implements Serializable {
         policy3.setPolicyStatus(PolicyStatus.EXPIRED);
         policy3.addBeneficiary("Self");
         policies.add(policy3);
+
+        rebuildIndexes();
+        journalAllPolicies();
+    }
+
+    /**
+     * Journal the full state of every policy, e.g. after samples were set up field by field (caller holds the write lock)
+     */
+    private void journalAllPolicies() {
+        for (Policy policy : policies) {
+            journal(MutationRecord.policy(MutationRecord.Type.POLICY_CREATED, policy));
+        }
     }
 
     /**
      * Get all policies
      */
     public List<Policy> getAllPolicies() {
-        return new ArrayList<>(policies);
+        return lock.read(() -> new ArrayList<>(policies));
     }
 
     /**
@@ -167,7 +492,11 @@ public class PolicyDirectory implements Serializable {
         Policy policy = new Policy(patientId, policyType, coverageAmount, deductible, copayment,
                 insuranceProviderId, startDate, durationYears);
         policy.setMonthlyPremium(monthlyPremium);
-        policies.add(policy);
+        lock.write(() -> {
+            policies.add(policy);
+            indexPolicy(policy);
+            journal(MutationRecord.policy(MutationRecord.Type.POLICY_CREATED, policy));
+        });
         return policy;
     }
 
@@ -175,16 +504,32 @@ public class PolicyDirectory implements Serializable {
      * Add existing policy
      */
     public void addPolicy(Policy policy) {
-        if (!policies.contains(policy)) {
-            policies.add(policy);
-        }
+        lock.write(() -> {
+            if (!policiesByNumber.containsKey(policy.getPolicyNumber())) {
+                policies.add(policy);
+                indexPolicy(policy);
+                journal(MutationRecord.policy(MutationRecord.Type.POLICY_CREATED, policy));
+            }
+        });
     }
 
     /**
      * Remove policy
      */
     public boolean removePolicy(String policyNumber) {
-        return policies.removeIf(p -> p.getPolicyNumber().equals(policyNumber));
+        return lock.write(() -> {
+            boolean removed = policies.removeIf(p -> {
+                if (p.getPolicyNumber().equals(policyNumber)) {
+                    unindexPolicy(p);
+                    return true;
+                }
+                return false;
+            });
+            if (removed) {
+                journal(MutationRecord.removal(MutationRecord.Type.POLICY_REMOVED, policyNumber));
+            }
+            return removed;
+        });
     }
 
     /**
@@ -194,13 +539,19 @@ public class PolicyDirectory implements Serializable {
      */
     public void updatePolicy(Policy policy) {
         if (policy != null) {
-            // Find and replace the policy
-            for (int i = 0; i < policies.size(); i++) {
-                if (policies.get(i).getPolicyNumber().equals(policy.getPolicyNumber())) {
-                    policies.set(i, policy);
+            lock.write(() -> {
+                // Find and replace the policy
+                Policy existing = policiesByNumber.get(policy.getPolicyNumber());
+                if (existing == null) {
                     return;
                 }
-            }
+                if (existing != policy) {
+                    policies.set(policies.indexOf(existing), policy);
+                    unindexPolicy(existing);
+                    indexPolicy(policy);
+                }
+                journal(MutationRecord.policy(MutationRecord.Type.POLICY_UPDATED, policy));
+            });
         }
     }
 
@@ -208,136 +559,225 @@ public class PolicyDirectory implements Serializable {
      * Find policy by policy number
      */
     public Policy findPolicyByNumber(String policyNumber) {
-        for (Policy policy : policies) {
-            if (policy.getPolicyNumber().equals(policyNumber)) {
-                return policy;
-            }
-        }
-        return null;
+        return lock.read(() -> findPolicy(policyNumber));
+    }
+
+    private Policy findPolicy(String policyNumber) {
+        return policiesByNumber.get(policyNumber);
     }
 
     /**
      * Get all policies for a patient
      */
     public List<Policy> getPoliciesByPatient(String patientId) {
-        return policies.stream()
-                .filter(p -> p.getPatientId().equals(patientId))
-                .collect(Collectors.toList());
+        return lock.read(() -> bucketAsList(policiesByPatient, patientId));
+    }
+
+    /**
+     * Get the policies of several patients under one read lock (patient ID -> policies)
+     */
+    public Map<String, List<Policy>> getPoliciesByPatients(Collection<String> patientIds) {
+        return lock.read(() -> {
+            Map<String, List<Policy>> result = new HashMap<>();
+            for (String patientId : patientIds) {
+                result.put(patientId, bucketAsList(policiesByPatient, patientId));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Version of a patient's coverage, changed whenever one of their policies is
+     * added or removed or changes number, patient, dates or status, so caches of
+     * patient coverage can tell they are stale; other patients keep their version
+     */
+    public long getCoverageVersion(String patientId) {
+        Long version = patientId != null ? coverageVersions.get(patientId) : null;
+        return version != null ? version : coverageEpoch;
     }
 
     /**
      * Get active policies for a patient
      */
     public List<Policy> getActivePoliciesByPatient(String patientId) {
-        return policies.stream()
-                .filter(p -> p.getPatientId().equals(patientId))
+        return lock.read(() -> patientPolicies(patientId)
                 .filter(Policy::isCurrentlyActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    private Stream<Policy> patientPolicies(String patientId) {
+        Map<String, Policy> bucket = policiesByPatient.get(patientId);
+        return bucket == null ? Stream.empty() : bucket.values().stream();
     }
 
     /**
      * Get policies by status
      */
     public List<Policy> getPoliciesByStatus(PolicyStatus status) {
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(p -> p.getPolicyStatus() == status)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Get policies by type
      */
     public List<Policy> getPoliciesByType(PolicyType type) {
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(p -> p.getPolicyType() == type)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Get all active policies
      */
     public List<Policy> getAllActivePolicies() {
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(Policy::isCurrentlyActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Get all expired policies
      */
     public List<Policy> getAllExpiredPolicies() {
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(Policy::isExpired)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Get policy count
      */
     public int getPolicyCount() {
-        return policies.size();
+        return lock.read(() -> policies.size());
     }
 
     /**
      * Get active policy count
+     * O(1): the active set is kept in sync and rolled forward when the day changes.
      */
     public int getActivePolicyCount() {
-        return (int) policies.stream().filter(Policy::isCurrentlyActive).count();
+        LocalDate today = LocalDate.now();
+        if (!today.equals(activeDate)) {
+            lock.write(() -> advanceActiveDate(today));
+        }
+        return lock.read(() -> currentlyActive.size());
     }
 
     /**
      * Get active policy count for patient
      */
     public int getActivePolicyCountForPatient(String patientId) {
-        return (int) policies.stream()
-                .filter(p -> p.getPatientId().equals(patientId))
+        return lock.read(() -> (int) patientPolicies(patientId)
                 .filter(Policy::isCurrentlyActive)
-                .count();
+                .count());
+    }
+
+    /**
+     * Apply a change to a policy if it still has the expected version
+     * Optimistic concurrency, as in ClaimDirectory.updateClaim: editors hold
+     * no lock while the user decides, and a stale write gets CONFLICT.
+     *
+     * @param expectedVersion Version the caller read, or UpdateResult.ANY_VERSION
+     */
+    public UpdateResult updatePolicy(String policyNumber, long expectedVersion, Consumer<Policy> update) {
+        return updatePolicy(policyNumber, expectedVersion, update, MutationRecord.Type.POLICY_UPDATED);
+    }
+
+    private UpdateResult updatePolicy(String policyNumber, long expectedVersion, Consumer<Policy> update,
+            MutationRecord.Type type) {
+        return lock.write(() -> {
+            Policy policy = findPolicy(policyNumber);
+            if (policy == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            if (expectedVersion != UpdateResult.ANY_VERSION && policy.getVersion() != expectedVersion) {
+                return UpdateResult.CONFLICT;
+            }
+            try {
+                update.accept(policy);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                return UpdateResult.REJECTED;
+            }
+            journal(MutationRecord.policy(type, policy));
+            return UpdateResult.UPDATED;
+        });
     }
 
     /**
      * Renew policy
      */
     public boolean renewPolicy(String policyNumber, int years) {
-        Policy policy = findPolicyByNumber(policyNumber);
-        if (policy != null) {
-            policy.renewPolicy(years);
-            return true;
-        }
-        return false;
+        return renewPolicy(policyNumber, UpdateResult.ANY_VERSION, years).isUpdated();
+    }
+
+    /**
+     * Renew policy if it is still at the version the caller read
+     */
+    public UpdateResult renewPolicy(String policyNumber, long expectedVersion, int years) {
+        return updatePolicy(policyNumber, expectedVersion, policy -> policy.renewPolicy(years),
+                MutationRecord.Type.POLICY_RENEWED);
+    }
+
+    /**
+     * Renew a chunk of policies at premiums already calculated, under one write lock
+     * A policy is skipped if it was removed, can no longer be renewed, or has
+     * changed since the caller read expectedVersions (see PolicyRenewalJob).
+     *
+     * @return The policies that were not renewed
+     */
+    public List<Policy> renewPolicies(List<Policy> batch, long[] expectedVersions, double[] monthlyPremiums,
+            int years) {
+        return lock.write(() -> {
+            List<Policy> skipped = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Policy policy = batch.get(i);
+                if (findPolicy(policy.getPolicyNumber()) != policy || policy.getVersion() != expectedVersions[i]
+                        || !policy.canBeRenewed()) {
+                    skipped.add(policy);
+                    continue;
+                }
+                policy.renewPolicyAtPremium(years, monthlyPremiums[i]);
+                journal(MutationRecord.policy(MutationRecord.Type.POLICY_RENEWED, policy));
+            }
+            return skipped;
+        });
     }
 
     /**
      * Cancel policy
      */
     public boolean cancelPolicy(String policyNumber) {
-        Policy policy = findPolicyByNumber(policyNumber);
-        if (policy != null) {
-            policy.cancelPolicy();
-            return true;
-        }
-        return false;
+        return cancelPolicy(policyNumber, UpdateResult.ANY_VERSION).isUpdated();
+    }
+
+    /**
+     * Cancel policy if it is still at the version the caller read
+     */
+    public UpdateResult cancelPolicy(String policyNumber, long expectedVersion) {
+        return updatePolicy(policyNumber, expectedVersion, Policy::cancelPolicy,
+                MutationRecord.Type.POLICY_CANCELLED);
     }
 
     /**
      * Get policy numbers for dropdown (UI helper)
      */
     public List<String> getPolicyNumbersForDropdown(String patientId) {
-        return policies.stream()
-                .filter(p -> p.getPatientId().equals(patientId))
+        return lock.read(() -> patientPolicies(patientId)
                 .filter(Policy::isCurrentlyActive)
                 .map(p -> p.getPolicyNumber() + " - " + p.getPolicyType().getDisplayName())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Calculate total premium revenue
      */
     public double getTotalMonthlyPremiumRevenue() {
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(Policy::isCurrentlyActive)
                 .mapToDouble(Policy::getMonthlyPremium)
-                .sum();
+                .sum());
     }
 
     /**
@@ -348,14 +788,59 @@ public class PolicyDirectory implements Serializable {
     }
 
     /**
-     * Get policies expiring soon (within 30 days)
+     * Get active policies expiring soon (from today, within 30 days)
      */
     public List<Policy> getPoliciesExpiringSoon() {
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        return policies.stream()
-                .filter(p -> p.getPolicyStatus() == PolicyStatus.ACTIVE)
-                .filter(p -> p.getExpiryDate().isBefore(thirtyDaysFromNow))
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        return getActivePoliciesExpiringBetween(today, today.plusDays(30));
+    }
+
+    /**
+     * Get ACTIVE policies expiring on or after from and before to, earliest first
+     */
+    public List<Policy> getActivePoliciesExpiringBetween(LocalDate from, LocalDate to) {
+        return lock.read(() -> expiringBetween(activeByExpiry, from, to).collect(Collectors.toList()));
+    }
+
+    /**
+     * Get policies of any status expiring on or after from and before to, earliest first
+     * A range scan of the expiry index, e.g. for renewal windows.
+     */
+    public List<Policy> getPoliciesExpiringBetween(LocalDate from, LocalDate to) {
+        return lock.read(() -> expiringBetween(policiesByExpiry, from, to).collect(Collectors.toList()));
+    }
+
+    private static Stream<Policy> expiringBetween(NavigableMap<LocalDate, Map<String, Policy>> index,
+            LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            return Stream.empty();
+        }
+        return index.subMap(from, true, to, false).values().stream()
+                .flatMap(bucket -> bucket.values().stream());
+    }
+
+    /**
+     * Set ACTIVE policies that expired before today to EXPIRED
+     * Reads only the due range of the ACTIVE expiry index, so the cost is the
+     * number of policies expired (see PolicyLifecycleService).
+     *
+     * @return The policies that were expired
+     */
+    public List<Policy> expireDuePolicies(LocalDate today) {
+        return lock.write(() -> {
+            List<Policy> due = new ArrayList<>();
+            for (Map<String, Policy> bucket : activeByExpiry.headMap(today, false).values()) {
+                due.addAll(bucket.values());
+            }
+            for (Policy policy : due) {
+                policy.setPolicyStatus(PolicyStatus.EXPIRED); // Listener moves it out of the ACTIVE indexes
+                journal(MutationRecord.policy(MutationRecord.Type.POLICY_UPDATED, policy));
+            }
+            if (today.isAfter(activeDate)) {
+                advanceActiveDate(today);
+            }
+            return due;
+        });
     }
 
     /**
@@ -363,30 +848,68 @@ public class PolicyDirectory implements Serializable {
      */
     public List<Policy> searchPoliciesByPolicyNumber(String searchTerm) {
         String lowerSearch = searchTerm.toLowerCase();
-        return policies.stream()
+        return lock.read(() -> policies.stream()
                 .filter(p -> p.getPolicyNumber().toLowerCase().contains(lowerSearch))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    // ==================== JOURNAL ====================
+
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+
+    /**
+     * Apply replayed journal changes (policy number -> policy, null = removed)
+     */
+    void applyJournaledChanges(Map<String, Policy> changes) {
+        lock.write(() -> {
+            for (Policy policy : policies) {
+                policy.setChangeListener(null);
+            }
+            policies = MutationRecord.mergeChanges(policies, Policy::getPolicyNumber, changes);
+            rebuildIndexes();
+        });
     }
 
     /**
      * Clear all policies (for testing)
      */
     public void clearAll() {
-        policies.clear();
+        lock.write(this::clearPolicies);
     }
 
     /**
      * Clear and reload sample data
      */
     public void reloadSampleData() {
-        policies.clear();
-        createSamplePolicies();
+        lock.write(() -> {
+            clearPolicies();
+            // The samples are renumbered after creation, so journal them once they are complete
+            MutationLog log = mutationLog;
+            mutationLog = null;
+            try {
+                createSamplePolicies();
+            } finally {
+                mutationLog = log;
+            }
+            journalAllPolicies();
+        });
     }
 
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return policies.isEmpty();
+        return lock.read(() -> policies.isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package business;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import model.Claim;
+import model.Claim.ClaimStatus;
+import model.Policy;
+
+/**
+ * Running per-policy totals of approved and paid claims
+ * Owned by ClaimDirectory, which feeds it every claim mutation (approve,
+ * mark as paid, amount, policy and service date changes), so a policy's
+ * deductible met, out-of-pocket and remaining coverage are read without
+ * summing its claim history.
+ * Updates run under ClaimDirectory's write lock; totals are immutable, so
+ * reads need no lock.
+ * Totals are kept per service date and a balance only counts the dates in
+ * the policy's current term (start to expiry date), so a renewal starts
+ * from a fresh deductible and coverage limit. Undated claims count toward
+ * no term.
+ */
+public class PolicyLedger {
+
+    // Policy number -> service date -> totals of the claims for that date
+    private final Map<String, NavigableMap<LocalDate, Totals>> totalsByPolicy;
+
+    /**
+     * Constructor
+     */
+    PolicyLedger() {
+        this.totalsByPolicy = new ConcurrentHashMap<>();
+    }
+
+    // ==================== UPDATES (called by ClaimDirectory) ====================
+
+    void claimAdded(Claim claim) {
+        apply(claim.getPolicyNumber(), claim.getServiceDate(), claim.getClaimStatus(), claim.getClaimAmount(),
+                claim.getApprovedAmount(), 1);
+    }
+
+    void claimRemoved(Claim claim) {
+        apply(claim.getPolicyNumber(), claim.getServiceDate(), claim.getClaimStatus(), claim.getClaimAmount(),
+                claim.getApprovedAmount(), -1);
+    }
+
+    void statusChanged(Claim claim, ClaimStatus oldStatus) {
+        apply(claim.getPolicyNumber(), claim.getServiceDate(), oldStatus, claim.getClaimAmount(),
+                claim.getApprovedAmount(), -1);
+        claimAdded(claim);
+    }
+
+    void policyChanged(Claim claim, String oldPolicyNumber) {
+        apply(oldPolicyNumber, claim.getServiceDate(), claim.getClaimStatus(), claim.getClaimAmount(),
+                claim.getApprovedAmount(), -1);
+        claimAdded(claim);
+    }
+
+    void serviceDateChanged(Claim claim, LocalDate oldServiceDate) {
+        apply(claim.getPolicyNumber(), oldServiceDate, claim.getClaimStatus(), claim.getClaimAmount(),
+                claim.getApprovedAmount(), -1);
+        claimAdded(claim);
+    }
+
+    void claimAmountChanged(Claim claim, double oldAmount) {
+        apply(claim.getPolicyNumber(), claim.getServiceDate(), claim.getClaimStatus(), oldAmount,
+                claim.getApprovedAmount(), -1);
+        claimAdded(claim);
+    }
+
+    void approvedAmountChanged(Claim claim, double oldAmount) {
+        apply(claim.getPolicyNumber(), claim.getServiceDate(), claim.getClaimStatus(), claim.getClaimAmount(),
+                oldAmount, -1);
+        claimAdded(claim);
+    }
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) a claim's contribution
+     */
+    private void apply(String policyNumber, LocalDate serviceDate, ClaimStatus status, double claimAmount,
+                       double approvedAmount, int sign) {
+        if (policyNumber == null || (status != ClaimStatus.APPROVED && status != ClaimStatus.PAID)) {
+            return;
+        }
+        double paidAmount = status == ClaimStatus.PAID ? approvedAmount : 0.0;
+        Totals delta = new Totals(sign * claimAmount, sign * approvedAmount, sign * paidAmount, sign);
+        LocalDate date = serviceDate != null ? serviceDate : LocalDate.MIN; // Undated: before every term
+        totalsByPolicy.computeIfAbsent(policyNumber, k -> new ConcurrentSkipListMap<>())
+                .compute(date, (k, totals) -> {
+                    Totals sum = totals == null ? delta : totals.plus(delta);
+                    return sum.claimCount <= 0 ? null : sum;
+                });
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Get the balance of a policy's current term
+     * Sums the totals of the service dates from the start to the expiry date.
+     */
+    public PolicyBalance getBalance(Policy policy) {
+        Totals totals = Totals.EMPTY;
+        NavigableMap<LocalDate, Totals> byDate = totalsByPolicy.get(policy.getPolicyNumber());
+        LocalDate start = policy.getStartDate();
+        LocalDate end = policy.getExpiryDate() != null ? policy.getExpiryDate() : LocalDate.MAX;
+        if (byDate != null && start != null && !start.isAfter(end)) {
+            for (Totals dateTotals : byDate.subMap(start, true, end, true).values()) {
+                totals = totals.plus(dateTotals);
+            }
+        }
+        return new PolicyBalance(policy, totals.chargesApplied, totals.approvedAmount, totals.paidAmount,
+                totals.claimCount);
+    }
+
+    /**
+     * Number of policies with approved or paid claims (in any term)
+     */
+    public int getPolicyCount() {
+        return (int) totalsByPolicy.values().stream().filter(byDate -> !byDate.isEmpty()).count();
+    }
+
+    /**
+     * Immutable totals of one policy and service date
+     */
+    private static final class Totals {
+        private static final Totals EMPTY = new Totals(0.0, 0.0, 0.0, 0);
+
+        private final double chargesApplied;
+        private final double approvedAmount;
+        private final double paidAmount;
+        private final int claimCount;
+
+        Totals(double chargesApplied, double approvedAmount, double paidAmount, int claimCount) {
+            this.chargesApplied = chargesApplied;
+            this.approvedAmount = approvedAmount;
+            this.paidAmount = paidAmount;
+            this.claimCount = claimCount;
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(chargesApplied + other.chargesApplied, approvedAmount + other.approvedAmount,
+                    paidAmount + other.paidAmount, claimCount + other.claimCount);
+        }
+    }
+}
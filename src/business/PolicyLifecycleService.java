@@ -0,0 +1,262 @@
+package business;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Policy;
+
+/**
+ * Moves policies through their lifecycle in the background
+ * A sweep runs at start and then just after each midnight: ACTIVE policies
+ * past their expiry date are set to EXPIRED, and a renewal notice is queued
+ * once for each ACTIVE policy entering the renewal window. Both come from
+ * range scans of the PolicyDirectory expiry index, so a sweep costs the
+ * number of policies due, not the number of policies.
+ * Screens only read policy status; they never change it while rendering.
+ */
+public class PolicyLifecycleService {
+
+    public static final int DEFAULT_RENEWAL_NOTICE_DAYS = 30;
+    public static final int MAX_PENDING_NOTICES = 10_000; // Oldest notices are dropped beyond this
+
+    private final int renewalNoticeDays;
+    private final ScheduledExecutorService scheduler;
+    private final Queue<RenewalNotice> renewalNotices;
+    private final AtomicInteger pendingNotices;
+    private final Map<String, LocalDate> noticedExpiry; // Policy number -> expiry date noticed; guarded by this
+
+    // Metrics
+    private final AtomicLong sweepCount;
+    private final AtomicLong expiredCount;
+    private final AtomicLong noticeCount;
+    private final AtomicLong droppedNoticeCount;
+    private final AtomicLong failureCount;
+    private volatile long lastSweepMillis;
+    private volatile LocalDateTime lastSweepTime;
+
+    /**
+     * Renewal notice for a policy about to expire
+     */
+    public static class RenewalNotice {
+        private final String policyNumber;
+        private final String patientId;
+        private final LocalDate expiryDate;
+        private final LocalDate noticeDate;
+
+        RenewalNotice(Policy policy, LocalDate noticeDate) {
+            this.policyNumber = policy.getPolicyNumber();
+            this.patientId = policy.getPatientId();
+            this.expiryDate = policy.getExpiryDate();
+            this.noticeDate = noticeDate;
+        }
+
+        public String getPolicyNumber() {
+            return policyNumber;
+        }
+
+        public String getPatientId() {
+            return patientId;
+        }
+
+        public LocalDate getExpiryDate() {
+            return expiryDate;
+        }
+
+        public LocalDate getNoticeDate() {
+            return noticeDate;
+        }
+
+        public long getDaysUntilExpiry() {
+            return java.time.temporal.ChronoUnit.DAYS.between(noticeDate, expiryDate);
+        }
+
+        @Override
+        public String toString() {
+            return policyNumber + " (patient " + patientId + ") expires " + expiryDate;
+        }
+    }
+
+    /**
+     * Constructor with default renewal window
+     */
+    public PolicyLifecycleService() {
+        this(DEFAULT_RENEWAL_NOTICE_DAYS);
+    }
+
+    /**
+     * Constructor
+     */
+    public PolicyLifecycleService(int renewalNoticeDays) {
+        if (renewalNoticeDays < 0) {
+            throw new IllegalArgumentException("Renewal notice days cannot be negative");
+        }
+        this.renewalNoticeDays = renewalNoticeDays;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "healthguard360-policy-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renewalNotices = new ConcurrentLinkedQueue<>();
+        this.pendingNotices = new AtomicInteger();
+        this.noticedExpiry = new HashMap<>();
+        this.sweepCount = new AtomicLong();
+        this.expiredCount = new AtomicLong();
+        this.noticeCount = new AtomicLong();
+        this.droppedNoticeCount = new AtomicLong();
+        this.failureCount = new AtomicLong();
+    }
+
+    /**
+     * Sweep now (in the background), then after every midnight
+     */
+    public void start() {
+        scheduler.execute(this::sweepAndReschedule);
+        System.out.println("ℹ️ Policy lifecycle sweeps daily (renewal notices " + renewalNoticeDays + " days ahead)");
+    }
+
+    /**
+     * Stop the schedule, waiting for a sweep in progress to finish
+     * Call from a background thread, never from the Swing event thread.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedule the next sweep for just after the coming midnight
+     * Re-computed each day rather than a fixed 24h period, so DST changes do not drift it.
+     */
+    private void sweepAndReschedule() {
+        sweep(LocalDate.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().plusDays(1).atStartOfDay().plusSeconds(1);
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::sweepAndReschedule, Duration.between(now, next).toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Expire due policies and queue renewal notices as of a date
+     *
+     * @return Number of policies expired
+     */
+    public synchronized int sweep(LocalDate today) {
+        try {
+            long start = System.nanoTime();
+            PolicyDirectory directory = SystemData.getInstance().getPolicyDirectory();
+            List<Policy> expired = directory.expireDuePolicies(today);
+
+            // Forget notices for policies that have since expired or been renewed
+            noticedExpiry.values().removeIf(expiry -> expiry.isBefore(today));
+            int notices = 0;
+            for (Policy policy : directory.getActivePoliciesExpiringBetween(today,
+                    today.plusDays(renewalNoticeDays + 1L))) {
+                if (!policy.getExpiryDate().equals(noticedExpiry.get(policy.getPolicyNumber()))) {
+                    noticedExpiry.put(policy.getPolicyNumber(), policy.getExpiryDate());
+                    queueNotice(new RenewalNotice(policy, today));
+                    notices++;
+                }
+            }
+
+            sweepCount.incrementAndGet();
+            expiredCount.addAndGet(expired.size());
+            noticeCount.addAndGet(notices);
+            lastSweepMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastSweepTime = LocalDateTime.now();
+            if (!expired.isEmpty() || notices > 0) {
+                System.out.println("✅ Policy sweep: " + expired.size() + " expired, " + notices
+                        + " renewal notices queued (" + lastSweepMillis + " ms)");
+            }
+            return expired.size();
+        } catch (RuntimeException e) {
+            failureCount.incrementAndGet();
+            System.err.println("❌ Policy sweep failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void queueNotice(RenewalNotice notice) {
+        renewalNotices.add(notice);
+        if (pendingNotices.incrementAndGet() > MAX_PENDING_NOTICES && renewalNotices.poll() != null) {
+            pendingNotices.decrementAndGet();
+            droppedNoticeCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Take all queued renewal notices, oldest first
+     */
+    public List<RenewalNotice> drainRenewalNotices() {
+        List<RenewalNotice> notices = new ArrayList<>();
+        RenewalNotice notice;
+        while ((notice = renewalNotices.poll()) != null) {
+            pendingNotices.decrementAndGet();
+            notices.add(notice);
+        }
+        return notices;
+    }
+
+    public int getPendingNoticeCount() {
+        return pendingNotices.get();
+    }
+
+    // ==================== METRICS ====================
+
+    public int getRenewalNoticeDays() {
+        return renewalNoticeDays;
+    }
+
+    public long getSweepCount() {
+        return sweepCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    public long getNoticeCount() {
+        return noticeCount.get();
+    }
+
+    public long getDroppedNoticeCount() {
+        return droppedNoticeCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getLastSweepMillis() {
+        return lastSweepMillis;
+    }
+
+    public LocalDateTime getLastSweepTime() {
+        return lastSweepTime;
+    }
+
+    /**
+     * One-line metrics summary
+     */
+    public String getMetricsSummary() {
+        return String.format("Policy lifecycle: %d sweeps, %d expired, %d renewal notices (%d pending, %d dropped),"
+                + " %d failed, last %d ms", getSweepCount(), getExpiredCount(), getNoticeCount(),
+                getPendingNoticeCount(), getDroppedNoticeCount(), getFailureCount(), getLastSweepMillis());
+    }
+}
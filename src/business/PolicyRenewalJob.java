@@ -0,0 +1,303 @@
+package business;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import model.Policy;
+import model.Policy.PolicyType;
+
+/**
+ * Renews every renewable policy expiring in a date window (e.g. year-end renewals)
+ * New premiums are calculated in parallel from an increase rule per policy
+ * type, then committed in chunks, each under one PolicyDirectory write lock.
+ * After each chunk the journal is flushed and a checkpoint file records the
+ * job, so it can be resumed after a crash (see fromCheckpoint). Resuming
+ * plans again from the current data: the window is at most a year long, so
+ * renewed policies have moved past it and only policies still due are renewed.
+ */
+public class PolicyRenewalJob {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final double DEFAULT_INCREASE_PERCENT = 7.0; // Same as Policy.renewPolicy
+    public static final Path DEFAULT_CHECKPOINT_FILE = Paths.get("healthguard360_renewal.checkpoint");
+
+    private static final int PREMIUM_SLICE = 4096; // Policies per parallel premium task
+    private static final String INCREASE_PREFIX = "increase.";
+
+    private final PolicyDirectory policyDirectory;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int years;
+    private final Map<PolicyType, Double> increasePercentByType;
+    private final int chunkSize;
+    private final Path checkpointFile;
+
+    /**
+     * Listener told after each chunk is committed
+     */
+    public interface ProgressListener {
+        void chunkCommitted(int processed, int total);
+    }
+
+    /**
+     * Outcome of one run
+     */
+    public static class Result {
+        private final int planned;
+        private final int renewed;
+        private final List<String> skippedPolicyNumbers;
+        private final int chunks;
+        private final long elapsedNanos;
+
+        Result(int planned, int renewed, List<String> skippedPolicyNumbers, int chunks, long elapsedNanos) {
+            this.planned = planned;
+            this.renewed = renewed;
+            this.skippedPolicyNumbers = Collections.unmodifiableList(skippedPolicyNumbers);
+            this.chunks = chunks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getPlanned() {
+            return planned;
+        }
+
+        public int getRenewed() {
+            return renewed;
+        }
+
+        /**
+         * Policies changed, removed or no longer renewable while the job ran
+         */
+        public List<String> getSkippedPolicyNumbers() {
+            return skippedPolicyNumbers;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "renewed " + renewed + " of " + planned + " policies (" + skippedPolicyNumbers.size()
+                    + " skipped) in " + chunks + " chunks, " + getElapsedMillis() + " ms";
+        }
+    }
+
+    /**
+     * Constructor using the system policy directory and the default checkpoint file
+     *
+     * @param increasePercentByType Premium increase per type; other types get DEFAULT_INCREASE_PERCENT
+     */
+    public PolicyRenewalJob(LocalDate from, LocalDate to, int years, Map<PolicyType, Double> increasePercentByType) {
+        this(SystemData.getInstance().getPolicyDirectory(), from, to, years, increasePercentByType,
+                DEFAULT_CHUNK_SIZE, DEFAULT_CHECKPOINT_FILE);
+    }
+
+    /**
+     * Constructor
+     * Renews policies expiring on or after from and before to; the window may
+     * be at most one year, so that a renewed policy always leaves it.
+     */
+    public PolicyRenewalJob(PolicyDirectory policyDirectory, LocalDate from, LocalDate to, int years,
+            Map<PolicyType, Double> increasePercentByType, int chunkSize, Path checkpointFile) {
+        if (!from.isBefore(to) || to.isAfter(from.plusYears(1))) {
+            throw new IllegalArgumentException("Renewal window must be between one day and one year");
+        }
+        if (years < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Years and chunk size must be at least 1");
+        }
+        this.policyDirectory = policyDirectory;
+        this.from = from;
+        this.to = to;
+        this.years = years;
+        this.increasePercentByType = new EnumMap<>(PolicyType.class);
+        for (PolicyType type : PolicyType.values()) {
+            Double percent = increasePercentByType.get(type);
+            this.increasePercentByType.put(type, percent != null ? percent : DEFAULT_INCREASE_PERCENT);
+        }
+        this.chunkSize = chunkSize;
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Job for the policies expiring in the next 30 days, as on the dashboard
+     */
+    public static PolicyRenewalJob forExpiringSoon(int years, Map<PolicyType, Double> increasePercentByType) {
+        LocalDate today = LocalDate.now();
+        return new PolicyRenewalJob(today, today.plusDays(30), years, increasePercentByType);
+    }
+
+    /**
+     * Run the job and delete its checkpoint when done
+     *
+     * @param listener Progress listener, or null
+     */
+    public Result run(ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        writeCheckpoint(0, 0, 0);
+
+        List<Policy> plan = policyDirectory.getPoliciesExpiringBetween(from, to).stream()
+                .filter(Policy::canBeRenewed)
+                .collect(Collectors.toList());
+        int total = plan.size();
+        // Versions are read before premiums, so a change in between is caught at commit
+        long[] versions = new long[total];
+        for (int i = 0; i < total; i++) {
+            versions[i] = plan.get(i).getVersion();
+        }
+        double[] premiums = calculatePremiums(plan);
+
+        int renewed = 0;
+        int chunks = 0;
+        List<String> skipped = new ArrayList<>();
+        SystemData systemData = SystemData.getInstance();
+        for (int offset = 0; offset < total; offset += chunkSize) {
+            int end = Math.min(offset + chunkSize, total);
+            List<Policy> notRenewed = policyDirectory.renewPolicies(plan.subList(offset, end),
+                    Arrays.copyOfRange(versions, offset, end), Arrays.copyOfRange(premiums, offset, end), years);
+            renewed += end - offset - notRenewed.size();
+            for (Policy policy : notRenewed) {
+                skipped.add(policy.getPolicyNumber());
+            }
+            chunks++;
+            systemData.flushJournal(); // Checkpoint only what is durable
+            writeCheckpoint(end, total, renewed);
+            if (listener != null) {
+                listener.chunkCommitted(end, total);
+            }
+        }
+
+        Files.deleteIfExists(checkpointFile);
+        Result result = new Result(total, renewed, skipped, chunks, System.nanoTime() - start);
+        System.out.println("✅ Bulk renewal " + from + " to " + to + ": " + result);
+        return result;
+    }
+
+    /**
+     * New monthly premium for every planned policy, calculated in parallel slices
+     */
+    private double[] calculatePremiums(List<Policy> plan) {
+        double[] premiums = new double[plan.size()];
+        int slices = (plan.size() + PREMIUM_SLICE - 1) / PREMIUM_SLICE;
+        IntStream.range(0, slices).parallel().forEach(slice -> {
+            int end = Math.min((slice + 1) * PREMIUM_SLICE, plan.size());
+            for (int i = slice * PREMIUM_SLICE; i < end; i++) {
+                Policy policy = plan.get(i);
+                double percent = increasePercentByType.get(policy.getPolicyType());
+                premiums[i] = policy.getMonthlyPremium() * (1 + percent / 100.0);
+            }
+        });
+        return premiums;
+    }
+
+    // ==================== CHECKPOINT ====================
+
+    /**
+     * Check if a job was interrupted before finishing
+     */
+    public static boolean hasCheckpoint() {
+        return Files.exists(DEFAULT_CHECKPOINT_FILE);
+    }
+
+    /**
+     * Recreate the interrupted job recorded in the default checkpoint file, null if there is none
+     */
+    public static PolicyRenewalJob fromCheckpoint() throws IOException {
+        return fromCheckpoint(SystemData.getInstance().getPolicyDirectory(), DEFAULT_CHECKPOINT_FILE);
+    }
+
+    /**
+     * Recreate the interrupted job recorded in a checkpoint file, null if there is none
+     */
+    public static PolicyRenewalJob fromCheckpoint(PolicyDirectory policyDirectory, Path checkpointFile)
+            throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            checkpoint.load(in);
+        }
+        try {
+            Map<PolicyType, Double> increases = new EnumMap<>(PolicyType.class);
+            for (PolicyType type : PolicyType.values()) {
+                String percent = checkpoint.getProperty(INCREASE_PREFIX + type.name());
+                if (percent != null) {
+                    increases.put(type, Double.parseDouble(percent));
+                }
+            }
+            PolicyRenewalJob job = new PolicyRenewalJob(policyDirectory,
+                    LocalDate.parse(checkpoint.getProperty("from")),
+                    LocalDate.parse(checkpoint.getProperty("to")),
+                    Integer.parseInt(checkpoint.getProperty("years")),
+                    increases,
+                    Integer.parseInt(checkpoint.getProperty("chunkSize")),
+                    checkpointFile);
+            System.out.println("ℹ️ Resuming bulk renewal " + job.from + " to " + job.to + " (interrupted after "
+                    + checkpoint.getProperty("processed") + " of " + checkpoint.getProperty("total") + ")");
+            return job;
+        } catch (NullPointerException | IllegalArgumentException | DateTimeParseException e) {
+            throw new IOException("Invalid renewal checkpoint " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Record the job and its progress (written to a temp file, synced, then renamed)
+     */
+    private void writeCheckpoint(int processed, int total, int renewed) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("from", from.toString());
+        checkpoint.setProperty("to", to.toString());
+        checkpoint.setProperty("years", Integer.toString(years));
+        checkpoint.setProperty("chunkSize", Integer.toString(chunkSize));
+        for (Map.Entry<PolicyType, Double> entry : increasePercentByType.entrySet()) {
+            checkpoint.setProperty(INCREASE_PREFIX + entry.getKey().name(), entry.getValue().toString());
+        }
+        checkpoint.setProperty("processed", Integer.toString(processed));
+        checkpoint.setProperty("total", Integer.toString(total));
+        checkpoint.setProperty("renewed", Integer.toString(renewed));
+
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            checkpoint.store(out, "HealthGuard 360 bulk renewal, " + LocalDateTime.now());
+            out.getFD().sync();
+        }
+        utils.FileHandler.replaceAtomically(temp, checkpointFile);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public double getIncreasePercent(PolicyType type) {
+        return increasePercentByType.get(type);
+    }
+}
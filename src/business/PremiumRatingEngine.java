@@ -0,0 +1,178 @@
+package business;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Policy;
+import model.Policy.PolicyType;
+
+/**
+ * Calculates monthly premiums for policy quotes
+ * Monthly premium = coverage x annual rate for the policy type / 12,
+ * less 0.1% of the deductible and half the copayment, and at least $50.
+ * Rates are a table indexed by PolicyType ordinal, so rating a quote is a
+ * lookup and a few multiplications. The batch API rates parallel primitive
+ * arrays, for re-rating the whole book without allocating per quote.
+ * Rates can be changed while quoting: the table is replaced as a whole
+ * and the rate table version is bumped (see QuoteCache).
+ */
+public class PremiumRatingEngine {
+
+    public static final double MINIMUM_MONTHLY_PREMIUM = 50.0;
+    public static final double DEDUCTIBLE_CREDIT = 0.001; // Per dollar of deductible
+    public static final double COPAYMENT_CREDIT = 0.5; // Per dollar of copayment
+    public static final double MAX_COVERAGE_AMOUNT = 10_000_000.0;
+    public static final double MAX_COPAYMENT = 500.0;
+
+    private static final PremiumRatingEngine INSTANCE = new PremiumRatingEngine(defaultAnnualRates());
+
+    private volatile double[] annualRates; // By PolicyType ordinal, replaced on change, never modified
+    private final AtomicLong rateTableVersion;
+
+    /**
+     * Constructor
+     *
+     * @param annualRatesByType Annual rate (fraction of coverage) for every policy type
+     */
+    public PremiumRatingEngine(Map<PolicyType, Double> annualRatesByType) {
+        this.annualRates = toTable(annualRatesByType);
+        this.rateTableVersion = new AtomicLong();
+    }
+
+    private static double[] toTable(Map<PolicyType, Double> annualRatesByType) {
+        double[] table = new double[PolicyType.values().length];
+        for (PolicyType type : PolicyType.values()) {
+            Double rate = annualRatesByType.get(type);
+            if (rate == null || rate < 0) {
+                throw new IllegalArgumentException("Missing or negative rate for " + type.getDisplayName());
+            }
+            table[type.ordinal()] = rate;
+        }
+        return table;
+    }
+
+    /**
+     * Engine with the standard rate table
+     */
+    public static PremiumRatingEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Standard annual rates by policy type
+     */
+    public static Map<PolicyType, Double> defaultAnnualRates() {
+        Map<PolicyType, Double> rates = new EnumMap<>(PolicyType.class);
+        rates.put(PolicyType.INDIVIDUAL_HMO, 0.03);
+        rates.put(PolicyType.INDIVIDUAL_PPO, 0.045);
+        rates.put(PolicyType.FAMILY_HMO, 0.05);
+        rates.put(PolicyType.FAMILY_PPO, 0.07);
+        rates.put(PolicyType.GROUP, 0.04);
+        rates.put(PolicyType.MEDICARE, 0.02);
+        rates.put(PolicyType.MEDICAID, 0.015);
+        return rates;
+    }
+
+    public double getAnnualRate(PolicyType type) {
+        return annualRates[type.ordinal()];
+    }
+
+    /**
+     * Replace the rate table
+     */
+    public synchronized void setAnnualRates(Map<PolicyType, Double> annualRatesByType) {
+        annualRates = toTable(annualRatesByType);
+        rateTableVersion.incrementAndGet(); // After the new table, so a version never sees older rates
+    }
+
+    /**
+     * Change the rate for one policy type
+     */
+    public synchronized void setAnnualRate(PolicyType type, double annualRate) {
+        if (annualRate < 0) {
+            throw new IllegalArgumentException("Rate cannot be negative");
+        }
+        double[] table = annualRates.clone();
+        table[type.ordinal()] = annualRate;
+        annualRates = table;
+        rateTableVersion.incrementAndGet();
+    }
+
+    /**
+     * Version of the rate table, bumped on every change
+     */
+    public long getRateTableVersion() {
+        return rateTableVersion.get();
+    }
+
+    /**
+     * Check quote inputs
+     *
+     * @return Error message, or null if the quote can be rated
+     */
+    public static String validateQuote(double coverageAmount, double deductible, double copayment) {
+        if (coverageAmount <= 0 || coverageAmount > MAX_COVERAGE_AMOUNT) {
+            return "Coverage amount must be between $1 and $10,000,000";
+        }
+        if (deductible < 0 || deductible >= coverageAmount) {
+            return "Deductible must be non-negative and less than coverage amount";
+        }
+        if (copayment < 0 || copayment >= MAX_COPAYMENT) {
+            return "Copayment must be between $0 and $500";
+        }
+        return null;
+    }
+
+    /**
+     * Monthly premium for one quote
+     */
+    public double monthlyPremium(PolicyType type, double coverageAmount, double deductible, double copayment) {
+        return rate(annualRates[type.ordinal()], coverageAmount, deductible, copayment);
+    }
+
+    /**
+     * Monthly premiums for many quotes
+     * Quote i is (types[i], coverageAmounts[i], deductibles[i], copayments[i]),
+     * where types holds PolicyType ordinals; its premium goes to monthlyPremiums[i].
+     */
+    public void monthlyPremiums(int[] types, double[] coverageAmounts, double[] deductibles, double[] copayments,
+            double[] monthlyPremiums) {
+        int count = types.length;
+        if (coverageAmounts.length != count || deductibles.length != count || copayments.length != count
+                || monthlyPremiums.length != count) {
+            throw new IllegalArgumentException("Quote arrays must all have the same length");
+        }
+        double[] rates = annualRates;
+        for (int i = 0; i < count; i++) {
+            monthlyPremiums[i] = rate(rates[types[i]], coverageAmounts[i], deductibles[i], copayments[i]);
+        }
+    }
+
+    /**
+     * Monthly premiums for existing policies at current rates (e.g. to re-rate the book)
+     */
+    public double[] monthlyPremiums(List<Policy> policies) {
+        int count = policies.size();
+        int[] types = new int[count];
+        double[] coverageAmounts = new double[count];
+        double[] deductibles = new double[count];
+        double[] copayments = new double[count];
+        for (int i = 0; i < count; i++) {
+            Policy policy = policies.get(i);
+            types[i] = policy.getPolicyType().ordinal();
+            coverageAmounts[i] = policy.getCoverageAmount();
+            deductibles[i] = policy.getDeductible();
+            copayments[i] = policy.getCopayment();
+        }
+        double[] premiums = new double[count];
+        monthlyPremiums(types, coverageAmounts, deductibles, copayments, premiums);
+        return premiums;
+    }
+
+    private static double rate(double annualRate, double coverageAmount, double deductible, double copayment) {
+        double monthlyPremium = coverageAmount * annualRate / 12
+                - deductible * DEDUCTIBLE_CREDIT - copayment * COPAYMENT_CREDIT;
+        return Math.max(monthlyPremium, MINIMUM_MONTHLY_PREMIUM);
+    }
+}
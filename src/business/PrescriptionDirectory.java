@@ -2,15 +2,21 @@ package business;
 
 import model.Prescription;
 import model.Prescription.PrescriptionStatus;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete PrescriptionDirectory class
  * Manages all prescriptions in the system
+ * Thread-safe: guarded by a DirectoryLock (concurrent reads, exclusive writes)
  */
 public class PrescriptionDirectory implements Serializable {
     
@@ -19,14 +25,69 @@ public class PrescriptionDirectory implements Serializable {
     // Properties
     private List<Prescription> prescriptions;
     
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+    
+    private transient DirectoryLock lock;
+    
     /**
      * Constructor
      */
     public PrescriptionDirectory() {
+        this.lock = new DirectoryLock();
         this.prescriptions = new ArrayList<>();
         createSamplePrescriptions(); // Create sample data
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    PrescriptionDirectory(SnapshotReader in) throws IOException {
+        this.lock = new DirectoryLock();
+        int count = in.readVarInt();
+        this.prescriptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            prescriptions.add(Prescription.readSnapshot(in));
+        }
+    }
+    
+    /**
+     * Copy every prescription for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<Prescription> copyForSnapshot() {
+        List<Prescription> copies = new ArrayList<>(prescriptions.size());
+        for (Prescription prescription : prescriptions) {
+            copies.add(prescription.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write prescriptions to a binary snapshot
+     */
+    static void writeSnapshot(SnapshotWriter out, List<Prescription> prescriptions) throws IOException {
+        out.writeVarInt(prescriptions.size());
+        for (Prescription prescription : prescriptions) {
+            prescription.writeSnapshot(out);
+        }
+    }
+    
+    /**
+     * Create the lock after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock();
+    }
+    
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+    
     /**
      * Create sample prescriptions for demonstration
      */
@@ -41,6 +102,13 @@ public class PrescriptionDirectory implements Serializable {
      * Create sample prescriptions for a specific patient
      */
     public void createSamplePrescriptionsForPatient(String patientId) {
+        lock.write(() -> addSamplePrescriptions(patientId));
+    }
+    
+    /**
+     * Add the sample prescriptions (caller holds the write lock)
+     */
+    private void addSamplePrescriptions(String patientId) {
         // Sample 1 - Active Lisinopril
         Prescription rx1 = new Prescription(patientId, "EMP-DOC-001", "MED-001",
                                            "10mg, once daily", 30, 3, 
@@ -48,7 +116,7 @@ public class PrescriptionDirectory implements Serializable {
         rx1.setPrescriptionNumber("RX-2025-001234");
         rx1.setPrescribedDate(LocalDate.of(2025, 10, 15));
         prescriptions.add(rx1);
-        
+    
         // Sample 2 - Active Metformin
         Prescription rx2 = new Prescription(patientId, "EMP-DOC-001", "MED-002",
                                            "500mg, twice daily", 60, 2,
@@ -56,7 +124,7 @@ public class PrescriptionDirectory implements Serializable {
         rx2.setPrescriptionNumber("RX-2025-001567");
         rx2.setPrescribedDate(LocalDate.of(2025, 9, 20));
         prescriptions.add(rx2);
-        
+    
         // Sample 3 - Active Atorvastatin
         Prescription rx3 = new Prescription(patientId, "EMP-DOC-002", "MED-003",
                                            "20mg, once at bedtime", 30, 5,
@@ -64,7 +132,7 @@ public class PrescriptionDirectory implements Serializable {
         rx3.setPrescriptionNumber("RX-2025-001890");
         rx3.setPrescribedDate(LocalDate.of(2025, 11, 1));
         prescriptions.add(rx3);
-        
+    
         // Sample 4 - Completed Amoxicillin
         Prescription rx4 = new Prescription(patientId, "EMP-DOC-001", "MED-004",
                                            "500mg, three times daily", 21, 0,
@@ -73,13 +141,17 @@ public class PrescriptionDirectory implements Serializable {
         rx4.setPrescribedDate(LocalDate.of(2024, 8, 10));
         rx4.setStatus(PrescriptionStatus.COMPLETED);
         prescriptions.add(rx4);
+
+        for (Prescription prescription : List.of(rx1, rx2, rx3, rx4)) {
+            journal(MutationRecord.prescription(MutationRecord.Type.PRESCRIPTION_CREATED, prescription));
+        }
     }
     
     /**
      * Get all prescriptions
      */
     public List<Prescription> getAllPrescriptions() {
-        return new ArrayList<>(prescriptions);
+        return lock.read(() -> new ArrayList<>(prescriptions));
     }
     
     /**
@@ -91,7 +163,10 @@ public class PrescriptionDirectory implements Serializable {
         Prescription prescription = new Prescription(patientId, doctorId, medicationId, dosage,
                                                     quantity, refillsAuthorized, instructions,
                                                     pharmacyId, policyNumber);
-        prescriptions.add(prescription);
+        lock.write(() -> {
+            prescriptions.add(prescription);
+            journal(MutationRecord.prescription(MutationRecord.Type.PRESCRIPTION_CREATED, prescription));
+        });
         return prescription;
     }
     
@@ -99,22 +174,35 @@ public class PrescriptionDirectory implements Serializable {
      * Add existing prescription
      */
     public void addPrescription(Prescription prescription) {
-        if (!prescriptions.contains(prescription)) {
-            prescriptions.add(prescription);
-        }
+        lock.write(() -> {
+            if (!prescriptions.contains(prescription)) {
+                prescriptions.add(prescription);
+                journal(MutationRecord.prescription(MutationRecord.Type.PRESCRIPTION_CREATED, prescription));
+            }
+        });
     }
     
     /**
      * Remove prescription
      */
     public boolean removePrescription(String prescriptionNumber) {
-        return prescriptions.removeIf(p -> p.getPrescriptionNumber().equals(prescriptionNumber));
+        return lock.write(() -> {
+            boolean removed = prescriptions.removeIf(p -> p.getPrescriptionNumber().equals(prescriptionNumber));
+            if (removed) {
+                journal(MutationRecord.removal(MutationRecord.Type.PRESCRIPTION_REMOVED, prescriptionNumber));
+            }
+            return removed;
+        });
     }
     
     /**
      * Find prescription by number
      */
     public Prescription findPrescriptionByNumber(String prescriptionNumber) {
+        return lock.read(() -> findPrescription(prescriptionNumber));
+    }
+    
+    private Prescription findPrescription(String prescriptionNumber) {
         for (Prescription prescription : prescriptions) {
             if (prescription.getPrescriptionNumber().equals(prescriptionNumber)) {
                 return prescription;
@@ -127,92 +215,101 @@ public class PrescriptionDirectory implements Serializable {
      * Get all prescriptions for a patient
      */
     public List<Prescription> getPrescriptionsByPatient(String patientId) {
-        return prescriptions.stream()
+        return lock.read(() -> prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get active prescriptions for a patient
      */
     public List<Prescription> getActivePrescriptionsByPatient(String patientId) {
-        return prescriptions.stream()
+        return lock.read(() -> prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
                 .filter(p -> p.getStatus() == PrescriptionStatus.ACTIVE)
                 .filter(p -> !p.isExpired())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get prescriptions by status
      */
     public List<Prescription> getPrescriptionsByStatus(PrescriptionStatus status) {
-        return prescriptions.stream()
+        return lock.read(() -> prescriptions.stream()
                 .filter(p -> p.getStatus() == status)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get prescriptions ready for refill for a patient
      */
     public List<Prescription> getPrescriptionsReadyForRefill(String patientId) {
-        return prescriptions.stream()
+        return lock.read(() -> prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
                 .filter(Prescription::isReadyForRefill)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get prescription count for patient
      */
     public int getPrescriptionCountForPatient(String patientId) {
-        return (int) prescriptions.stream()
+        return lock.read(() -> (int) prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
-                .count();
+                .count());
     }
     
     /**
      * Get active prescription count for patient
      */
     public int getActivePrescriptionCountForPatient(String patientId) {
-        return (int) prescriptions.stream()
+        return lock.read(() -> (int) prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
                 .filter(p -> p.getStatus() == PrescriptionStatus.ACTIVE)
                 .filter(p -> !p.isExpired())
-                .count();
+                .count());
     }
     
     /**
      * Get ready for refill count for patient
      */
     public int getReadyForRefillCountForPatient(String patientId) {
-        return (int) prescriptions.stream()
+        return lock.read(() -> (int) prescriptions.stream()
                 .filter(p -> p.getPatientId().equals(patientId))
                 .filter(Prescription::isReadyForRefill)
-                .count();
+                .count());
     }
     
     /**
      * Process refill request
      */
     public boolean processRefill(String prescriptionNumber) {
-        Prescription prescription = findPrescriptionByNumber(prescriptionNumber);
-        if (prescription != null) {
-            return prescription.processRefill();
-        }
-        return false;
+        return lock.write(() -> {
+            Prescription prescription = findPrescription(prescriptionNumber);
+            if (prescription != null) {
+                boolean refilled = prescription.processRefill();
+                if (refilled) {
+                    journal(MutationRecord.prescription(MutationRecord.Type.PRESCRIPTION_REFILLED, prescription));
+                }
+                return refilled;
+            }
+            return false;
+        });
     }
     
     /**
      * Cancel prescription
      */
     public boolean cancelPrescription(String prescriptionNumber) {
-        Prescription prescription = findPrescriptionByNumber(prescriptionNumber);
-        if (prescription != null) {
-            prescription.cancel();
-            return true;
-        }
-        return false;
+        return lock.write(() -> {
+            Prescription prescription = findPrescription(prescriptionNumber);
+            if (prescription != null) {
+                prescription.cancel();
+                journal(MutationRecord.prescription(MutationRecord.Type.PRESCRIPTION_CANCELLED, prescription));
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
@@ -220,16 +317,51 @@ public class PrescriptionDirectory implements Serializable {
      */
     public List<Prescription> getExpiringPrescriptions() {
         LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        return prescriptions.stream()
+        return lock.read(() -> prescriptions.stream()
                 .filter(p -> p.getStatus() == PrescriptionStatus.ACTIVE)
                 .filter(p -> p.getExpiryDate().isBefore(thirtyDaysFromNow))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+    
+    // ==================== JOURNAL ====================
+    
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+    
+    /**
+     * Apply replayed journal changes (prescription number -> prescription, null = removed)
+     */
+    void applyJournaledChanges(Map<String, Prescription> changes) {
+        lock.write(() -> {
+            prescriptions = MutationRecord.mergeChanges(prescriptions, Prescription::getPrescriptionNumber, changes);
+        });
     }
     
     /**
      * Clear all prescriptions (for testing)
      */
     public void clearAll() {
+        lock.write(this::clearPrescriptions);
+    }
+
+    /**
+     * Journal the removal of every prescription and empty the list (caller holds the write lock)
+     */
+    private void clearPrescriptions() {
+        for (Prescription prescription : prescriptions) {
+            journal(MutationRecord.removal(MutationRecord.Type.PRESCRIPTION_REMOVED,
+                    prescription.getPrescriptionNumber()));
+        }
         prescriptions.clear();
     }
     
@@ -237,14 +369,16 @@ public class PrescriptionDirectory implements Serializable {
      * Reload sample data
      */
     public void reloadSampleData() {
-        prescriptions.clear();
-        createSamplePrescriptions();
+        lock.write(() -> {
+            clearPrescriptions();
+            createSamplePrescriptions();
+        });
     }
     
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return prescriptions.isEmpty();
+        return lock.read(() -> prescriptions.isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package business;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import model.Policy.PolicyType;
+
+/**
+ * Bounded LRU cache of premium quotes in front of PremiumRatingEngine
+ * Quotes are keyed on policy type and the amounts rounded to whole cents,
+ * and rated from those rounded amounts, so a cached and a fresh quote are
+ * always identical. The policy duration is not part of the key because the
+ * monthly premium does not depend on it. The cache empties itself when the
+ * engine's rate table version changes.
+ * With the current formula a hit (~57 ns) costs more than rating the quote
+ * (~5-9 ns), so BuyPolicyPanel and bulk runs use the engine directly; put
+ * the cache in front only of rating rules that cost more than a lookup.
+ */
+public class QuoteCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final QuoteCache INSTANCE = new QuoteCache(PremiumRatingEngine.getInstance(),
+            DEFAULT_MAX_ENTRIES);
+
+    private final PremiumRatingEngine engine;
+    private final int maxEntries;
+    private final LinkedHashMap<QuoteKey, Double> entries; // Access order, guarded by this
+    private long rateTableVersion; // Version the entries were rated with, guarded by this
+
+    // Metrics, guarded by this
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Normalized quote inputs
+     */
+    private static final class QuoteKey {
+        private final int type;
+        private final long coverageCents;
+        private final long deductibleCents;
+        private final long copaymentCents;
+
+        QuoteKey(int type, long coverageCents, long deductibleCents, long copaymentCents) {
+            this.type = type;
+            this.coverageCents = coverageCents;
+            this.deductibleCents = deductibleCents;
+            this.copaymentCents = copaymentCents;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof QuoteKey))
+                return false;
+            QuoteKey other = (QuoteKey) obj;
+            return type == other.type && coverageCents == other.coverageCents
+                    && deductibleCents == other.deductibleCents && copaymentCents == other.copaymentCents;
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = type;
+            hash = hash * 31 + coverageCents;
+            hash = hash * 31 + deductibleCents;
+            hash = hash * 31 + copaymentCents;
+            return Long.hashCode(hash);
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    public QuoteCache(PremiumRatingEngine engine, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one quote");
+        }
+        this.engine = engine;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<QuoteKey, Double>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QuoteKey, Double> eldest) {
+                if (size() > QuoteCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.rateTableVersion = engine.getRateTableVersion();
+    }
+
+    /**
+     * Cache in front of the standard rating engine
+     */
+    public static QuoteCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Monthly premium for a quote, from the cache if it was quoted before at the current rates
+     */
+    public double monthlyPremium(PolicyType type, double coverageAmount, double deductible, double copayment) {
+        QuoteKey key = new QuoteKey(type.ordinal(), toCents(coverageAmount), toCents(deductible),
+                toCents(copayment));
+        // Read the version first: the engine publishes new rates before bumping it
+        long version = engine.getRateTableVersion();
+        synchronized (this) {
+            if (version != rateTableVersion) {
+                invalidate(version);
+            }
+            Double cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        double premium = engine.monthlyPremium(type, key.coverageCents / 100.0, key.deductibleCents / 100.0,
+                key.copaymentCents / 100.0);
+        synchronized (this) {
+            if (version == rateTableVersion) {
+                entries.put(key, premium);
+            }
+        }
+        return premium;
+    }
+
+    /**
+     * Drop every cached quote
+     */
+    public synchronized void clear() {
+        invalidate(engine.getRateTableVersion());
+    }
+
+    private void invalidate(long version) {
+        entries.clear();
+        rateTableVersion = version;
+        invalidations++;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // ==================== METRICS ====================
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Fraction of lookups answered from the cache, 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * One-line metrics summary
+     */
+    public synchronized String getMetricsSummary() {
+        return String.format("Quote cache: %d/%d entries, %.1f%% hits (%d hits, %d misses), %d evicted, %d invalidated",
+                entries.size(), maxEntries, getHitRate() * 100, hits, misses, evictions, invalidations);
+    }
+}
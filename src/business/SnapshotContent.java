@@ -0,0 +1,64 @@
+package business;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import model.Claim;
+import model.Enterprise;
+import model.Organization;
+import model.Policy;
+import model.Prescription;
+import model.User;
+import utils.SnapshotWriter;
+
+/**
+ * Detached copy of everything a snapshot contains
+ * Copied under the directory read locks and encoded after they are released
+ * (see SystemData.captureContent), so writers are only blocked for the copy.
+ */
+class SnapshotContent {
+
+    // Properties
+    private final List<Enterprise> enterprises;
+    private final List<Organization> organizations;
+    private final List<User> users;
+    private final List<Prescription> prescriptions;
+    private final int currentUserPosition; // 0 = nobody logged in
+    private final Map<String, Long> idSequences;
+    private final List<Policy> policies;
+    private final List<Claim> claims;
+
+    /**
+     * Constructor
+     */
+    SnapshotContent(List<Enterprise> enterprises, List<Organization> organizations, List<User> users,
+            List<Prescription> prescriptions, int currentUserPosition, Map<String, Long> idSequences,
+            List<Policy> policies, List<Claim> claims) {
+        this.enterprises = enterprises;
+        this.organizations = organizations;
+        this.users = users;
+        this.prescriptions = prescriptions;
+        this.currentUserPosition = currentUserPosition;
+        this.idSequences = idSequences;
+        this.policies = policies;
+        this.claims = claims;
+    }
+
+    /**
+     * Write the copied directories in snapshot order (see SystemData.writeSnapshot)
+     */
+    void write(SnapshotWriter out) throws IOException {
+        EnterpriseDirectory.writeSnapshot(out, enterprises);
+        OrganizationDirectory.writeSnapshot(out, organizations);
+        UserDirectory.writeSnapshot(out, users);
+        PrescriptionDirectory.writeSnapshot(out, prescriptions);
+        out.writeVarInt(currentUserPosition);
+        out.writeVarInt(idSequences.size());
+        for (Map.Entry<String, Long> entry : idSequences.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeVarLong(entry.getValue());
+        }
+        PolicyDirectory.writeSnapshot(out, policies);
+        ClaimDirectory.writeSnapshot(out, claims);
+    }
+}
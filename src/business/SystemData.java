@@ -1,32 +1,63 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import model.*;
+import utils.DataJournal;
+import utils.IdGenerator;
+import utils.SnapshotReader;
+import utils.SnapshotSection;
+import utils.SnapshotWriter;
 
 /**
  * Complete SystemData class - THE CENTRAL HUB
  * This is a Singleton that holds ALL data directories
  * All panels access data through this single instance
+ * Safe to share between the Swing event thread and background work: the
+ * instance is published through a volatile field and every directory
+ * guards itself with a DirectoryLock.
  */
 public class SystemData implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
-    // Singleton instance
-    private static SystemData instance;
+    // Singleton instance (volatile for safe publication to background threads)
+    private static volatile SystemData instance;
     
     // All Directory Objects (shared across entire application)
     private EnterpriseDirectory enterpriseDirectory;
     private OrganizationDirectory organizationDirectory;
     private UserDirectory userDirectory;
-    private PolicyDirectory policyDirectory;
-    private ClaimDirectory claimDirectory;
+    private volatile PolicyDirectory policyDirectory; // Null until decoded when loaded from a snapshot
+    private volatile ClaimDirectory claimDirectory; // Null until decoded when loaded from a snapshot
     private PrescriptionDirectory prescriptionDirectory;
     
     // Current logged-in user
-    private User currentUser;
+    private volatile User currentUser;
+    
+    // ID sequence state, captured on save so numbering continues after restart
+    private Map<String, Long> idSequenceState;
+    
+    // Write-ahead journal of changes since the last saved snapshot
+    private transient volatile DataJournal journal;
+    
+    // Counts directory changes (for autosave) and forwards them to the journal
+    private transient AtomicLong changeCount;
+    private transient MutationLog changeRecorder;
+    
+    // Undecoded snapshot sections decoded on first access (null once decoded)
+    private transient SnapshotSection<Policy> pendingPolicies;
+    private transient SnapshotSection<Claim> pendingClaims;
     
     /**
      * Private constructor (Singleton pattern)
@@ -40,22 +71,184 @@ public class SystemData implements Serializable {
         this.claimDirectory = new ClaimDirectory();
         this.prescriptionDirectory = new PrescriptionDirectory();
         this.currentUser = null;
+        reserveExistingIds();
+        attachChangeRecorder();
+    }
+    
+    /**
+     * Capture ID allocator state before serialization
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        loadPendingSections();
+        idSequenceState = IdGenerator.getAllocator().snapshot();
+        List<DirectoryLock> locks = lockDirectoriesForRead();
+        try {
+            out.defaultWriteObject();
+        } finally {
+            unlockDirectories(locks);
+        }
+    }
+    
+    /**
+     * Restore ID allocator state after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        restoreIdSequences();
+        attachChangeRecorder();
+    }
+    
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     * Policies and claims are only sliced here; they are decoded the first
+     * time their directory is requested, so startup time does not grow with
+     * the number of claims.
+     */
+    private SystemData(SnapshotReader in) throws IOException {
+        this.enterpriseDirectory = new EnterpriseDirectory(in);
+        this.organizationDirectory = new OrganizationDirectory(in);
+        this.userDirectory = new UserDirectory(in);
+        this.prescriptionDirectory = new PrescriptionDirectory(in);
+        int currentUserIndex = in.readVarInt(); // 0 = nobody logged in
+        this.currentUser = currentUserIndex == 0 ? null : userDirectory.getAllUsers().get(currentUserIndex - 1);
+        int sequenceCount = in.readVarInt();
+        this.idSequenceState = new HashMap<>();
+        for (int i = 0; i < sequenceCount; i++) {
+            idSequenceState.put(in.readString(), in.readVarLong());
+        }
+        this.pendingPolicies = SnapshotSection.read(in, Policy::readSnapshot);
+        this.pendingClaims = SnapshotSection.read(in, Claim::readSnapshot);
+        restoreIdSequences();
+        attachChangeRecorder();
+    }
+    
+    /**
+     * Read system data written by writeSnapshot
+     */
+    public static SystemData readSnapshot(SnapshotReader in) throws IOException {
+        return new SystemData(in);
+    }
+    
+    /**
+     * Write all directories to a binary snapshot
+     * The current user is stored as a position in the user list so it stays
+     * the same object as the one in UserDirectory after loading.
+     * Policies and claims go last, as sections that can be decoded lazily.
+     * Entities are copied under the directory read locks and encoded after
+     * they are released.
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        SnapshotContent content;
+        List<DirectoryLock> locks = lockDirectoriesForRead();
+        try {
+            content = captureContent();
+        } finally {
+            unlockDirectories(locks);
+        }
+        content.write(out);
+    }
+    
+    /**
+     * Copy every directory for a snapshot (caller holds every directory's read lock)
+     */
+    private SnapshotContent captureContent() {
+        idSequenceState = IdGenerator.getAllocator().snapshot();
+        int currentUserPosition = currentUser == null ? 0 : userDirectory.getAllUsers().indexOf(currentUser) + 1;
+        return new SnapshotContent(enterpriseDirectory.copyForSnapshot(), organizationDirectory.copyForSnapshot(),
+                userDirectory.copyForSnapshot(), prescriptionDirectory.copyForSnapshot(), currentUserPosition,
+                idSequenceState, getPolicyDirectory().copyForSnapshot(), getClaimDirectory().copyForSnapshot());
+    }
+    
+    /**
+     * Read-lock every directory (in a fixed order) so a snapshot sees no
+     * half-applied background writes; decodes lazily loaded sections first
+     */
+    private List<DirectoryLock> lockDirectoriesForRead() {
+        List<DirectoryLock> locks = new ArrayList<>(6);
+        locks.add(enterpriseDirectory.getLock());
+        locks.add(organizationDirectory.getLock());
+        locks.add(userDirectory.getLock());
+        locks.add(prescriptionDirectory.getLock());
+        locks.add(getPolicyDirectory().getLock());
+        locks.add(getClaimDirectory().getLock());
+        int locked = 0;
+        try {
+            for (; locked < locks.size(); locked++) {
+                locks.get(locked).lockRead();
+            }
+        } catch (RuntimeException | Error e) {
+            unlockDirectories(locks.subList(0, locked));
+            throw e;
+        }
+        return locks;
+    }
+    
+    private static void unlockDirectories(List<DirectoryLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlockRead();
+        }
+    }
+    
+    /**
+     * Restore the ID allocator from saved sequence state
+     */
+    private void restoreIdSequences() {
+        if (idSequenceState != null) {
+            IdGenerator.getAllocator().restore(idSequenceState);
+        }
+        reserveExistingIds(); // Also covers files saved before sequences were persisted
+    }
+    
+    /**
+     * Make sure generated IDs never collide with claim, policy and
+     * prescription numbers that already exist
+     * Directories that are not decoded yet are covered when they are decoded.
+     */
+    private void reserveExistingIds() {
+        if (claimDirectory != null) {
+            reserveClaimIds(claimDirectory);
+        }
+        if (policyDirectory != null) {
+            reservePolicyIds(policyDirectory);
+        }
+        for (Prescription prescription : prescriptionDirectory.getAllPrescriptions()) {
+            IdGenerator.reserveExistingId(prescription.getPrescriptionNumber());
+        }
+    }
+    
+    private static void reserveClaimIds(ClaimDirectory directory) {
+        for (Claim claim : directory.getAllClaims()) {
+            IdGenerator.reserveExistingId(claim.getClaimNumber());
+        }
+    }
+    
+    private static void reservePolicyIds(PolicyDirectory directory) {
+        for (Policy policy : directory.getAllPolicies()) {
+            IdGenerator.reserveExistingId(policy.getPolicyNumber());
+        }
     }
     
     /**
      * Get the single instance (Singleton)
      */
     public static SystemData getInstance() {
-        if (instance == null) {
-            instance = new SystemData();
+        SystemData current = instance;
+        if (current == null) {
+            synchronized (SystemData.class) {
+                current = instance;
+                if (current == null) {
+                    current = new SystemData();
+                    instance = current;
+                }
+            }
         }
-        return instance;
+        return current;
     }
     
     /**
      * Reset instance (for testing/logout)
      */
-    public static void resetInstance() {
+    public static synchronized void resetInstance() {
         instance = new SystemData();
     }
     
@@ -74,17 +267,73 @@ public class SystemData implements Serializable {
     }
     
     public PolicyDirectory getPolicyDirectory() {
-        return policyDirectory;
+        PolicyDirectory directory = policyDirectory;
+        return directory != null ? directory : loadPendingPolicies();
     }
     
     public ClaimDirectory getClaimDirectory() {
-        return claimDirectory;
+        ClaimDirectory directory = claimDirectory;
+        return directory != null ? directory : loadPendingClaims();
     }
     
     public PrescriptionDirectory getPrescriptionDirectory() {
         return prescriptionDirectory;
     }
     
+    // ==================== LAZY SNAPSHOT SECTIONS ====================
+    
+    /**
+     * Decode policies and claims on a background thread
+     * Called right after loading so they are usually ready by the time the
+     * user has logged in; a getter called earlier simply waits for them.
+     */
+    public void preloadInBackground() {
+        if (pendingPolicies == null && pendingClaims == null) {
+            return;
+        }
+        Thread preloader = new Thread(this::loadPendingSections, "healthguard360-preload");
+        preloader.setDaemon(true);
+        preloader.start();
+    }
+    
+    /**
+     * Decode every section that is still undecoded
+     */
+    public void loadPendingSections() {
+        getPolicyDirectory();
+        getClaimDirectory();
+    }
+    
+    private synchronized PolicyDirectory loadPendingPolicies() {
+        if (policyDirectory == null) {
+            try {
+                PolicyDirectory directory = new PolicyDirectory(pendingPolicies);
+                directory.setMutationLog(changeRecorder);
+                reservePolicyIds(directory);
+                policyDirectory = directory;
+                pendingPolicies = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Policies in the data file are unreadable", e);
+            }
+        }
+        return policyDirectory;
+    }
+    
+    private synchronized ClaimDirectory loadPendingClaims() {
+        if (claimDirectory == null) {
+            try {
+                ClaimDirectory directory = new ClaimDirectory(pendingClaims);
+                directory.setMutationLog(changeRecorder);
+                reserveClaimIds(directory);
+                claimDirectory = directory;
+                pendingClaims = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Claims in the data file are unreadable", e);
+            }
+        }
+        return claimDirectory;
+    }
+    
     // ==================== CURRENT USER MANAGEMENT ====================
     
     /**
@@ -196,10 +445,7 @@ public class SystemData implements Serializable {
         Organization org = organizationDirectory.createOrganization(name, type, enterpriseId);
         
         // Also add to enterprise
-        Enterprise enterprise = enterpriseDirectory.findEnterpriseById(enterpriseId);
-        if (enterprise != null) {
-            enterprise.addOrganization(org.getOrganizationId());
-        }
+        enterpriseDirectory.addOrganizationToEnterprise(enterpriseId, org.getOrganizationId());
         
         return org;
     }
@@ -226,7 +472,7 @@ public class SystemData implements Serializable {
     public java.util.List<Policy> getCurrentPatientPolicies() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return policyDirectory.getPoliciesByPatient(patientId);
+            return getPolicyDirectory().getPoliciesByPatient(patientId);
         }
         return new java.util.ArrayList<>();
     }
@@ -237,7 +483,7 @@ public class SystemData implements Serializable {
     public java.util.List<Policy> getCurrentPatientActivePolicies() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return policyDirectory.getActivePoliciesByPatient(patientId);
+            return getPolicyDirectory().getActivePoliciesByPatient(patientId);
         }
         return new java.util.ArrayList<>();
     }
@@ -248,7 +494,7 @@ public class SystemData implements Serializable {
     public int getCurrentPatientActivePolicyCount() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return policyDirectory.getActivePolicyCountForPatient(patientId);
+            return getPolicyDirectory().getActivePolicyCountForPatient(patientId);
         }
         return 0;
     }
@@ -262,19 +508,32 @@ public class SystemData implements Serializable {
                             String diagnosis, Claim.ServiceType serviceType, double claimAmount) {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return claimDirectory.createClaim(policyNumber, patientId, serviceDate, 
+            return getClaimDirectory().createClaim(policyNumber, patientId, serviceDate, 
                                              providerName, diagnosis, serviceType, claimAmount);
         }
         return null;
     }
     
+    /**
+     * Find current patient's claims identical to a submission about to be made
+     */
+    public java.util.List<Claim> findPossibleDuplicateClaims(String policyNumber, LocalDate serviceDate,
+                            String providerName, Claim.ServiceType serviceType, double claimAmount) {
+        String patientId = getCurrentPatientId();
+        if (patientId != null) {
+            return getClaimDirectory().findPossibleDuplicates(policyNumber, patientId, serviceDate,
+                                             providerName, serviceType, claimAmount);
+        }
+        return new java.util.ArrayList<>();
+    }
+    
     /**
      * Get claims for current patient
      */
     public java.util.List<Claim> getCurrentPatientClaims() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return claimDirectory.getClaimsByPatient(patientId);
+            return getClaimDirectory().getClaimsByPatient(patientId);
         }
         return new java.util.ArrayList<>();
     }
@@ -285,7 +544,7 @@ public class SystemData implements Serializable {
     public int getCurrentPatientPendingClaimCount() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return claimDirectory.getPendingClaimCountForPatient(patientId);
+            return getClaimDirectory().getPendingClaimCountForPatient(patientId);
         }
         return 0;
     }
@@ -296,7 +555,7 @@ public class SystemData implements Serializable {
     public int getCurrentPatientApprovedClaimCount() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return claimDirectory.getApprovedClaimCountForPatient(patientId);
+            return getClaimDirectory().getApprovedClaimCountForPatient(patientId);
         }
         return 0;
     }
@@ -307,7 +566,7 @@ public class SystemData implements Serializable {
     public int getCurrentPatientDeniedClaimCount() {
         String patientId = getCurrentPatientId();
         if (patientId != null) {
-            return claimDirectory.getDeniedClaimCountForPatient(patientId);
+            return getClaimDirectory().getDeniedClaimCountForPatient(patientId);
         }
         return 0;
     }
@@ -316,7 +575,7 @@ public class SystemData implements Serializable {
      * Withdraw claim
      */
     public boolean withdrawClaim(String claimNumber) {
-        return claimDirectory.withdrawClaim(claimNumber);
+        return getClaimDirectory().withdrawClaim(claimNumber);
     }
     
     // ==================== PRESCRIPTION OPERATIONS ====================
@@ -410,14 +669,14 @@ public class SystemData implements Serializable {
      * Get total policy count
      */
     public int getTotalPolicyCount() {
-        return policyDirectory.getPolicyCount();
+        return getPolicyDirectory().getPolicyCount();
     }
     
     /**
      * Get total claim count
      */
     public int getTotalClaimCount() {
-        return claimDirectory.getClaimCount();
+        return getClaimDirectory().getClaimCount();
     }
     
     /**
@@ -434,8 +693,8 @@ public class SystemData implements Serializable {
         enterpriseDirectory.clearAll();
         organizationDirectory.clearAll();
         userDirectory.clearAll();
-        policyDirectory.reloadSampleData();
-        claimDirectory.reloadSampleData();
+        getPolicyDirectory().reloadSampleData();
+        getClaimDirectory().reloadSampleData();
         prescriptionDirectory.reloadSampleData();
         currentUser = null;
     }
@@ -445,31 +704,100 @@ public class SystemData implements Serializable {
      */
     public void initializeSampleDataForPatient(String patientId) {
         // Create sample policies for this patient
-        policyDirectory.createSamplePoliciesForPatient(patientId);
+        getPolicyDirectory().createSamplePoliciesForPatient(patientId);
         
         // Create sample claims for this patient
-        claimDirectory.createSampleClaimsForPatient(patientId);
+        getClaimDirectory().createSampleClaimsForPatient(patientId);
         
         // Create sample prescriptions for this patient
         prescriptionDirectory.createSamplePrescriptionsForPatient(patientId);
+        
+        reserveExistingIds();
     }
     
     
     /**
-     * Save current system data to file
+     * Save current system data to file (safe on any thread, see captureSnapshot)
      */
     public boolean saveToFile() {
-        return utils.FileHandler.saveSystemData(this);
+        try {
+            return persistSnapshot(captureSnapshot());
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ Error saving data: " + e.getMessage());
+            return false;
+        }
     }
     
     /**
-     * Load system data from file
+     * Capture a consistent point-in-time copy of all data in memory
+     * Holds every directory's read lock only while the entities are copied,
+     * so writers on any thread are excluded and the journal mark matches the
+     * copy exactly; encoding happens after the locks are released. Every
+     * entity change goes through a directory write, so this is safe on any
+     * thread; AutosaveService runs it on its own thread, never the event
+     * thread. No file I/O happens here; call loadPendingSections() beforehand
+     * so lazily loaded sections are not decoded while the locks are held.
+     */
+    public DataSnapshot captureSnapshot() throws IOException {
+        long start = System.nanoTime();
+        long journalMark;
+        long changes;
+        SnapshotContent content;
+        List<DirectoryLock> locks = lockDirectoriesForRead();
+        try {
+            DataJournal currentJournal = journal;
+            journalMark = currentJournal != null ? currentJournal.getAppendedCount() : -1;
+            changes = changeCount.get();
+            content = captureContent();
+        } finally {
+            unlockDirectories(locks);
+        }
+        byte[] data = utils.SnapshotCodec.encode(content::write);
+        return new DataSnapshot(data, changes, journalMark, System.nanoTime() - start);
+    }
+    
+    /**
+     * Write a captured snapshot to the data file (safe on any thread)
+     * A successful save is a checkpoint: journal records covered by the
+     * snapshot are dropped, later ones are kept.
+     */
+    public boolean persistSnapshot(DataSnapshot snapshot) {
+        boolean saved = utils.FileHandler.writeDataFile(snapshot.getData());
+        DataJournal currentJournal = journal;
+        if (saved && currentJournal != null && snapshot.getJournalMark() >= 0) {
+            try {
+                currentJournal.checkpoint(snapshot.getJournalMark());
+            } catch (IOException e) {
+                System.err.println("❌ Error checkpointing journal: " + e.getMessage());
+            }
+        }
+        return saved;
+    }
+    
+    /**
+     * Number of directory changes since this data was created or loaded
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+    
+    /**
+     * Load system data from file and replay the journal on top of it
+     * If only a journal exists (crash before the first save), it is replayed
+     * onto fresh data.
      */
     public static SystemData loadFromFile() {
         SystemData loadedData = utils.FileHandler.loadSystemData();
+        if (loadedData == null && !utils.FileHandler.dataFileExists() && utils.FileHandler.journalExists()) {
+            loadedData = new SystemData();
+        }
         if (loadedData != null) {
-            instance = loadedData;
-            return instance;
+            List<MutationRecord> records = utils.FileHandler.loadJournalRecords();
+            loadedData.applyMutations(records);
+            synchronized (SystemData.class) {
+                instance = loadedData;
+            }
+            return loadedData;
         }
         return null;
     }
@@ -478,6 +806,129 @@ public class SystemData implements Serializable {
      * Check if saved data exists
      */
     public static boolean hasSavedData() {
-        return utils.FileHandler.dataFileExists();
+        return utils.FileHandler.dataFileExists() || utils.FileHandler.journalExists();
+    }
+    
+    // ==================== JOURNAL ====================
+    
+    /**
+     * Start journaling every directory change to disk
+     */
+    public void startJournal() {
+        if (journal != null) {
+            return;
+        }
+        journal = utils.FileHandler.openJournal();
+    }
+    
+    /**
+     * Wait until every change journaled so far is on disk (no-op without a journal)
+     * Bulk jobs call this before recording a resume checkpoint.
+     */
+    public void flushJournal() throws IOException {
+        DataJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.flush();
+        }
+    }
+    
+    /**
+     * Flush and close the journal
+     * 
+     * @param discard true to also delete the journaled changes (e.g. the user
+     *                chose not to keep this session's changes)
+     */
+    public void stopJournal(boolean discard) {
+        DataJournal stopped = journal;
+        if (stopped == null) {
+            return;
+        }
+        journal = null;
+        try {
+            if (discard) {
+                stopped.checkpoint();
+            }
+            stopped.close();
+        } catch (IOException e) {
+            System.err.println("❌ Error closing journal: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Route every directory change through the change recorder, including
+     * directories decoded later
+     */
+    private synchronized void attachChangeRecorder() {
+        changeCount = new AtomicLong();
+        changeRecorder = this::recordMutation;
+        if (claimDirectory != null) {
+            claimDirectory.setMutationLog(changeRecorder);
+        }
+        if (policyDirectory != null) {
+            policyDirectory.setMutationLog(changeRecorder);
+        }
+        prescriptionDirectory.setMutationLog(changeRecorder);
+        userDirectory.setMutationLog(changeRecorder);
+        enterpriseDirectory.setMutationLog(changeRecorder);
+        organizationDirectory.setMutationLog(changeRecorder);
+    }
+    
+    private void recordMutation(MutationRecord record) {
+        changeCount.incrementAndGet();
+        DataJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.append(record);
+        }
+    }
+    
+    /**
+     * Apply journaled mutations in order
+     * Records are full-state upserts or removals, so only the last record for
+     * each key matters; each directory is merged in a single pass.
+     */
+    void applyMutations(List<MutationRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<String, Claim> claimChanges = new LinkedHashMap<>();
+        Map<String, Policy> policyChanges = new LinkedHashMap<>();
+        Map<String, Prescription> prescriptionChanges = new LinkedHashMap<>();
+        Map<String, User> userChanges = new LinkedHashMap<>();
+        Map<String, Enterprise> enterpriseChanges = new LinkedHashMap<>();
+        Map<String, Organization> organizationChanges = new LinkedHashMap<>();
+        for (MutationRecord record : records) {
+            switch (record.getType().getEntityType()) {
+                case CLAIM:
+                    claimChanges.put(record.getKey(), (Claim) record.getEntity());
+                    break;
+                case POLICY:
+                    policyChanges.put(record.getKey(), (Policy) record.getEntity());
+                    break;
+                case PRESCRIPTION:
+                    prescriptionChanges.put(record.getKey(), (Prescription) record.getEntity());
+                    break;
+                case USER:
+                    userChanges.put(record.getKey(), (User) record.getEntity());
+                    break;
+                case ENTERPRISE:
+                    enterpriseChanges.put(record.getKey(), (Enterprise) record.getEntity());
+                    break;
+                case ORGANIZATION:
+                    organizationChanges.put(record.getKey(), (Organization) record.getEntity());
+                    break;
+            }
+        }
+        if (!claimChanges.isEmpty()) {
+            getClaimDirectory().applyJournaledChanges(claimChanges);
+        }
+        if (!policyChanges.isEmpty()) {
+            getPolicyDirectory().applyJournaledChanges(policyChanges);
+        }
+        prescriptionDirectory.applyJournaledChanges(prescriptionChanges);
+        userDirectory.applyJournaledChanges(userChanges);
+        enterpriseDirectory.applyJournaledChanges(enterpriseChanges);
+        organizationDirectory.applyJournaledChanges(organizationChanges);
+        reserveExistingIds();
+        System.out.println("✅ Replayed " + records.size() + " journaled changes");
     }
 }
@@ -0,0 +1,32 @@
+package business;
+
+/**
+ * Outcome of a versioned (compare-and-set) update of a claim or policy
+ * Callers pass the version they read (Claim.getVersion, Policy.getVersion);
+ * the update is only applied if nobody changed the record since then.
+ */
+public enum UpdateResult {
+    UPDATED("Updated"),
+    CONFLICT("Changed by someone else"),
+    NOT_FOUND("Not found"),
+    REJECTED("Not allowed in the current status");
+
+    /**
+     * Expected version that skips the check (last write wins)
+     */
+    public static final long ANY_VERSION = -1;
+
+    private final String displayName;
+
+    UpdateResult(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isUpdated() {
+        return this == UPDATED;
+    }
+}
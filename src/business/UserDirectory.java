@@ -1,32 +1,220 @@
 package business;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 import model.Person;
 import model.Role;
 import model.User;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete UserDirectory class
  * Manages all users and authentication
+ * Keeps hash indexes on username (case-insensitive), user ID and person ID
+ * so that login and lookups do not scan the whole user list
+ * Thread-safe: guarded by a DirectoryLock (concurrent reads, exclusive writes)
  */
-public class UserDirectory implements Serializable {
+public class UserDirectory implements Serializable, User.ChangeListener {
     
     private static final long serialVersionUID = 1L;
     
     // Properties
     private List<User> users;
     
+    // Indexes (not serialized, rebuilt from the user list after loading)
+    private transient Map<String, User> usersByUsername; // Keyed on case-folded username
+    private transient Map<String, User> usersById;
+    private transient Map<String, User> usersByPersonId;
+    private transient PersonNameResolver nameResolver;
+    
+    // Journal for crash recovery (attached by SystemData)
+    private transient MutationLog mutationLog;
+    
+    private transient DirectoryLock lock;
+    
     /**
      * Constructor
      */
     public UserDirectory() {
+        this.lock = new DirectoryLock();
         this.users = new ArrayList<>();
+        rebuildIndexes();
         createDefaultUsers(); // Create default admin and test users
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    UserDirectory(SnapshotReader in) throws IOException {
+        this.lock = new DirectoryLock();
+        int count = in.readVarInt();
+        this.users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.readSnapshot(in));
+        }
+        rebuildIndexes();
+    }
+    
+    /**
+     * Copy every user for a snapshot, to be encoded without the lock
+     * Caller holds the read lock (see SystemData.captureContent).
+     */
+    List<User> copyForSnapshot() {
+        List<User> copies = new ArrayList<>(users.size());
+        for (User user : users) {
+            copies.add(user.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Write users to a binary snapshot
+     */
+    static void writeSnapshot(SnapshotWriter out, List<User> users) throws IOException {
+        out.writeVarInt(users.size());
+        for (User user : users) {
+            user.writeSnapshot(out);
+        }
+    }
+    
+    /**
+     * Restore indexes after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new DirectoryLock();
+        rebuildIndexes();
+    }
+    
+    /**
+     * Lock guarding this directory
+     */
+    DirectoryLock getLock() {
+        return lock;
+    }
+    
+    // ==================== INDEX MAINTENANCE ====================
+    
+    /**
+     * Rebuild all indexes from the user list
+     */
+    private void rebuildIndexes() {
+        usersByUsername = new HashMap<>();
+        usersById = new HashMap<>();
+        usersByPersonId = new HashMap<>();
+        nameResolver = new PersonNameResolver();
+        for (User user : users) {
+            indexUser(user);
+        }
+    }
+    
+    /**
+     * Add user to every index and start listening for key changes
+     */
+    private void indexUser(User user) {
+        usersByUsername.putIfAbsent(usernameKey(user.getUsername()), user);
+        usersById.putIfAbsent(user.getUserId(), user);
+        if (user.getPerson() != null) {
+            usersByPersonId.putIfAbsent(user.getPerson().getPersonId(), user);
+        }
+        nameResolver.register(user);
+        user.setChangeListener(this);
+    }
+    
+    /**
+     * Remove user from every index and stop listening
+     */
+    private void unindexUser(User user) {
+        usersByUsername.remove(usernameKey(user.getUsername()), user);
+        usersById.remove(user.getUserId(), user);
+        if (user.getPerson() != null) {
+            usersByPersonId.remove(user.getPerson().getPersonId(), user);
+        }
+        nameResolver.unregister(user);
+        user.setChangeListener(null);
+    }
+    
+    /**
+     * Case-fold username so lookups match equalsIgnoreCase semantics
+     */
+    private static String usernameKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Keep indexes in sync when an indexed user field changes
+     */
+    @Override
+    public void userChanged(User user, User.ChangeType changeType, Object oldValue) {
+        lock.write(() -> updateIndexes(user, changeType, oldValue));
+    }
+    
+    private void updateIndexes(User user, User.ChangeType changeType, Object oldValue) {
+        switch (changeType) {
+            case USERNAME:
+                usersByUsername.remove(usernameKey((String) oldValue), user);
+                usersByUsername.putIfAbsent(usernameKey(user.getUsername()), user);
+                break;
+            case USER_ID:
+                usersById.remove((String) oldValue, user);
+                usersById.putIfAbsent(user.getUserId(), user);
+                break;
+            case PERSON:
+                Person oldPerson = (Person) oldValue;
+                if (oldPerson != null) {
+                    usersByPersonId.remove(oldPerson.getPersonId(), user);
+                }
+                if (user.getPerson() != null) {
+                    usersByPersonId.putIfAbsent(user.getPerson().getPersonId(), user);
+                }
+                nameResolver.unregister(oldPerson);
+                nameResolver.register(user.getPerson());
+                break;
+        }
+        if (changeType == User.ChangeType.USER_ID) {
+            journal(MutationRecord.removal(MutationRecord.Type.USER_REMOVED, (String) oldValue));
+            journal(MutationRecord.user(MutationRecord.Type.USER_CREATED, user));
+        } else {
+            journal(MutationRecord.user(MutationRecord.Type.USER_UPDATED, user));
+        }
+    }
+    
+    // ==================== JOURNAL ====================
+    
+    /**
+     * Attach the mutation journal (null to detach)
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
+    private void journal(MutationRecord record) {
+        if (mutationLog != null) {
+            mutationLog.append(record);
+        }
+    }
+    
+    /**
+     * Apply replayed journal changes (user ID -> user, null = removed)
+     */
+    void applyJournaledChanges(Map<String, User> changes) {
+        lock.write(() -> {
+            for (User user : users) {
+                user.setChangeListener(null);
+            }
+            users = MutationRecord.mergeChanges(users, User::getUserId, changes);
+            rebuildIndexes();
+        });
+    }
+    
     /**
      * Create default users for testing
      */
@@ -36,128 +224,128 @@ public class UserDirectory implements Serializable {
         adminPerson.setFirstName("System");
         adminPerson.setLastName("Administrator");
         User adminUser = new User("admin", "admin123", Role.SYSTEM_ADMIN, adminPerson);
-        users.add(adminUser);
+        addUser(adminUser);
         
         // 2. Patient users
         Person patientPerson1 = new Person();
         patientPerson1.setFirstName("John");
         patientPerson1.setLastName("Doe");
         User patientUser1 = new User("patient", "patient123", Role.PATIENT, patientPerson1);
-        users.add(patientUser1);
+        addUser(patientUser1);
         
         Person patientPerson2 = new Person();
         patientPerson2.setFirstName("Sarah");
         patientPerson2.setLastName("Johnson");
         User patientUser2 = new User("sarah", "pass123", Role.PATIENT, patientPerson2);
-        users.add(patientUser2);
+        addUser(patientUser2);
         
         // 3. Doctor users
         Person doctorPerson1 = new Person();
         doctorPerson1.setFirstName("Dr. Emily");
         doctorPerson1.setLastName("Smith");
         User doctorUser1 = new User("doctor", "doctor123", Role.DOCTOR, doctorPerson1);
-        users.add(doctorUser1);
+        addUser(doctorUser1);
         
         Person doctorPerson2 = new Person();
         doctorPerson2.setFirstName("Dr. Michael");
         doctorPerson2.setLastName("Chen");
         User doctorUser2 = new User("drchen", "pass123", Role.DOCTOR, doctorPerson2);
-        users.add(doctorUser2);
+        addUser(doctorUser2);
         
         // 4. Nurse users
         Person nursePerson1 = new Person();
         nursePerson1.setFirstName("Maria");
         nursePerson1.setLastName("Garcia");
         User nurseUser1 = new User("nurse", "nurse123", Role.NURSE, nursePerson1);
-        users.add(nurseUser1);
+        addUser(nurseUser1);
         
         Person nursePerson2 = new Person();
         nursePerson2.setFirstName("Jennifer");
         nursePerson2.setLastName("Williams");
         User nurseUser2 = new User("jennifer", "pass123", Role.NURSE, nursePerson2);
-        users.add(nurseUser2);
+        addUser(nurseUser2);
         
         // 5. Hospital Admin
         Person hospitalAdminPerson = new Person();
         hospitalAdminPerson.setFirstName("Robert");
         hospitalAdminPerson.setLastName("Thompson");
         User hospitalAdminUser = new User("hospitaladmin", "admin123", Role.HOSPITAL_ADMIN, hospitalAdminPerson);
-        users.add(hospitalAdminUser);
+        addUser(hospitalAdminUser);
         
         // 6. Claims Processor users
         Person claimsPerson1 = new Person();
         claimsPerson1.setFirstName("Lisa");
         claimsPerson1.setLastName("Anderson");
         User claimsUser1 = new User("claimsprocessor", "claims123", Role.CLAIMS_PROCESSOR, claimsPerson1);
-        users.add(claimsUser1);
+        addUser(claimsUser1);
         
         Person claimsPerson2 = new Person();
         claimsPerson2.setFirstName("David");
         claimsPerson2.setLastName("Martinez");
         User claimsUser2 = new User("davidm", "pass123", Role.CLAIMS_PROCESSOR, claimsPerson2);
-        users.add(claimsUser2);
+        addUser(claimsUser2);
         
         // 7. Insurance Admin
         Person insuranceAdminPerson = new Person();
         insuranceAdminPerson.setFirstName("Patricia");
         insuranceAdminPerson.setLastName("Brown");
         User insuranceAdminUser = new User("insuranceadmin", "admin123", Role.INSURANCE_ADMIN, insuranceAdminPerson);
-        users.add(insuranceAdminUser);
+        addUser(insuranceAdminUser);
         
         // 8. Pharmacist users
         Person pharmacistPerson1 = new Person();
         pharmacistPerson1.setFirstName("James");
         pharmacistPerson1.setLastName("Wilson");
         User pharmacistUser1 = new User("pharmacist", "pharm123", Role.PHARMACIST, pharmacistPerson1);
-        users.add(pharmacistUser1);
+        addUser(pharmacistUser1);
         
         Person pharmacistPerson2 = new Person();
         pharmacistPerson2.setFirstName("Rachel");
         pharmacistPerson2.setLastName("Taylor");
         User pharmacistUser2 = new User("rachel", "pass123", Role.PHARMACIST, pharmacistPerson2);
-        users.add(pharmacistUser2);
+        addUser(pharmacistUser2);
         
         // 9. Pharmacy Technician
         Person pharmTechPerson = new Person();
         pharmTechPerson.setFirstName("Kevin");
         pharmTechPerson.setLastName("Lee");
         User pharmTechUser = new User("pharmtech", "tech123", Role.PHARMACY_TECHNICIAN, pharmTechPerson);
-        users.add(pharmTechUser);
+        addUser(pharmTechUser);
         
         // 10. Pharmacy Admin
         Person pharmacyAdminPerson = new Person();
         pharmacyAdminPerson.setFirstName("Amanda");
         pharmacyAdminPerson.setLastName("Davis");
         User pharmacyAdminUser = new User("pharmacyadmin", "admin123", Role.PHARMACY_ADMIN, pharmacyAdminPerson);
-        users.add(pharmacyAdminUser);
+        addUser(pharmacyAdminUser);
         
         // 11. Underwriter
         Person underwriterPerson = new Person();
         underwriterPerson.setFirstName("Christopher");
         underwriterPerson.setLastName("Moore");
         User underwriterUser = new User("underwriter", "under123", Role.UNDERWRITER, underwriterPerson);
-        users.add(underwriterUser);
+        addUser(underwriterUser);
         
         // 12. Supplier Admin
         Person supplierAdminPerson = new Person();
         supplierAdminPerson.setFirstName("Michelle");
         supplierAdminPerson.setLastName("White");
         User supplierAdminUser = new User("supplieradmin", "admin123", Role.SUPPLIER_ADMIN, supplierAdminPerson);
-        users.add(supplierAdminUser);
+        addUser(supplierAdminUser);
         
         // 13. Supply Chain Manager
         Person supplyManagerPerson = new Person();
         supplyManagerPerson.setFirstName("Brian");
         supplyManagerPerson.setLastName("Clark");
         User supplyManagerUser = new User("supplymanager", "supply123", Role.SUPPLIER_MANAGER, supplyManagerPerson);
-        users.add(supplyManagerUser);
+        addUser(supplyManagerUser);
     }
     
     /**
      * Get all users
      */
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        return lock.read(() -> new ArrayList<>(users));
     }
     
     /**
@@ -165,7 +353,11 @@ public class UserDirectory implements Serializable {
      */
     public User createUser(String username, String password, Role role, Person person) {
         User user = new User(username, password, role, person);
-        users.add(user);
+        lock.write(() -> {
+            users.add(user);
+            indexUser(user);
+            journal(MutationRecord.user(MutationRecord.Type.USER_CREATED, user));
+        });
         return user;
     }
     
@@ -173,176 +365,214 @@ public class UserDirectory implements Serializable {
      * Add existing user
      */
     public void addUser(User user) {
-        if (!users.contains(user)) {
-            users.add(user);
-        }
+        lock.write(() -> {
+            if (!usersById.containsKey(user.getUserId())) {
+                users.add(user);
+                indexUser(user);
+                journal(MutationRecord.user(MutationRecord.Type.USER_CREATED, user));
+            }
+        });
     }
     
     /**
      * Remove user
      */
     public boolean removeUser(String userId) {
-        return users.removeIf(u -> u.getUserId().equals(userId));
+        return lock.write(() -> {
+            User user = usersById.get(userId);
+            if (user == null) {
+                return false;
+            }
+            unindexUser(user);
+            journal(MutationRecord.removal(MutationRecord.Type.USER_REMOVED, userId));
+            return users.removeIf(u -> u.getUserId().equals(userId));
+        });
     }
     
     /**
      * Find user by ID
      */
     public User findUserById(String userId) {
-        for (User user : users) {
-            if (user.getUserId().equals(userId)) {
-                return user;
-            }
-        }
-        return null;
+        return lock.read(() -> usersById.get(userId));
     }
     
     /**
      * Find user by username
      */
     public User findUserByUsername(String username) {
-        for (User user : users) {
-            if (user.getUsername().equalsIgnoreCase(username)) {
-                return user;
-            }
+        if (username == null) {
+            return null;
         }
-        return null;
+        return lock.read(() -> usersByUsername.get(usernameKey(username)));
     }
     
     /**
      * Check if username already exists
      */
     public boolean isUsernameExists(String username) {
-        return users.stream()
-                .anyMatch(u -> u.getUsername().equalsIgnoreCase(username));
+        return findUserByUsername(username) != null;
     }
     
     /**
      * Authenticate user (login)
      */
     public User authenticate(String username, String password) {
-        User user = findUserByUsername(username);
-        if (user != null && user.isActive() && user.verifyPassword(password)) {
-            user.recordLogin();
-            return user;
-        }
-        return null;
+        return lock.write(() -> {
+            User user = findUserByUsername(username);
+            if (user != null && user.isActive() && user.verifyPassword(password)) {
+                user.recordLogin();
+                return user;
+            }
+            return null;
+        });
     }
     
     /**
      * Get users by role
      */
     public List<User> getUsersByRole(Role role) {
-        return users.stream()
+        return lock.read(() -> users.stream()
                 .filter(u -> u.getRole() == role)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get all active users
      */
     public List<User> getActiveUsers() {
-        return users.stream()
+        return lock.read(() -> users.stream()
                 .filter(User::isActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get all inactive users
      */
     public List<User> getInactiveUsers() {
-        return users.stream()
+        return lock.read(() -> users.stream()
                 .filter(u -> !u.isActive())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Get user count
      */
     public int getUserCount() {
-        return users.size();
+        return lock.read(() -> users.size());
     }
     
     /**
      * Get active user count
      */
     public int getActiveUserCount() {
-        return (int) users.stream().filter(User::isActive).count();
+        return lock.read(() -> (int) users.stream().filter(User::isActive).count());
     }
     
     /**
      * Deactivate user
      */
     public boolean deactivateUser(String userId) {
-        User user = findUserById(userId);
-        if (user != null) {
-            user.deactivate();
-            return true;
-        }
-        return false;
+        return lock.write(() -> {
+            User user = usersById.get(userId);
+            if (user != null) {
+                user.deactivate();
+                journal(MutationRecord.user(MutationRecord.Type.USER_UPDATED, user));
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
      * Activate user
      */
     public boolean activateUser(String userId) {
-        User user = findUserById(userId);
-        if (user != null) {
-            user.activate();
-            return true;
-        }
-        return false;
+        return lock.write(() -> {
+            User user = usersById.get(userId);
+            if (user != null) {
+                user.activate();
+                journal(MutationRecord.user(MutationRecord.Type.USER_UPDATED, user));
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    /**
+     * Replace the person behind a user (e.g. when a person becomes an employee)
+     */
+    public boolean assignPerson(String userId, Person person) {
+        return lock.write(() -> {
+            User user = usersById.get(userId);
+            if (user != null) {
+                user.setPerson(person); // Indexed and journaled by userChanged
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
      * Change user password
      */
     public boolean changeUserPassword(String userId, String oldPassword, String newPassword) {
-        User user = findUserById(userId);
-        if (user != null) {
-            try {
-                user.changePassword(oldPassword, newPassword);
-                return true;
-            } catch (Exception e) {
-                return false;
+        return lock.write(() -> {
+            User user = usersById.get(userId);
+            if (user != null) {
+                try {
+                    user.changePassword(oldPassword, newPassword);
+                    journal(MutationRecord.user(MutationRecord.Type.USER_UPDATED, user));
+                    return true;
+                } catch (Exception e) {
+                    return false;
+                }
             }
-        }
-        return false;
+            return false;
+        });
     }
     
     /**
      * Get usernames for dropdown (UI helper)
      */
     public List<String> getUsernamesForDropdown() {
-        return users.stream()
+        return lock.read(() -> users.stream()
                 .map(User::getUsername)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     /**
      * Clear all users (for testing)
      */
     public void clearAll() {
-        users.clear();
-        createDefaultUsers(); // Recreate default users
+        lock.write(() -> {
+            for (User user : users) {
+                user.setChangeListener(null);
+                journal(MutationRecord.removal(MutationRecord.Type.USER_REMOVED, user.getUserId()));
+            }
+            users.clear();
+            rebuildIndexes();
+            createDefaultUsers(); // Recreate default users
+        });
     }
     
     /**
      * Check if directory is empty
      */
     public boolean isEmpty() {
-        return users.isEmpty();
+        return lock.read(() -> users.isEmpty());
+    }
+    
+    /**
+     * Get the shared person/patient ID to display name resolver
+     */
+    public PersonNameResolver getNameResolver() {
+        return lock.read(() -> nameResolver);
     }
     
     /**
      * Find user by person ID
      */
     public User findUserByPersonId(String personId) {
-        for (User user : users) {
-            if (user.getPerson().getPersonId().equals(personId)) {
-                return user;
-            }
-        }
-        return null;
+        return lock.read(() -> usersByPersonId.get(personId));
     }
 }
\ No newline at end of file
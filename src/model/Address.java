@@ -4,13 +4,16 @@
  */
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Address class with validation
  * Stores street, city, state, zip code
  */
-public class Address implements Serializable {
+public class Address implements Serializable, Cloneable {
     
     private static final long serialVersionUID = 1L;
     
@@ -43,6 +46,50 @@ public class Address implements Serializable {
         this.country = "USA";
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Address(SnapshotReader in) throws IOException {
+        this.streetAddress = in.readUniqueString();
+        this.city = in.readString();
+        this.state = in.readString();
+        this.zipCode = in.readString();
+        this.country = in.readString();
+    }
+    
+    /**
+     * Read an address written by writeSnapshot (null allowed)
+     */
+    public static Address readSnapshot(SnapshotReader in) throws IOException {
+        return in.readBoolean() ? new Address(in) : null;
+    }
+    
+    /**
+     * Write an address to a binary snapshot (null allowed)
+     */
+    public static void writeSnapshot(SnapshotWriter out, Address address) throws IOException {
+        out.writeBoolean(address != null);
+        if (address != null) {
+            out.writeUniqueString(address.streetAddress);
+            out.writeString(address.city);
+            out.writeString(address.state);
+            out.writeString(address.zipCode);
+            out.writeString(address.country);
+        }
+    }
+
+    /**
+     * Detached copy for snapshots: same state
+     */
+    public Address copy() {
+        try {
+            Address copy = (Address) super.clone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
     // Getters
     public String getStreetAddress() {
         return streetAddress;
@@ -1,16 +1,21 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import utils.IdGenerator;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Claim class with workflow state machine
  * Represents an insurance claim with full lifecycle management
  */
-public class Claim implements Serializable {
+public class Claim implements Serializable, Cloneable {
     
     private static final long serialVersionUID = 1L;
     
@@ -68,6 +73,30 @@ public class Claim implements Serializable {
         }
     }
     
+    // Fields reported to the change listener
+    public enum ChangeType {
+        CLAIM_NUMBER,
+        PATIENT_ID,
+        POLICY_NUMBER,
+        STATUS,
+        CLAIM_AMOUNT,
+        APPROVED_AMOUNT,
+        PROCESSED_DATE,
+        SERVICE_DATE, // Part of the duplicate fingerprint and of the policy term a claim counts toward
+        SERVICE_DETAILS // Provider or service type (part of the duplicate fingerprint)
+    }
+    
+    /**
+     * Listener notified after a tracked claim field changes
+     * Used by ClaimDirectory to keep its lookup indexes and totals in sync.
+     * When a transition changes the approved amount or processed date together
+     * with the status, those changes are reported first, while the old status
+     * still applies.
+     */
+    public interface ChangeListener {
+        void claimChanged(Claim claim, ChangeType changeType, Object oldValue);
+    }
+    
     // Properties
     private String claimNumber;
     private String policyNumber; // Policy this claim is for
@@ -85,6 +114,12 @@ public class Claim implements Serializable {
     private LocalDate submittedDate;
     private LocalDate lastUpdatedDate;
     private LocalDate processedDate;
+    private transient ChangeListener changeListener; // Owning directory, re-attached after load
+    private transient volatile long version; // Bumped on every change, see ClaimDirectory.updateClaim
+
+    // Atomic increments of version: setters may run on several threads at once
+    private static final AtomicLongFieldUpdater<Claim> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Claim.class, "version");
     
     /**
      * Complete constructor
@@ -131,13 +166,76 @@ public class Claim implements Serializable {
         this.processedDate = null;
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Claim(SnapshotReader in) throws IOException {
+        this.claimNumber = in.readUniqueString();
+        this.policyNumber = in.readString();
+        this.patientId = in.readString();
+        this.serviceDate = in.readDate();
+        this.providerName = in.readString();
+        this.diagnosis = in.readString();
+        this.serviceType = in.readEnum(ServiceType.class);
+        this.claimAmount = in.readDouble();
+        this.approvedAmount = in.readDouble();
+        this.claimStatus = in.readEnum(ClaimStatus.class);
+        this.processorId = in.readString();
+        this.reviewNotes = in.readUniqueString();
+        this.documentPaths = in.readStringList();
+        this.submittedDate = in.readDate();
+        this.lastUpdatedDate = in.readDate();
+        this.processedDate = in.readDate();
+    }
+    
+    /**
+     * Read a claim written by writeSnapshot
+     */
+    public static Claim readSnapshot(SnapshotReader in) throws IOException {
+        return new Claim(in);
+    }
+    
+    /**
+     * Write this claim to a binary snapshot
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(claimNumber);
+        out.writeString(policyNumber);
+        out.writeString(patientId);
+        out.writeDate(serviceDate);
+        out.writeString(providerName);
+        out.writeString(diagnosis);
+        out.writeEnum(serviceType);
+        out.writeDouble(claimAmount);
+        out.writeDouble(approvedAmount);
+        out.writeEnum(claimStatus);
+        out.writeString(processorId);
+        out.writeUniqueString(reviewNotes);
+        out.writeStringList(documentPaths);
+        out.writeDate(submittedDate);
+        out.writeDate(lastUpdatedDate);
+        out.writeDate(processedDate);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own lists, no change listener
+     */
+    public Claim copy() {
+        try {
+            Claim copy = (Claim) super.clone();
+            copy.documentPaths = documentPaths == null ? null : new ArrayList<>(documentPaths);
+            copy.changeListener = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
     /**
      * Generate unique claim number
      */
     private String generateClaimNumber() {
-        int year = LocalDate.now().getYear();
-        int random = (int)(Math.random() * 100000);
-        return String.format("CLM-%d-%05d", year, random);
+        return IdGenerator.nextId("CLM", 5);
     }
     
     // Getters
@@ -205,66 +303,165 @@ public class Claim implements Serializable {
         return processedDate;
     }
     
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+    
+    /**
+     * Get the change version (starts at 0 when the claim is created or loaded)
+     */
+    public long getVersion() {
+        return version;
+    }
+    
     // Setters
     public void setClaimNumber(String claimNumber) {
+        String oldValue = this.claimNumber;
         this.claimNumber = claimNumber;
+        fireChange(ChangeType.CLAIM_NUMBER, oldValue);
     }
     
     public void setPolicyNumber(String policyNumber) {
+        String oldValue = this.policyNumber;
         this.policyNumber = policyNumber;
+        fireChange(ChangeType.POLICY_NUMBER, oldValue);
     }
     
     public void setPatientId(String patientId) {
+        String oldValue = this.patientId;
         this.patientId = patientId;
+        fireChange(ChangeType.PATIENT_ID, oldValue);
     }
     
     public void setServiceDate(LocalDate serviceDate) {
+        LocalDate oldValue = this.serviceDate;
         this.serviceDate = serviceDate;
+        fireChange(ChangeType.SERVICE_DATE, oldValue);
     }
     
     public void setProviderName(String providerName) {
+        String oldValue = this.providerName;
         this.providerName = providerName;
+        fireChange(ChangeType.SERVICE_DETAILS, oldValue);
     }
     
     public void setDiagnosis(String diagnosis) {
         this.diagnosis = diagnosis;
+        touch();
     }
     
     public void setServiceType(ServiceType serviceType) {
+        ServiceType oldValue = this.serviceType;
         this.serviceType = serviceType;
+        fireChange(ChangeType.SERVICE_DETAILS, oldValue);
     }
     
     public void setClaimAmount(double claimAmount) {
+        double oldValue = this.claimAmount;
         this.claimAmount = claimAmount;
+        fireChange(ChangeType.CLAIM_AMOUNT, oldValue);
     }
     
     public void setApprovedAmount(double approvedAmount) {
+        double oldValue = this.approvedAmount;
         this.approvedAmount = approvedAmount;
+        fireChange(ChangeType.APPROVED_AMOUNT, oldValue);
     }
     
     public void setClaimStatus(ClaimStatus claimStatus) {
+        ClaimStatus oldStatus = this.claimStatus;
         this.claimStatus = claimStatus;
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, oldStatus);
     }
     
     public void setProcessorId(String processorId) {
         this.processorId = processorId;
+        touch();
     }
     
     public void setReviewNotes(String reviewNotes) {
         this.reviewNotes = reviewNotes;
+        touch();
     }
     
     public void setSubmittedDate(LocalDate submittedDate) {
         this.submittedDate = submittedDate;
+        touch();
     }
     
     public void setLastUpdatedDate(LocalDate lastUpdatedDate) {
         this.lastUpdatedDate = lastUpdatedDate;
+        touch();
     }
     
     public void setProcessedDate(LocalDate processedDate) {
+        LocalDate oldValue = this.processedDate;
         this.processedDate = processedDate;
+        fireChange(ChangeType.PROCESSED_DATE, oldValue);
+    }
+    
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+    
+    /**
+     * Get the duplicate-detection fingerprint of this claim
+     */
+    public String getFingerprint() {
+        return fingerprint(patientId, policyNumber, serviceDate, providerName, serviceType, claimAmount);
+    }
+    
+    /**
+     * Normalized key of the fields that identify a submission
+     * Provider names ignore case, punctuation and spacing; amounts compare
+     * to the cent. Two claims with the same fingerprint are possible duplicates.
+     */
+    public static String fingerprint(String patientId, String policyNumber, LocalDate serviceDate,
+                                     String providerName, ServiceType serviceType, double claimAmount) {
+        return patientId + '|' + policyNumber + '|' + serviceDate + '|' + normalizeName(providerName) + '|'
+                + serviceType + '|' + Math.round(claimAmount * 100);
+    }
+    
+    private static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+    
+    /**
+     * Notify the listener (if any) that a tracked field changed
+     */
+    private void fireChange(ChangeType changeType, Object oldValue) {
+        touch();
+        if (changeListener != null) {
+            changeListener.claimChanged(this, changeType, oldValue);
+        }
+    }
+    
+    /**
+     * Bump the version after a change
+     * Atomic and done right after the field is written, before the listener
+     * waits for the directory lock, so a versioned update that read the
+     * version before the change always sees it as stale.
+     */
+    private void touch() {
+        VERSION.incrementAndGet(this);
     }
     
     /**
@@ -273,6 +470,7 @@ public class Claim implements Serializable {
     public void addDocument(String documentPath) {
         if (!documentPaths.contains(documentPath)) {
             documentPaths.add(documentPath);
+            touch();
         }
     }
     
@@ -280,7 +478,9 @@ public class Claim implements Serializable {
      * Remove document
      */
     public void removeDocument(String documentPath) {
-        documentPaths.remove(documentPath);
+        if (documentPaths.remove(documentPath)) {
+            touch();
+        }
     }
     
     /**
@@ -293,6 +493,7 @@ public class Claim implements Serializable {
         this.claimStatus = ClaimStatus.UNDER_REVIEW;
         this.processorId = processorId;
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, ClaimStatus.SUBMITTED);
     }
     
     /**
@@ -302,12 +503,14 @@ public class Claim implements Serializable {
         if (claimStatus != ClaimStatus.UNDER_REVIEW && claimStatus != ClaimStatus.SUBMITTED) {
             throw new IllegalStateException("Can only approve claims under review");
         }
-        this.approvedAmount = approvedAmount;
+        ClaimStatus oldStatus = this.claimStatus;
+        setApprovedAmount(approvedAmount);
         this.claimStatus = ClaimStatus.APPROVED;
         this.processorId = processorId;
         this.reviewNotes = notes;
-        this.processedDate = LocalDate.now();
+        setProcessedDate(LocalDate.now());
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, oldStatus);
     }
     
     /**
@@ -317,12 +520,14 @@ public class Claim implements Serializable {
         if (claimStatus != ClaimStatus.UNDER_REVIEW && claimStatus != ClaimStatus.SUBMITTED) {
             throw new IllegalStateException("Can only deny claims under review");
         }
-        this.approvedAmount = 0.0;
+        ClaimStatus oldStatus = this.claimStatus;
+        setApprovedAmount(0.0);
         this.claimStatus = ClaimStatus.DENIED;
         this.processorId = processorId;
         this.reviewNotes = reasonForDenial;
-        this.processedDate = LocalDate.now();
+        setProcessedDate(LocalDate.now());
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, oldStatus);
     }
     
     /**
@@ -334,6 +539,7 @@ public class Claim implements Serializable {
         }
         this.claimStatus = ClaimStatus.PAID;
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, ClaimStatus.APPROVED);
     }
     
     /**
@@ -343,8 +549,10 @@ public class Claim implements Serializable {
         if (claimStatus == ClaimStatus.APPROVED || claimStatus == ClaimStatus.PAID || claimStatus == ClaimStatus.DENIED) {
             throw new IllegalStateException("Cannot withdraw a claim that has been processed");
         }
+        ClaimStatus oldStatus = this.claimStatus;
         this.claimStatus = ClaimStatus.WITHDRAWN;
         this.lastUpdatedDate = LocalDate.now();
+        fireChange(ChangeType.STATUS, oldStatus);
     }
     
     /**
@@ -1,7 +1,10 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Employee class - extends Person
@@ -61,6 +64,30 @@ public class Employee extends Person implements Serializable {
         this.isActive = true;
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshotFields)
+     */
+    Employee(SnapshotReader in) throws IOException {
+        super(in);
+        this.employeeId = in.readUniqueString();
+        this.organizationId = in.readString();
+        this.role = in.readEnum(Role.class);
+        this.salary = in.readDouble();
+        this.hireDate = in.readDate();
+        this.isActive = in.readBoolean();
+    }
+    
+    @Override
+    protected void writeSnapshotFields(SnapshotWriter out) throws IOException {
+        super.writeSnapshotFields(out);
+        out.writeUniqueString(employeeId);
+        out.writeString(organizationId);
+        out.writeEnum(role);
+        out.writeDouble(salary);
+        out.writeDate(hireDate);
+        out.writeBoolean(isActive);
+    }
+    
     /**
      * Generate unique employee ID
      */
@@ -1,17 +1,20 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Enterprise class
  * Represents Hospital, Insurance Provider, Pharmacy Chain, or Pharmaceutical
  * Supplier
  */
-public class Enterprise implements Serializable {
+public class Enterprise implements Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -98,6 +101,60 @@ public class Enterprise implements Serializable {
         this.isActive = true;
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Enterprise(SnapshotReader in) throws IOException {
+        this.enterpriseId = in.readUniqueString();
+        this.enterpriseName = in.readString();
+        this.enterpriseType = in.readEnum(EnterpriseType.class);
+        this.address = Address.readSnapshot(in);
+        this.phoneNumber = in.readUniqueString();
+        this.email = in.readUniqueString();
+        this.createdDate = in.readDate();
+        this.organizationIds = in.readStringList();
+        this.employeeIds = in.readStringList();
+        this.isActive = in.readBoolean();
+    }
+
+    /**
+     * Read an enterprise written by writeSnapshot
+     */
+    public static Enterprise readSnapshot(SnapshotReader in) throws IOException {
+        return new Enterprise(in);
+    }
+
+    /**
+     * Write this enterprise to a binary snapshot
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(enterpriseId);
+        out.writeString(enterpriseName);
+        out.writeEnum(enterpriseType);
+        Address.writeSnapshot(out, address);
+        out.writeUniqueString(phoneNumber);
+        out.writeUniqueString(email);
+        out.writeDate(createdDate);
+        out.writeStringList(organizationIds);
+        out.writeStringList(employeeIds);
+        out.writeBoolean(isActive);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own address and lists
+     */
+    public Enterprise copy() {
+        try {
+            Enterprise copy = (Enterprise) super.clone();
+            copy.organizationIds = organizationIds == null ? null : new ArrayList<>(organizationIds);
+            copy.employeeIds = employeeIds == null ? null : new ArrayList<>(employeeIds);
+            copy.address = address == null ? null : address.copy();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Generate unique enterprise ID
      */
@@ -1,6 +1,7 @@
 package model;
 
 import java.io.Serializable;
+import utils.IdGenerator;
 
 /**
  * Complete Medication class
@@ -153,7 +154,7 @@ public class Medication implements Serializable {
      * Generate unique medication ID
      */
     private String generateMedicationId() {
-        return "MED-" + System.currentTimeMillis();
+        return IdGenerator.nextId("MED", 5);
     }
     
     // Getters
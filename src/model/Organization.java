@@ -1,16 +1,19 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Organization class
  * Represents departments, divisions, branches, or units within an enterprise
  */
-public class Organization implements Serializable {
+public class Organization implements Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -72,6 +75,52 @@ public class Organization implements Serializable {
         this.isActive = true;
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Organization(SnapshotReader in) throws IOException {
+        this.organizationId = in.readUniqueString();
+        this.organizationName = in.readString();
+        this.organizationType = in.readEnum(OrganizationType.class);
+        this.enterpriseId = in.readString();
+        this.createdDate = in.readDate();
+        this.employeeIds = in.readStringList();
+        this.isActive = in.readBoolean();
+    }
+
+    /**
+     * Read an organization written by writeSnapshot
+     */
+    public static Organization readSnapshot(SnapshotReader in) throws IOException {
+        return new Organization(in);
+    }
+
+    /**
+     * Write this organization to a binary snapshot
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(organizationId);
+        out.writeString(organizationName);
+        out.writeEnum(organizationType);
+        out.writeString(enterpriseId);
+        out.writeDate(createdDate);
+        out.writeStringList(employeeIds);
+        out.writeBoolean(isActive);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own lists
+     */
+    public Organization copy() {
+        try {
+            Organization copy = (Organization) super.clone();
+            copy.employeeIds = employeeIds == null ? null : new ArrayList<>(employeeIds);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Generate unique organization ID
      */
@@ -1,9 +1,12 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Patient class
@@ -61,6 +64,52 @@ public class Patient extends Person implements Serializable {
         this.prescriptionNumbers = new ArrayList<>();
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshotFields)
+     */
+    Patient(SnapshotReader in) throws IOException {
+        super(in);
+        this.patientId = in.readUniqueString();
+        this.bloodType = in.readString();
+        this.allergies = in.readStringList();
+        this.chronicConditions = in.readStringList();
+        this.emergencyContactName = in.readString();
+        this.emergencyContactPhone = in.readUniqueString();
+        this.insuranceProvider = in.readString();
+        this.policyNumbers = in.readStringList();
+        this.claimNumbers = in.readStringList();
+        this.prescriptionNumbers = in.readStringList();
+    }
+    
+    @Override
+    protected void writeSnapshotFields(SnapshotWriter out) throws IOException {
+        super.writeSnapshotFields(out);
+        out.writeUniqueString(patientId);
+        out.writeString(bloodType);
+        out.writeStringList(allergies);
+        out.writeStringList(chronicConditions);
+        out.writeString(emergencyContactName);
+        out.writeUniqueString(emergencyContactPhone);
+        out.writeString(insuranceProvider);
+        out.writeStringList(policyNumbers);
+        out.writeStringList(claimNumbers);
+        out.writeStringList(prescriptionNumbers);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own lists
+     */
+    @Override
+    public Patient copy() {
+        Patient copy = (Patient) super.copy();
+        copy.allergies = allergies == null ? null : new ArrayList<>(allergies);
+        copy.chronicConditions = chronicConditions == null ? null : new ArrayList<>(chronicConditions);
+        copy.policyNumbers = policyNumbers == null ? null : new ArrayList<>(policyNumbers);
+        copy.claimNumbers = claimNumbers == null ? null : new ArrayList<>(claimNumbers);
+        copy.prescriptionNumbers = prescriptionNumbers == null ? null : new ArrayList<>(prescriptionNumbers);
+        return copy;
+    }
+    
     /**
      * Generate unique patient ID
      */
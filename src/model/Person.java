@@ -1,15 +1,18 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Person base class
  * Parent class for Patient and Employee
  */
-public class Person implements Serializable {
+public class Person implements Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -55,6 +58,80 @@ public class Person implements Serializable {
         this.createdDate = LocalDate.now();
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    protected Person(SnapshotReader in) throws IOException {
+        this.personId = in.readUniqueString();
+        this.firstName = in.readString();
+        this.lastName = in.readString();
+        this.dateOfBirth = in.readDate();
+        this.gender = in.readString();
+        this.email = in.readUniqueString();
+        this.phoneNumber = in.readUniqueString();
+        this.address = Address.readSnapshot(in);
+        this.createdDate = in.readDate();
+    }
+
+    /**
+     * Read a person, patient or employee written by writeSnapshot (null allowed)
+     */
+    public static Person readSnapshot(SnapshotReader in) throws IOException {
+        int kind = in.readByte();
+        switch (kind) {
+            case 0:
+                return null;
+            case 1:
+                return new Person(in);
+            case 2:
+                return new Patient(in);
+            case 3:
+                return new Employee(in);
+            default:
+                throw new java.io.StreamCorruptedException("Unknown person kind: " + kind);
+        }
+    }
+
+    /**
+     * Write a person, patient or employee to a binary snapshot (null allowed)
+     */
+    public static void writeSnapshot(SnapshotWriter out, Person person) throws IOException {
+        if (person == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(person instanceof Patient ? 2 : person instanceof Employee ? 3 : 1);
+        person.writeSnapshotFields(out);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own address
+     */
+    public Person copy() {
+        try {
+            Person copy = (Person) super.clone();
+            copy.address = address == null ? null : address.copy();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Write the fields read by the snapshot constructor
+     */
+    protected void writeSnapshotFields(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(personId);
+        out.writeString(firstName);
+        out.writeString(lastName);
+        out.writeDate(dateOfBirth);
+        out.writeString(gender);
+        out.writeUniqueString(email);
+        out.writeUniqueString(phoneNumber);
+        Address.writeSnapshot(out, address);
+        out.writeDate(createdDate);
+    }
+
     /**
      * Generate unique person ID
      */
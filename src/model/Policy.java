@@ -1,16 +1,21 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import utils.IdGenerator;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Policy class
  * Represents an insurance policy with all details and calculations
  */
-public class Policy implements Serializable {
+public class Policy implements Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -64,6 +69,24 @@ public class Policy implements Serializable {
         }
     }
 
+    // Fields reported to the change listener
+    public enum ChangeType {
+        POLICY_NUMBER,
+        PATIENT_ID,
+        START_DATE,
+        EXPIRY_DATE,
+        STATUS
+    }
+
+    /**
+     * Listener notified after a tracked policy field changes
+     * Used by PolicyDirectory to keep its lookup indexes in sync.
+     * A change to several fields (renewal) is reported one field at a time.
+     */
+    public interface ChangeListener {
+        void policyChanged(Policy policy, ChangeType changeType, Object oldValue);
+    }
+
     // Properties
     private String policyNumber;
     private String patientId; // ID of the policyholder
@@ -79,6 +102,12 @@ public class Policy implements Serializable {
     private List<String> beneficiaries; // Names of beneficiaries
     private List<String> claimIds; // List of claim IDs for this policy
     private LocalDate createdDate;
+    private transient ChangeListener changeListener; // Owning directory, re-attached after load
+    private transient volatile long version; // Bumped on every change, see PolicyDirectory.updatePolicy
+
+    // Atomic increments of version: setters may run on several threads at once
+    private static final AtomicLongFieldUpdater<Policy> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Policy.class, "version");
 
     /**
      * Complete constructor
@@ -142,13 +171,75 @@ public class Policy implements Serializable {
         this.createdDate = LocalDate.now();
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Policy(SnapshotReader in) throws IOException {
+        this.policyNumber = in.readUniqueString();
+        this.patientId = in.readString();
+        this.policyType = in.readEnum(PolicyType.class);
+        this.policyStatus = in.readEnum(PolicyStatus.class);
+        this.coverageAmount = in.readDouble();
+        this.deductible = in.readDouble();
+        this.copayment = in.readDouble();
+        this.monthlyPremium = in.readDouble();
+        this.startDate = in.readDate();
+        this.expiryDate = in.readDate();
+        this.insuranceProviderId = in.readString();
+        this.beneficiaries = in.readStringList();
+        this.claimIds = in.readStringList();
+        this.createdDate = in.readDate();
+    }
+
+    /**
+     * Read a policy written by writeSnapshot
+     */
+    public static Policy readSnapshot(SnapshotReader in) throws IOException {
+        return new Policy(in);
+    }
+
+    /**
+     * Write this policy to a binary snapshot
+     * The policy number is written inline: it is unique per policy, so a
+     * dictionary entry would only pay off for the claims that refer to it.
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(policyNumber);
+        out.writeString(patientId);
+        out.writeEnum(policyType);
+        out.writeEnum(policyStatus);
+        out.writeDouble(coverageAmount);
+        out.writeDouble(deductible);
+        out.writeDouble(copayment);
+        out.writeDouble(monthlyPremium);
+        out.writeDate(startDate);
+        out.writeDate(expiryDate);
+        out.writeString(insuranceProviderId);
+        out.writeStringList(beneficiaries);
+        out.writeStringList(claimIds);
+        out.writeDate(createdDate);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own lists, no change listener
+     */
+    public Policy copy() {
+        try {
+            Policy copy = (Policy) super.clone();
+            copy.beneficiaries = beneficiaries == null ? null : new ArrayList<>(beneficiaries);
+            copy.claimIds = claimIds == null ? null : new ArrayList<>(claimIds);
+            copy.changeListener = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Generate unique policy number
      */
     private String generatePolicyNumber() {
-        int year = LocalDate.now().getYear();
-        int random = (int) (Math.random() * 100000);
-        return String.format("POL-%d-%05d", year, random);
+        return IdGenerator.nextId("POL", 5);
     }
 
     // Getters
@@ -208,53 +299,105 @@ public class Policy implements Serializable {
         return createdDate;
     }
 
+    /**
+     * Get the change version (starts at 0 when the policy is created or loaded)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
     // Setters
     public void setPolicyNumber(String policyNumber) {
+        String oldValue = this.policyNumber;
         this.policyNumber = policyNumber;
+        fireChange(ChangeType.POLICY_NUMBER, oldValue);
     }
 
     public void setPatientId(String patientId) {
+        String oldValue = this.patientId;
         this.patientId = patientId;
+        fireChange(ChangeType.PATIENT_ID, oldValue);
     }
 
     public void setPolicyType(PolicyType policyType) {
         this.policyType = policyType;
+        touch();
     }
 
     public void setPolicyStatus(PolicyStatus policyStatus) {
+        PolicyStatus oldValue = this.policyStatus;
         this.policyStatus = policyStatus;
+        fireChange(ChangeType.STATUS, oldValue);
     }
 
     public void setCoverageAmount(double coverageAmount) {
         this.coverageAmount = coverageAmount;
+        touch();
     }
 
     public void setDeductible(double deductible) {
         this.deductible = deductible;
+        touch();
     }
 
     public void setCopayment(double copayment) {
         this.copayment = copayment;
+        touch();
     }
 
     public void setMonthlyPremium(double monthlyPremium) {
         this.monthlyPremium = monthlyPremium;
+        touch();
     }
 
     public void setStartDate(LocalDate startDate) {
+        LocalDate oldValue = this.startDate;
         this.startDate = startDate;
+        fireChange(ChangeType.START_DATE, oldValue);
     }
 
     public void setExpiryDate(LocalDate expiryDate) {
+        LocalDate oldValue = this.expiryDate;
         this.expiryDate = expiryDate;
+        fireChange(ChangeType.EXPIRY_DATE, oldValue);
     }
 
     public void setInsuranceProviderId(String insuranceProviderId) {
         this.insuranceProviderId = insuranceProviderId;
+        touch();
     }
 
     public void setCreatedDate(LocalDate createdDate) {
         this.createdDate = createdDate;
+        touch();
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Notify the listener (if any) that a tracked field changed
+     */
+    private void fireChange(ChangeType changeType, Object oldValue) {
+        touch();
+        if (changeListener != null) {
+            changeListener.policyChanged(this, changeType, oldValue);
+        }
+    }
+
+    /**
+     * Bump the version after a change
+     * Atomic and done right after the field is written, before the listener
+     * waits for the directory lock, so a versioned update that read the
+     * version before the change always sees it as stale.
+     */
+    private void touch() {
+        VERSION.incrementAndGet(this);
     }
 
     /**
@@ -263,6 +406,7 @@ public class Policy implements Serializable {
     public void addBeneficiary(String beneficiaryName) {
         if (!beneficiaries.contains(beneficiaryName)) {
             beneficiaries.add(beneficiaryName);
+            touch();
         }
     }
 
@@ -270,7 +414,9 @@ public class Policy implements Serializable {
      * Remove beneficiary
      */
     public void removeBeneficiary(String beneficiaryName) {
-        beneficiaries.remove(beneficiaryName);
+        if (beneficiaries.remove(beneficiaryName)) {
+            touch();
+        }
     }
 
     /**
@@ -279,6 +425,7 @@ public class Policy implements Serializable {
     public void addClaim(String claimId) {
         if (!claimIds.contains(claimId)) {
             claimIds.add(claimId);
+            touch();
         }
     }
 
@@ -296,10 +443,16 @@ public class Policy implements Serializable {
      * Check if policy is currently active
      */
     public boolean isCurrentlyActive() {
-        LocalDate today = LocalDate.now();
+        return isActiveOn(LocalDate.now());
+    }
+
+    /**
+     * Check if policy is active on a date (ACTIVE and within its term)
+     */
+    public boolean isActiveOn(LocalDate date) {
         return policyStatus == PolicyStatus.ACTIVE &&
-                !today.isBefore(startDate) &&
-                !today.isAfter(expiryDate);
+                !date.isBefore(startDate) &&
+                !date.isAfter(expiryDate);
     }
 
     /**
@@ -324,14 +477,30 @@ public class Policy implements Serializable {
      */
     public void renewPolicyWithPremiumIncrease(int years, double increasePercent) {
         // Calculate new premium with increase
-        this.monthlyPremium = this.monthlyPremium * (1 + increasePercent / 100.0);
+        renewPolicyAtPremium(years, this.monthlyPremium * (1 + increasePercent / 100.0));
+    }
+
+    /**
+     * Renew policy at a premium already calculated (e.g. by a bulk renewal job)
+     *
+     * @param years          Number of years to renew for
+     * @param monthlyPremium New monthly premium
+     */
+    public void renewPolicyAtPremium(int years, double monthlyPremium) {
+        this.monthlyPremium = monthlyPremium;
 
-        // Update dates
+        // Update dates (one field per change notification)
+        LocalDate oldStartDate = this.startDate;
         this.startDate = this.expiryDate.plusDays(1);
+        fireChange(ChangeType.START_DATE, oldStartDate);
+        LocalDate oldExpiryDate = this.expiryDate;
         this.expiryDate = this.startDate.plusYears(years);
+        fireChange(ChangeType.EXPIRY_DATE, oldExpiryDate);
 
         // Set status to active
+        PolicyStatus oldStatus = this.policyStatus;
         this.policyStatus = PolicyStatus.ACTIVE;
+        fireChange(ChangeType.STATUS, oldStatus);
     }
 
     /**
@@ -348,14 +517,14 @@ public class Policy implements Serializable {
      * Cancel policy
      */
     public void cancelPolicy() {
-        this.policyStatus = PolicyStatus.CANCELLED;
+        setPolicyStatus(PolicyStatus.CANCELLED);
     }
 
     /**
      * Suspend policy
      */
     public void suspendPolicy() {
-        this.policyStatus = PolicyStatus.SUSPENDED;
+        setPolicyStatus(PolicyStatus.SUSPENDED);
     }
 
     /**
@@ -365,7 +534,7 @@ public class Policy implements Serializable {
         if (isExpired()) {
             throw new IllegalStateException("Cannot activate an expired policy. Please renew it first.");
         }
-        this.policyStatus = PolicyStatus.ACTIVE;
+        setPolicyStatus(PolicyStatus.ACTIVE);
     }
 
     /**
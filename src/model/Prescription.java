@@ -1,16 +1,20 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import utils.IdGenerator;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete Prescription class
  * Represents a medication prescription with refill tracking
  */
-public class Prescription implements Serializable {
+public class Prescription implements Serializable, Cloneable {
     
     private static final long serialVersionUID = 1L;
     
@@ -120,13 +124,73 @@ public class Prescription implements Serializable {
         this.policyNumber = "";
     }
     
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private Prescription(SnapshotReader in) throws IOException {
+        this.prescriptionNumber = in.readUniqueString();
+        this.patientId = in.readString();
+        this.doctorId = in.readString();
+        this.medicationId = in.readString();
+        this.dosage = in.readString();
+        this.quantity = in.readVarInt();
+        this.refillsRemaining = in.readVarInt();
+        this.refillsAuthorized = in.readVarInt();
+        this.instructions = in.readString();
+        this.prescribedDate = in.readDate();
+        this.expiryDate = in.readDate();
+        this.pharmacyId = in.readString();
+        this.status = in.readEnum(PrescriptionStatus.class);
+        this.refillDates = in.readDates();
+        this.policyNumber = in.readString();
+    }
+    
+    /**
+     * Read a prescription written by writeSnapshot
+     */
+    public static Prescription readSnapshot(SnapshotReader in) throws IOException {
+        return new Prescription(in);
+    }
+    
+    /**
+     * Write this prescription to a binary snapshot
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(prescriptionNumber);
+        out.writeString(patientId);
+        out.writeString(doctorId);
+        out.writeString(medicationId);
+        out.writeString(dosage);
+        out.writeVarInt(quantity);
+        out.writeVarInt(refillsRemaining);
+        out.writeVarInt(refillsAuthorized);
+        out.writeString(instructions);
+        out.writeDate(prescribedDate);
+        out.writeDate(expiryDate);
+        out.writeString(pharmacyId);
+        out.writeEnum(status);
+        out.writeDates(refillDates);
+        out.writeString(policyNumber);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own lists
+     */
+    public Prescription copy() {
+        try {
+            Prescription copy = (Prescription) super.clone();
+            copy.refillDates = refillDates == null ? null : new ArrayList<>(refillDates);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
     /**
      * Generate unique prescription number
      */
     private String generatePrescriptionNumber() {
-        int year = LocalDate.now().getYear();
-        int random = (int)(Math.random() * 1000000);
-        return String.format("RX-%d-%06d", year, random);
+        return IdGenerator.nextId("RX", 6);
     }
     
     // Getters
@@ -1,19 +1,37 @@
 package model;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import utils.SnapshotReader;
+import utils.SnapshotWriter;
 
 /**
  * Complete User class for authentication
  * Links to Person and stores login credentials
  */
-public class User implements Serializable {
+public class User implements Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
+    // Fields reported to the change listener
+    public enum ChangeType {
+        USER_ID,
+        USERNAME,
+        PERSON
+    }
+
+    /**
+     * Listener notified after a tracked user field changes
+     * Used by UserDirectory to keep its lookup indexes in sync
+     */
+    public interface ChangeListener {
+        void userChanged(User user, ChangeType changeType, Object oldValue);
+    }
+
     // Properties
     private String userId;
     private String username;
@@ -23,6 +41,7 @@ public class User implements Serializable {
     private boolean isActive;
     private LocalDateTime lastLogin;
     private LocalDateTime createdDate;
+    private transient ChangeListener changeListener; // Owning directory, re-attached after load
 
     /**
      * Complete constructor
@@ -52,6 +71,55 @@ public class User implements Serializable {
         this.createdDate = LocalDateTime.now();
     }
 
+    /**
+     * Snapshot constructor (see writeSnapshot)
+     */
+    private User(SnapshotReader in) throws IOException {
+        this.userId = in.readUniqueString();
+        this.username = in.readUniqueString();
+        this.passwordHash = in.readUniqueString();
+        this.role = in.readEnum(Role.class);
+        this.person = Person.readSnapshot(in);
+        this.isActive = in.readBoolean();
+        this.lastLogin = in.readDateTime();
+        this.createdDate = in.readDateTime();
+    }
+
+    /**
+     * Read a user written by writeSnapshot
+     */
+    public static User readSnapshot(SnapshotReader in) throws IOException {
+        return new User(in);
+    }
+
+    /**
+     * Write this user to a binary snapshot
+     */
+    public void writeSnapshot(SnapshotWriter out) throws IOException {
+        out.writeUniqueString(userId);
+        out.writeUniqueString(username);
+        out.writeUniqueString(passwordHash);
+        out.writeEnum(role);
+        Person.writeSnapshot(out, person);
+        out.writeBoolean(isActive);
+        out.writeDateTime(lastLogin);
+        out.writeDateTime(createdDate);
+    }
+
+    /**
+     * Detached copy for snapshots: same state, own person, no change listener
+     */
+    public User copy() {
+        try {
+            User copy = (User) super.clone();
+            copy.person = person == null ? null : person.copy();
+            copy.changeListener = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Generate unique user ID
      */
@@ -132,13 +200,21 @@ public class User implements Serializable {
         return createdDate;
     }
 
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
     // Setters
     public void setUserId(String userId) {
+        String oldValue = this.userId;
         this.userId = userId;
+        fireChange(ChangeType.USER_ID, oldValue);
     }
 
     public void setUsername(String username) {
+        String oldValue = this.username;
         this.username = username;
+        fireChange(ChangeType.USERNAME, oldValue);
     }
 
     public void setRole(Role role) {
@@ -146,7 +222,9 @@ public class User implements Serializable {
     }
 
     public void setPerson(Person person) {
+        Person oldValue = this.person;
         this.person = person;
+        fireChange(ChangeType.PERSON, oldValue);
     }
 
     public void setActive(boolean active) {
@@ -157,6 +235,19 @@ public class User implements Serializable {
         this.lastLogin = lastLogin;
     }
 
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Notify the listener (if any) that a tracked field changed
+     */
+    private void fireChange(ChangeType changeType, Object oldValue) {
+        if (changeListener != null) {
+            changeListener.userChanged(this, changeType, oldValue);
+        }
+    }
+
     /**
      * Deactivate user account
      */
@@ -142,52 +142,15 @@ public class BuyPolicyPanel extends javax.swing.JPanel {
             String policyType = (String) policyTypeComboBox.getSelectedItem();
 
             // Validate
-            if (coverageAmount <= 0 || coverageAmount > 10000000) {
-                showError("Coverage amount must be between $1 and $10,000,000");
-                return;
-            }
-            if (deductible < 0 || deductible >= coverageAmount) {
-                showError("Deductible must be non-negative and less than coverage amount");
-                return;
-            }
-            if (copayment < 0 || copayment >= 500) {
-                showError("Copayment must be between $0 and $500");
+            String error = business.PremiumRatingEngine.validateQuote(coverageAmount, deductible, copayment);
+            if (error != null) {
+                showError(error);
                 return;
             }
 
-            // Calculate base premium
-            double basePremium = 0;
-            switch (policyType) {
-                case "Individual HMO":
-                    basePremium = (coverageAmount * 0.03) / 12;
-                    break;
-                case "Individual PPO":
-                    basePremium = (coverageAmount * 0.045) / 12;
-                    break;
-                case "Family HMO":
-                    basePremium = (coverageAmount * 0.05) / 12;
-                    break;
-                case "Family PPO":
-                    basePremium = (coverageAmount * 0.07) / 12;
-                    break;
-                case "Group":
-                    basePremium = (coverageAmount * 0.04) / 12;
-                    break;
-                case "Medicare":
-                    basePremium = (coverageAmount * 0.02) / 12;
-                    break;
-                case "Medicaid":
-                    basePremium = (coverageAmount * 0.015) / 12;
-                    break;
-            }
-
-            // Apply adjustments
-            double monthlyPremium = basePremium - (deductible * 0.001) - (copayment * 0.5);
-
-            // Ensure minimum premium
-            if (monthlyPremium < 50) {
-                monthlyPremium = 50;
-            }
+            // Rate by type, less deductible and copay credits, with the $50 minimum
+            double monthlyPremium = business.PremiumRatingEngine.getInstance().monthlyPremium(
+                    getPolicyTypeEnum(policyType), coverageAmount, deductible, copayment);
 
             double annualPremium = monthlyPremium * 12;
 
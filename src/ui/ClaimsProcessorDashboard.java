@@ -5,6 +5,7 @@
 package ui;
 
 import business.SystemData;
+import business.UpdateResult;
 import model.*;
 import javax.swing.table.DefaultTableModel;
 import java.time.format.DateTimeFormatter;
@@ -20,6 +21,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
      */
     private SystemData systemData;
     private model.Claim selectedClaim;
+    private long selectedClaimVersion; // Version shown in the details, checked on approve/deny
 
     public ClaimsProcessorDashboard() {
         initComponents();
@@ -60,6 +62,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
         model.setRowCount(0);
 
         String filterStatus = (String) statusFilterComboBox.getSelectedItem();
+        business.PersonNameResolver nameResolver = systemData.getUserDirectory().getNameResolver();
 
         for (model.Claim claim : systemData.getClaimDirectory().getAllClaims()) {
             // Filter by status
@@ -70,11 +73,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
             }
 
             // Get patient name
-            String patientName = "Unknown";
-            model.User user = systemData.getUserDirectory().findUserByPersonId(claim.getPatientId());
-            if (user != null) {
-                patientName = user.getPerson().getFullName();
-            }
+            String patientName = nameResolver.resolveName(claim.getPatientId(), "Unknown");
 
             Object[] row = new Object[6];
             row[0] = claim.getClaimNumber();
@@ -97,6 +96,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
         selectedClaim = systemData.getClaimDirectory().findClaimByNumber(claimNumber);
 
         if (selectedClaim != null) {
+            selectedClaimVersion = selectedClaim.getVersion();
             claimNumberField.setText(selectedClaim.getClaimNumber());
             policyNumberField.setText(selectedClaim.getPolicyNumber());
             serviceDateField.setText(selectedClaim.getServiceDate().format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
@@ -106,9 +106,10 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
             claimAmountField.setText(String.format("$%.2f", selectedClaim.getClaimAmount()));
 
             // Get patient name
-            model.User user = systemData.getUserDirectory().findUserByPersonId(selectedClaim.getPatientId());
-            if (user != null) {
-                patientNameField.setText(user.getPerson().getFullName());
+            String patientName = systemData.getUserDirectory().getNameResolver()
+                    .resolveName(selectedClaim.getPatientId());
+            if (patientName != null) {
+                patientNameField.setText(patientName);
             }
 
             // Load existing review notes
@@ -156,12 +157,15 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
                 }
             }
 
-            // Update claim
-            selectedClaim.setApprovedAmount(approvedAmount);
-            selectedClaim.setClaimStatus(model.Claim.ClaimStatus.APPROVED);
-            selectedClaim.setReviewNotes(reviewNotesTextArea.getText());
-            selectedClaim.setProcessorId(systemData.getCurrentUser().getPerson().getPersonId());
-            selectedClaim.setProcessedDate(java.time.LocalDate.now());
+            // Update claim through the directory so its indexes stay current
+            // Rejected if another processor changed the claim since it was loaded
+            UpdateResult result = systemData.getClaimDirectory().approveClaim(selectedClaim.getClaimNumber(),
+                    selectedClaimVersion, approvedAmount, systemData.getCurrentUser().getPerson().getPersonId(),
+                    reviewNotesTextArea.getText());
+            if (!result.isUpdated()) {
+                showUpdateFailure(result, "approved", "Cannot Approve");
+                return;
+            }
 
             javax.swing.JOptionPane.showMessageDialog(this,
                     "Claim approved successfully!\nClaim Number: " + selectedClaim.getClaimNumber()
@@ -199,12 +203,14 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
                 javax.swing.JOptionPane.YES_NO_OPTION);
 
         if (confirm == javax.swing.JOptionPane.YES_OPTION) {
-            // Update claim
-            selectedClaim.setClaimStatus(model.Claim.ClaimStatus.DENIED);
-            selectedClaim.setReviewNotes(reviewNotes);
-            selectedClaim.setProcessorId(systemData.getCurrentUser().getPerson().getPersonId());
-            selectedClaim.setProcessedDate(java.time.LocalDate.now());
-            selectedClaim.setApprovedAmount(0.0);
+            // Update claim through the directory so its indexes stay current
+            // Rejected if another processor changed the claim since it was loaded
+            UpdateResult result = systemData.getClaimDirectory().denyClaim(selectedClaim.getClaimNumber(),
+                    selectedClaimVersion, systemData.getCurrentUser().getPerson().getPersonId(), reviewNotes);
+            if (!result.isUpdated()) {
+                showUpdateFailure(result, "denied", "Cannot Deny");
+                return;
+            }
 
             javax.swing.JOptionPane.showMessageDialog(this,
                     "Claim denied.\nClaim Number: " + selectedClaim.getClaimNumber(),
@@ -217,6 +223,122 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
         }
     }
 
+    /**
+     * Explain a failed approve/deny; on a conflict, reload the latest claim data
+     */
+    private void showUpdateFailure(UpdateResult result, String action, String title) {
+        if (result == UpdateResult.CONFLICT) {
+            javax.swing.JOptionPane.showMessageDialog(this,
+                    "This claim was changed by another processor after you opened it.\nCurrent status: "
+                            + selectedClaim.getClaimStatus().getDisplayName()
+                            + "\n\nThe claim list has been refreshed. Please review the claim again.",
+                    "Claim Changed", javax.swing.JOptionPane.WARNING_MESSAGE);
+            refreshTable();
+            return;
+        }
+        javax.swing.JOptionPane.showMessageDialog(this,
+                "This claim can no longer be " + action + ".\nCurrent status: "
+                        + selectedClaim.getClaimStatus().getDisplayName(),
+                title, javax.swing.JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Run the adjudication engine on all pending claims in the background
+     */
+    private void autoAdjudicatePendingClaims() {
+        int pendingCount = systemData.getClaimDirectory().getPendingClaims().size();
+        if (pendingCount == 0) {
+            javax.swing.JOptionPane.showMessageDialog(this, "There are no pending claims to adjudicate.",
+                    "No Pending Claims", javax.swing.JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int confirm = javax.swing.JOptionPane.showConfirmDialog(this,
+                "Automatically approve or deny " + pendingCount + " pending claims?\n"
+                        + "Claims above the auto-approve limit stay pending for manual review.",
+                "Confirm Auto-Adjudication",
+                javax.swing.JOptionPane.YES_NO_OPTION);
+        if (confirm != javax.swing.JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        autoAdjudicateButton.setEnabled(false);
+        setCursor(java.awt.Cursor.getPredefinedCursor(java.awt.Cursor.WAIT_CURSOR));
+        new javax.swing.SwingWorker<business.AdjudicationReport, Void>() {
+            @Override
+            protected business.AdjudicationReport doInBackground() {
+                return new business.ClaimAdjudicationEngine().adjudicatePending();
+            }
+
+            @Override
+            protected void done() {
+                setCursor(java.awt.Cursor.getDefaultCursor());
+                autoAdjudicateButton.setEnabled(true);
+                try {
+                    business.AdjudicationReport report = get();
+                    javax.swing.JOptionPane.showMessageDialog(ClaimsProcessorDashboard.this,
+                            "Auto-adjudication complete\n\n"
+                                    + "Approved: " + report.getApprovedCount()
+                                    + String.format(" ($%,.2f)", report.getTotalApprovedAmount())
+                                    + "\nDenied: " + report.getDeniedCount()
+                                    + "\nLeft for manual review: " + report.getReferredCount()
+                                    + "\nSkipped (changed during run): " + report.getSkippedCount()
+                                    + String.format("\n\nThroughput: %,.0f claims/sec", report.getClaimsPerSecond()),
+                            "Auto-Adjudication", javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    javax.swing.JOptionPane.showMessageDialog(ClaimsProcessorDashboard.this,
+                            "Auto-adjudication failed: " + e.getMessage(), "Error",
+                            javax.swing.JOptionPane.ERROR_MESSAGE);
+                }
+                refreshTable();
+            }
+        }.execute();
+    }
+
+    /**
+     * Ingest a folder of claim documents in the background and show the report
+     */
+    private void importClaimDocuments() {
+        javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+        chooser.setFileSelectionMode(javax.swing.JFileChooser.DIRECTORIES_ONLY);
+        chooser.setDialogTitle("Select Folder of Claim Documents or Batch Files");
+        if (chooser.showOpenDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path directory = chooser.getSelectedFile().toPath();
+
+        importDocumentsButton.setEnabled(false);
+        setCursor(java.awt.Cursor.getPredefinedCursor(java.awt.Cursor.WAIT_CURSOR));
+        new javax.swing.SwingWorker<business.IngestionReport, Void>() {
+            @Override
+            protected business.IngestionReport doInBackground() throws java.io.IOException {
+                return new business.ClaimIngestionService().ingestDirectory(directory);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(java.awt.Cursor.getDefaultCursor());
+                importDocumentsButton.setEnabled(true);
+                try {
+                    business.IngestionReport report = get();
+                    javax.swing.JOptionPane.showMessageDialog(ClaimsProcessorDashboard.this,
+                            "Document import complete\n\n"
+                                    + "Documents: " + report.getFileCount()
+                                    + "\nClaims created: " + report.getSuccessCount()
+                                    + "\nRejected: " + report.getFailureCount()
+                                    + String.format("\n\nThroughput: %,.0f docs/sec", report.getDocumentsPerSecond())
+                                    + "\nReport: " + report.getReportFile(),
+                            "Import Documents", javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    javax.swing.JOptionPane.showMessageDialog(ClaimsProcessorDashboard.this,
+                            "Document import failed: " + e.getMessage(), "Error",
+                            javax.swing.JOptionPane.ERROR_MESSAGE);
+                }
+                refreshTable();
+            }
+        }.execute();
+    }
+
     private void refreshTable() {
         loadClaimsTable();
         clearDetails();
@@ -258,6 +380,8 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
         jLabel4 = new javax.swing.JLabel();
         statusFilterComboBox = new javax.swing.JComboBox<>();
         refreshButton = new javax.swing.JButton();
+        autoAdjudicateButton = new javax.swing.JButton();
+        importDocumentsButton = new javax.swing.JButton();
         jScrollPane1 = new javax.swing.JScrollPane();
         claimsTable = new javax.swing.JTable();
         detailsPanel = new javax.swing.JPanel();
@@ -312,6 +436,20 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
             }
         });
 
+        autoAdjudicateButton.setText("Auto-Adjudicate Pending");
+        autoAdjudicateButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                autoAdjudicateButtonActionPerformed(evt);
+            }
+        });
+
+        importDocumentsButton.setText("Import Documents...");
+        importDocumentsButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                importDocumentsButtonActionPerformed(evt);
+            }
+        });
+
         claimsTable.setModel(new javax.swing.table.DefaultTableModel(
                 new Object[][] {
                         { null, null, null, null, null, null },
@@ -353,7 +491,13 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
                                                                         javax.swing.GroupLayout.PREFERRED_SIZE)
                                                                 .addPreferredGap(
                                                                         javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
-                                                                .addComponent(refreshButton))))
+                                                                .addComponent(refreshButton)
+                                                                .addPreferredGap(
+                                                                        javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                                                .addComponent(autoAdjudicateButton)
+                                                                .addPreferredGap(
+                                                                        javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                                                .addComponent(importDocumentsButton))))
                                         .addGroup(queuePanelLayout.createSequentialGroup()
                                                 .addGap(12, 12, 12)
                                                 .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 734,
@@ -371,7 +515,9 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
                                         .addComponent(statusFilterComboBox, javax.swing.GroupLayout.PREFERRED_SIZE,
                                                 javax.swing.GroupLayout.DEFAULT_SIZE,
                                                 javax.swing.GroupLayout.PREFERRED_SIZE)
-                                        .addComponent(refreshButton))
+                                        .addComponent(refreshButton)
+                                        .addComponent(autoAdjudicateButton)
+                                        .addComponent(importDocumentsButton))
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 185, Short.MAX_VALUE)
                                 .addContainerGap()));
@@ -763,6 +909,14 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
         refreshTable();
     }// GEN-LAST:event_refreshButtonActionPerformed
 
+    private void autoAdjudicateButtonActionPerformed(java.awt.event.ActionEvent evt) {// GEN-FIRST:event_autoAdjudicateButtonActionPerformed
+        autoAdjudicatePendingClaims();
+    }// GEN-LAST:event_autoAdjudicateButtonActionPerformed
+
+    private void importDocumentsButtonActionPerformed(java.awt.event.ActionEvent evt) {// GEN-FIRST:event_importDocumentsButtonActionPerformed
+        importClaimDocuments();
+    }// GEN-LAST:event_importDocumentsButtonActionPerformed
+
     private void claimNumberFieldActionPerformed(java.awt.event.ActionEvent evt) {// GEN-FIRST:event_claimNumberFieldActionPerformed
         // TODO add your handling code here:
     }// GEN-LAST:event_claimNumberFieldActionPerformed
@@ -770,6 +924,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton approveButton;
     private javax.swing.JTextField approvedAmountField;
+    private javax.swing.JButton autoAdjudicateButton;
     private javax.swing.JTextField claimAmountField;
     private javax.swing.JTextField claimNumberField;
     private javax.swing.JTable claimsTable;
@@ -777,6 +932,7 @@ public class ClaimsProcessorDashboard extends javax.swing.JPanel {
     private javax.swing.JButton denyButton;
     private javax.swing.JPanel detailsPanel;
     private javax.swing.JTextField diagnosisField;
+    private javax.swing.JButton importDocumentsButton;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel10;
     private javax.swing.JLabel jLabel11;
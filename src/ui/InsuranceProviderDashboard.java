@@ -34,6 +34,9 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
                 loadRecentActivity();
                 initializePolicyTypeCombo();
 
+                // Eligibility checks share the system-wide EligibilityService cache
+                jTabbedPane1.addTab("Verify Eligibility", new VerifyInsuranceEligibilityPanel());
+
                 // Add Action Listeners manually (using verbose syntax for compatibility)
 
                 // 1. Active Policy Tab Buttons
@@ -104,30 +107,16 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
                 business.SystemData systemData = business.SystemData.getInstance();
 
                 // Get counts
-                int totalClaims = systemData.getTotalClaimCount();
+                business.ClaimStatistics claimStats = systemData.getClaimDirectory().getStatistics();
+                int totalClaims = claimStats.getTotalClaimCount();
                 int pendingClaims = systemData.getClaimDirectory()
                                 .getClaimCountByStatus(model.Claim.ClaimStatus.SUBMITTED);
                 int activePolicies = systemData.getPolicyDirectory().getActivePolicyCount();
 
-                // Calculate processed today (claims processed today - approved/denied/paid)
-                java.time.LocalDate today = java.time.LocalDate.now();
-                long processedToday = systemData.getClaimDirectory().getAllClaims().stream()
-                                .filter(c -> c.getProcessedDate() != null && c.getProcessedDate().equals(today))
-                                .count();
-
-                // Calculate total payouts
-                double totalPayouts = systemData.getClaimDirectory().getAllClaims().stream()
-                                .filter(c -> c.getClaimStatus() == model.Claim.ClaimStatus.APPROVED ||
-                                                c.getClaimStatus() == model.Claim.ClaimStatus.PAID)
-                                .mapToDouble(model.Claim::getApprovedAmount)
-                                .sum();
-
-                // Calculate approval rate
-                long approvedCount = systemData.getClaimDirectory().getAllClaims().stream()
-                                .filter(c -> c.getClaimStatus() == model.Claim.ClaimStatus.APPROVED ||
-                                                c.getClaimStatus() == model.Claim.ClaimStatus.PAID)
-                                .count();
-                double approvalRate = totalClaims > 0 ? (approvedCount * 100.0 / totalClaims) : 0;
+                // Claims processed today, total payouts and approval rate are kept as running counters
+                int processedToday = claimStats.getProcessedTodayCount();
+                double totalPayouts = claimStats.getTotalApprovedAmount();
+                double approvalRate = claimStats.getApprovalRate();
 
                 // Update stat card labels (create value labels dynamically)
                 updateStatCard(totalClaimsCard, String.valueOf(totalClaims));
@@ -181,13 +170,8 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
 
                 java.time.LocalDate today = java.time.LocalDate.now();
 
+                // Read-only: expiry is handled by business.PolicyLifecycleService
                 for (model.Policy policy : allPolicies) {
-                        // Auto-expire policies
-                        if (policy.getExpiryDate().isBefore(today)
-                                        && policy.getPolicyStatus() == model.Policy.PolicyStatus.ACTIVE) {
-                                policy.setPolicyStatus(model.Policy.PolicyStatus.EXPIRED);
-                        }
-
                         // Get patient name
                         String patientName = getPatientName(policy.getPatientId());
 
@@ -260,13 +244,11 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
                         return "Test Patient (" + patientId + ")";
                 }
 
-                // Try to find user by searching UserDirectory
+                // Resolve through the shared person/patient ID index
                 business.SystemData systemData = business.SystemData.getInstance();
-                for (model.User user : systemData.getUserDirectory().getAllUsers()) {
-                        if (user.getPerson() != null &&
-                                        user.getPerson().getPersonId().equals(patientId)) {
-                                return user.getPerson().getFullName();
-                        }
+                String name = systemData.getUserDirectory().getNameResolver().resolveName(patientId);
+                if (name != null) {
+                        return name;
                 }
                 return "Unknown (" + (patientId != null ? patientId : "N/A") + ")";
         }
@@ -1059,6 +1041,7 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
         }
 
         private void managePolicy(model.Policy policy) {
+                long version = policy.getVersion(); // Values shown in the dialog
                 javax.swing.JTextField coverageField = new javax.swing.JTextField(
                                 String.valueOf(policy.getCoverageAmount()));
                 javax.swing.JTextField premiumField = new javax.swing.JTextField(
@@ -1083,13 +1066,28 @@ public class InsuranceProviderDashboard extends javax.swing.JPanel {
                                 model.Policy.PolicyStatus newStatus = (model.Policy.PolicyStatus) statusCombo
                                                 .getSelectedItem();
 
-                                policy.setCoverageAmount(newCoverage);
-                                policy.setMonthlyPremium(newPremium);
-                                policy.setPolicyStatus(newStatus);
+                                // Rejected if the policy changed while the dialog was open
+                                business.UpdateResult result = business.SystemData.getInstance().getPolicyDirectory()
+                                                .updatePolicy(policy.getPolicyNumber(), version, p -> {
+                                                        p.setCoverageAmount(newCoverage);
+                                                        p.setMonthlyPremium(newPremium);
+                                                        p.setPolicyStatus(newStatus);
+                                                });
 
                                 loadActivePolicies();
                                 loadDashboardStats();
-                                javax.swing.JOptionPane.showMessageDialog(this, "Policy updated successfully!");
+                                if (result == business.UpdateResult.CONFLICT) {
+                                        javax.swing.JOptionPane.showMessageDialog(this,
+                                                        "This policy was changed by someone else while you were editing it.\n"
+                                                                        + "Your changes were not saved. Please reopen the policy and try again.",
+                                                        "Policy Changed", javax.swing.JOptionPane.WARNING_MESSAGE);
+                                } else if (!result.isUpdated()) {
+                                        javax.swing.JOptionPane.showMessageDialog(this,
+                                                        "Policy could not be updated: " + result.getDisplayName(), "Error",
+                                                        javax.swing.JOptionPane.ERROR_MESSAGE);
+                                } else {
+                                        javax.swing.JOptionPane.showMessageDialog(this, "Policy updated successfully!");
+                                }
 
                         } catch (NumberFormatException e) {
                                 javax.swing.JOptionPane.showMessageDialog(this, "Invalid number format.", "Error",
@@ -10,16 +10,26 @@ package ui;
  */
 public class MainApplicationFrame extends javax.swing.JFrame {
 
+    private business.AutosaveService autosaveService; // null until data is known to match the saved file
+    private business.PolicyLifecycleService policyLifecycleService;
+    private boolean exiting;
+
     /**
      * Creates new form MainApplicationFrame
      */
     public MainApplicationFrame() {
         initComponents();
         setLocationRelativeTo(null);
+        // Exit is handled by saveDataOnExit, which may cancel or finish saving first
+        setDefaultCloseOperation(javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE);
 
         // Try to load saved data
         loadSavedData();
 
+        // Expire policies and queue renewal notices in the background
+        policyLifecycleService = new business.PolicyLifecycleService();
+        policyLifecycleService.start();
+
         // Add LoginPanel
         LoginPanel loginPanel = new LoginPanel();
         mainContainerPanel.add(loginPanel, "loginPanel");
@@ -36,9 +46,14 @@ public class MainApplicationFrame extends javax.swing.JFrame {
 
     /**
      * Load saved data on startup
+     * The journal is only started when the in-memory data matches the saved
+     * snapshot (loaded, nothing saved yet, or the old files moved aside for
+     * fresh data), so replay always has the right base.
      */
     private void loadSavedData() {
-        if (business.SystemData.hasSavedData()) {
+        if (!business.SystemData.hasSavedData()) {
+            startJournalAndAutosave();
+        } else {
             int response = javax.swing.JOptionPane.showConfirmDialog(this,
                     "Found saved data from previous session.\n\n" +
                             "Do you want to load it?\n\n" +
@@ -50,6 +65,10 @@ public class MainApplicationFrame extends javax.swing.JFrame {
             if (response == javax.swing.JOptionPane.YES_OPTION) {
                 business.SystemData loadedData = business.SystemData.loadFromFile();
                 if (loadedData != null) {
+                    loadedData.startJournal();
+                    loadedData.preloadInBackground();
+                    startAutosave();
+                    resumeRenewalJob();
                     javax.swing.JOptionPane.showMessageDialog(this,
                             "Data loaded successfully!\n\n" +
                                     "File size: " + utils.FileHandler.getFormattedFileSize(),
@@ -60,15 +79,45 @@ public class MainApplicationFrame extends javax.swing.JFrame {
                             "Failed to load saved data.\n\nStarting with fresh data.",
                             "Load Failed",
                             javax.swing.JOptionPane.WARNING_MESSAGE);
+                    startFresh();
                 }
+            } else {
+                startFresh();
             }
         }
     }
 
+    /**
+     * Start with fresh data: move the saved data and its journal aside first,
+     * so they are never replayed onto this session's data
+     */
+    private void startFresh() {
+        if (utils.FileHandler.archiveSavedData()) {
+            startJournalAndAutosave();
+        } else {
+            javax.swing.JOptionPane.showMessageDialog(this,
+                    "Could not move the previous data aside.\n\n"
+                            + "Saving is off for this session; the previous data is kept unchanged.",
+                    "Saving Disabled",
+                    javax.swing.JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private void startJournalAndAutosave() {
+        business.SystemData.getInstance().startJournal();
+        startAutosave();
+    }
+
     /**
      * Save data on application exit
+     * The final save and the service shutdown run on a background thread so
+     * the window stays responsive; changes since the last autosave are
+     * discarded on 'No'.
      */
     private void saveDataOnExit() {
+        if (exiting) {
+            return;
+        }
         business.SystemData systemData = business.SystemData.getInstance();
 
         int response = javax.swing.JOptionPane.showConfirmDialog(this,
@@ -77,30 +126,106 @@ public class MainApplicationFrame extends javax.swing.JFrame {
                 javax.swing.JOptionPane.YES_NO_CANCEL_OPTION,
                 javax.swing.JOptionPane.QUESTION_MESSAGE);
 
-        if (response == javax.swing.JOptionPane.CANCEL_OPTION) {
+        if (response != javax.swing.JOptionPane.YES_OPTION
+                && response != javax.swing.JOptionPane.NO_OPTION) {
             // Cancel exit
             return;
         }
+        exiting = true;
+        boolean save = response == javax.swing.JOptionPane.YES_OPTION;
 
-        if (response == javax.swing.JOptionPane.YES_OPTION) {
-            boolean saved = systemData.saveToFile();
-            if (saved) {
-                javax.swing.JOptionPane.showMessageDialog(this,
-                        "Data saved successfully!\n\n" +
-                                "File: healthguard360_data.dat\n" +
-                                "Size: " + utils.FileHandler.getFormattedFileSize(),
-                        "Data Saved",
-                        javax.swing.JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                javax.swing.JOptionPane.showMessageDialog(this,
-                        "Failed to save data!",
-                        "Save Failed",
-                        javax.swing.JOptionPane.ERROR_MESSAGE);
+        setCursor(java.awt.Cursor.getPredefinedCursor(java.awt.Cursor.WAIT_CURSOR));
+        new javax.swing.SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                stopPolicyLifecycle();
+                if (!save) {
+                    stopAutosave();
+                    // Drop journaled changes made after the last save
+                    systemData.stopJournal(true);
+                    return false;
+                }
+                // No autosave service means saving is off (see startFresh)
+                boolean saved = autosaveService != null && autosaveService.saveNow();
+                stopAutosave();
+                // Keep journaled changes; a failed save can still be replayed
+                systemData.stopJournal(false);
+                return saved;
             }
+
+            @Override
+            protected void done() {
+                if (!save) {
+                    System.exit(0);
+                }
+                boolean saved;
+                try {
+                    saved = get();
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    saved = false;
+                }
+                if (saved) {
+                    javax.swing.JOptionPane.showMessageDialog(MainApplicationFrame.this,
+                            "Data saved successfully!\n\n" +
+                                    "File: healthguard360_data.dat\n" +
+                                    "Size: " + utils.FileHandler.getFormattedFileSize(),
+                            "Data Saved",
+                            javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    javax.swing.JOptionPane.showMessageDialog(MainApplicationFrame.this,
+                            "Failed to save data!",
+                            "Save Failed",
+                            javax.swing.JOptionPane.ERROR_MESSAGE);
+                }
+
+                // Exit application
+                System.exit(0);
+            }
+        }.execute();
+    }
+
+    /**
+     * Start background autosave (only while the journal runs, so a saved
+     * file is never overwritten without checkpointing its journal)
+     */
+    private void startAutosave() {
+        autosaveService = new business.AutosaveService();
+        autosaveService.start();
+    }
+
+    /**
+     * Finish a bulk renewal interrupted by a crash, in the background
+     * Only called once the saved data (and its journal) is loaded, since the
+     * checkpoint describes that data.
+     */
+    private void resumeRenewalJob() {
+        if (!business.PolicyRenewalJob.hasCheckpoint()) {
+            return;
         }
+        Thread thread = new Thread(() -> {
+            try {
+                business.PolicyRenewalJob job = business.PolicyRenewalJob.fromCheckpoint();
+                if (job != null) {
+                    job.run(null);
+                }
+            } catch (java.io.IOException | RuntimeException e) {
+                System.err.println("❌ Could not resume bulk renewal: " + e.getMessage());
+            }
+        }, "healthguard360-renewal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void stopPolicyLifecycle() {
+        policyLifecycleService.stop();
+        System.out.println("ℹ️ " + policyLifecycleService.getMetricsSummary());
+    }
 
-        // Exit application
-        System.exit(0);
+    private void stopAutosave() {
+        if (autosaveService != null) {
+            autosaveService.stop();
+            System.out.println("ℹ️ " + autosaveService.getMetricsSummary());
+        }
     }
 
     /**
@@ -227,14 +227,16 @@ public class ManageEmployeesPanel extends javax.swing.JPanel {
 
             // Add employee ID to organization (only if not enterprise-level)
             if (!isEnterpriseLevel && organization != null) {
-                organization.addEmployee(employee.getEmployeeId());
+                systemData.getOrganizationDirectory().addEmployeeToOrganization(organization.getOrganizationId(),
+                        employee.getEmployeeId());
             } else {
                 // For enterprise-level roles, add to enterprise's employee list
-                enterprise.addEmployee(employee.getEmployeeId());
+                systemData.getEnterpriseDirectory().addEmployeeToEnterprise(enterprise.getEnterpriseId(),
+                        employee.getEmployeeId());
             }
 
             // Update user's person to be an employee
-            user.setPerson(employee);
+            systemData.getUserDirectory().assignPerson(user.getUserId(), employee);
 
             // Success message
             String assignmentLevel = isEnterpriseLevel ? "Enterprise: " + enterprise.getEnterpriseName()
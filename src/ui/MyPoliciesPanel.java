@@ -83,6 +83,20 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                 System.out.println("=== loadPolicies() complete ===");
         }
 
+        /**
+         * Show coverage and deductible with what is used so far this term (ledger read)
+         */
+        private void showBalance(model.Policy policy) {
+                business.PolicyBalance balance = business.SystemData.getInstance().getClaimDirectory()
+                                .getPolicyBalance(policy);
+                coverageAmountValueLabel.setText(policy.getFormattedCoverageAmount() + " ("
+                                + balance.getFormattedRemainingCoverage() + ")");
+                deductibleValueLabel.setText(policy.getFormattedDeductible() + String.format(" ($%,.2f met)",
+                                balance.getDeductibleMet()));
+                deductibleValueLabel.setToolTipText(String.format("Out-of-pocket so far: $%,.2f",
+                                balance.getOutOfPocket()));
+        }
+
         /**
          * This method is called from within the constructor to initialize the form.
          * WARNING: Do NOT modify this code. The content of this method is always
@@ -569,11 +583,8 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                                 return;
                         }
 
-                        // Step 5: Execute renewal
-                        selectedPolicy.renewPolicy(years);
-
-                        // Save changes to PolicyDirectory
-                        systemData.getPolicyDirectory().updatePolicy(selectedPolicy);
+                        // Step 5: Execute renewal through PolicyDirectory
+                        systemData.getPolicyDirectory().renewPolicy(selectedPolicy.getPolicyNumber(), years);
 
                         // Step 6: Success notification and UI refresh
                         javax.swing.JOptionPane.showMessageDialog(this,
@@ -592,8 +603,7 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                         // Update the detail panel with new information
                         policyNumberValueLabel.setText(selectedPolicy.getPolicyNumber());
                         policyTypeValueLabel.setText(selectedPolicy.getPolicyType().getDisplayName());
-                        coverageAmountValueLabel.setText(selectedPolicy.getFormattedCoverageAmount());
-                        deductibleValueLabel.setText(selectedPolicy.getFormattedDeductible());
+                        showBalance(selectedPolicy);
                         copaymentValueLabel.setText(selectedPolicy.getFormattedCopayment());
                         premiumValueLabel.setText(selectedPolicy.getFormattedMonthlyPremium());
                         startDateValueLabel.setText(selectedPolicy.getFormattedStartDate());
@@ -682,11 +692,8 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                                 return;
                         }
 
-                        // Step 4: Execute cancellation
-                        selectedPolicy.cancelPolicy();
-
-                        // Save changes to PolicyDirectory
-                        systemData.getPolicyDirectory().updatePolicy(selectedPolicy);
+                        // Step 4: Execute cancellation through PolicyDirectory
+                        systemData.getPolicyDirectory().cancelPolicy(selectedPolicy.getPolicyNumber());
 
                         // Step 5: Success notification and UI refresh
                         javax.swing.JOptionPane.showMessageDialog(this,
@@ -704,8 +711,7 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                         // Update the detail panel with new information
                         policyNumberValueLabel.setText(selectedPolicy.getPolicyNumber());
                         policyTypeValueLabel.setText(selectedPolicy.getPolicyType().getDisplayName());
-                        coverageAmountValueLabel.setText(selectedPolicy.getFormattedCoverageAmount());
-                        deductibleValueLabel.setText(selectedPolicy.getFormattedDeductible());
+                        showBalance(selectedPolicy);
                         copaymentValueLabel.setText(selectedPolicy.getFormattedCopayment());
                         premiumValueLabel.setText(selectedPolicy.getFormattedMonthlyPremium());
                         startDateValueLabel.setText(selectedPolicy.getFormattedStartDate());
@@ -744,8 +750,7 @@ public class MyPoliciesPanel extends javax.swing.JPanel {
                                 // Update all detail labels with real data
                                 policyNumberValueLabel.setText(selectedPolicy.getPolicyNumber());
                                 policyTypeValueLabel.setText(selectedPolicy.getPolicyType().getDisplayName());
-                                coverageAmountValueLabel.setText(selectedPolicy.getFormattedCoverageAmount());
-                                deductibleValueLabel.setText(selectedPolicy.getFormattedDeductible());
+                                showBalance(selectedPolicy);
                                 copaymentValueLabel.setText(selectedPolicy.getFormattedCopayment());
                                 premiumValueLabel.setText(selectedPolicy.getFormattedMonthlyPremium());
                                 startDateValueLabel.setText(selectedPolicy.getFormattedStartDate());
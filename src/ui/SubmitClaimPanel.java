@@ -497,6 +497,26 @@ public class SubmitClaimPanel extends javax.swing.JPanel {
 
         // Get SystemData and submit claim
         business.SystemData systemData = business.SystemData.getInstance();
+
+        // Warn about an identical earlier submission (e.g. the same document uploaded twice)
+        java.util.List<model.Claim> duplicates = systemData.findPossibleDuplicateClaims(policyNumber,
+                serviceDateParsed, providerName, serviceType, claimAmount);
+        if (!duplicates.isEmpty()) {
+            model.Claim existing = duplicates.get(0);
+            int confirm = javax.swing.JOptionPane.showConfirmDialog(this,
+                    "This looks like a claim you already submitted:\n\n" +
+                            "Claim Number: " + existing.getClaimNumber() + "\n" +
+                            "Submitted: " + existing.getFormattedSubmittedDate() + "\n" +
+                            "Status: " + existing.getClaimStatus().getDisplayName() + "\n\n" +
+                            "Submit this claim anyway?",
+                    "Possible Duplicate Claim",
+                    javax.swing.JOptionPane.YES_NO_OPTION,
+                    javax.swing.JOptionPane.WARNING_MESSAGE);
+            if (confirm != javax.swing.JOptionPane.YES_OPTION) {
+                return;
+            }
+        }
+
         model.Claim newClaim = systemData.submitClaim(policyNumber, serviceDateParsed, providerName,
                 diagnosis, serviceType, claimAmount);
 
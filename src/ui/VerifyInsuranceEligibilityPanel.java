@@ -10,11 +10,109 @@ package ui;
  */
 public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
 
+    private String selectedPatientId;
+
     /**
      * Creates new form VerifyInsuranceEligibilityPanel
      */
     public VerifyInsuranceEligibilityPanel() {
         initComponents();
+        clearResults();
+        addActionListeners();
+    }
+
+    /**
+     * Add action listeners
+     */
+    private void addActionListeners() {
+        // patientIdTextField (Enter) is handled by the form's listener
+        searchButton.addActionListener(evt -> searchPatient());
+        verifyButton.addActionListener(evt -> verifyCoverage());
+        clearButton.addActionListener(evt -> {
+            patientIdTextField.setText("");
+            clearResults();
+        });
+    }
+
+    /**
+     * Look up the patient and show their coverage for today
+     */
+    private void searchPatient() {
+        String patientId = patientIdTextField.getText().trim();
+        if (patientId.isEmpty()) {
+            javax.swing.JOptionPane.showMessageDialog(this, "Please enter a Patient ID", "Validation Error",
+                    javax.swing.JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        clearResults();
+        selectedPatientId = patientId;
+        String name = business.SystemData.getInstance().getUserDirectory().getNameResolver().resolveName(patientId);
+        selectedPatientLabel.setText("Selected: " + (name != null ? name : "Unknown") + " (" + patientId + ")");
+        verifyButton.setEnabled(true);
+        showEligibility(business.EligibilityService.getInstance().check(patientId, model.Claim.ServiceType.DOCTOR_VISIT,
+                java.time.LocalDate.now()), model.Claim.ServiceType.DOCTOR_VISIT);
+    }
+
+    /**
+     * Check the selected patient for a chosen service type today
+     */
+    private void verifyCoverage() {
+        if (selectedPatientId == null) {
+            return;
+        }
+        model.Claim.ServiceType serviceType = (model.Claim.ServiceType) javax.swing.JOptionPane.showInputDialog(this,
+                "Select the service to verify:", "Verify Coverage", javax.swing.JOptionPane.QUESTION_MESSAGE,
+                null, model.Claim.ServiceType.values(), model.Claim.ServiceType.DOCTOR_VISIT);
+        if (serviceType == null) {
+            return;
+        }
+        showEligibility(business.EligibilityService.getInstance().check(selectedPatientId, serviceType, java.time.LocalDate.now()),
+                serviceType);
+    }
+
+    private void showEligibility(business.EligibilityService.Eligibility eligibility,
+            model.Claim.ServiceType serviceType) {
+        if (eligibility.getPolicyNumber() != null) {
+            String providerId = eligibility.getInsuranceProviderId();
+            insuranceProviderValueLabel.setText(providerId == null || providerId.isEmpty() ? "N/A" : providerId);
+            policyNumberValueLabel.setText(eligibility.getPolicyNumber());
+            policyTypeValueLabel.setText(eligibility.getPolicyType().getDisplayName());
+            statusValueLabel.setText("Active");
+            deductibleValueLabel.setText(String.format("$%,.2f", eligibility.getDeductible()));
+            copayValueLabel.setText(String.format("$%.2f", eligibility.getCopayment()));
+            coverageLimitValueLabel.setText(String.format("$%,.2f", eligibility.getCoverageAmount()));
+        } else {
+            statusValueLabel.setText("No active policy");
+        }
+        if (eligibility.isEligible()) {
+            planPaysValueLabel.setText(String.format("%.0f%% after deductible and copay",
+                    eligibility.getCoveragePercent()));
+            eligibilityStatusValueLabel.setText("✓ Eligible for " + serviceType.getDisplayName());
+            eligibilityStatusValueLabel.setForeground(new java.awt.Color(0, 128, 0));
+        } else {
+            planPaysValueLabel.setText("-");
+            eligibilityStatusValueLabel.setText("✗ Not eligible: " + eligibility.getReason());
+            eligibilityStatusValueLabel.setForeground(java.awt.Color.RED);
+        }
+    }
+
+    /**
+     * Reset the result labels (the form holds sample values)
+     */
+    private void clearResults() {
+        selectedPatientId = null;
+        selectedPatientLabel.setText("Selected: -");
+        insuranceProviderValueLabel.setText("-");
+        policyNumberValueLabel.setText("-");
+        policyTypeValueLabel.setText("-");
+        statusValueLabel.setText("-");
+        deductibleValueLabel.setText("-");
+        copayValueLabel.setText("-");
+        coverageLimitValueLabel.setText("-");
+        planPaysValueLabel.setText("-");
+        eligibilityStatusValueLabel.setText("Search for a patient to verify eligibility");
+        eligibilityStatusValueLabel.setForeground(java.awt.Color.BLACK);
+        verifyButton.setEnabled(false);
     }
 
     /**
@@ -51,8 +149,8 @@ public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
         copayValueLabel = new javax.swing.JLabel();
         jLabel7 = new javax.swing.JLabel();
         coverageLimitValueLabel = new javax.swing.JLabel();
-        jLabel9 = new javax.swing.JLabel();
-        outOfPocketValueLabel = new javax.swing.JLabel();
+        planPaysLabel = new javax.swing.JLabel();
+        planPaysValueLabel = new javax.swing.JLabel();
         eligibilityStatusLabel = new javax.swing.JLabel();
         eligibilityStatusValueLabel = new javax.swing.JLabel();
         clearButton = new javax.swing.JButton();
@@ -131,7 +229,7 @@ public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
         deductibleValueLabel.setText("$2,000 (Remaining: $1,200)");
         coverageDetailsPanel.add(deductibleValueLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(232, 24, -1, -1));
 
-        copayLabel.setText("Office Visit Copay:");
+        copayLabel.setText("Copay:");
         coverageDetailsPanel.add(copayLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(28, 46, -1, -1));
 
         copayValueLabel.setText("$30");
@@ -143,11 +241,11 @@ public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
         coverageLimitValueLabel.setText("$500,000");
         coverageDetailsPanel.add(coverageLimitValueLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(232, 68, -1, -1));
 
-        jLabel9.setText("Out-of-Pocket Max:");
-        coverageDetailsPanel.add(jLabel9, new org.netbeans.lib.awtextra.AbsoluteConstraints(28, 90, -1, -1));
+        planPaysLabel.setText("Plan Pays:");
+        coverageDetailsPanel.add(planPaysLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(28, 90, -1, -1));
 
-        outOfPocketValueLabel.setText("$5,000 (Paid: $1,500)");
-        coverageDetailsPanel.add(outOfPocketValueLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(232, 90, -1, -1));
+        planPaysValueLabel.setText("80% after deductible and copay");
+        coverageDetailsPanel.add(planPaysValueLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(232, 90, -1, -1));
 
         eligibilityStatusLabel.setText("Eligibility Status:");
         coverageDetailsPanel.add(eligibilityStatusLabel, new org.netbeans.lib.awtextra.AbsoluteConstraints(28, 112, -1, -1));
@@ -165,7 +263,7 @@ public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
     }// </editor-fold>//GEN-END:initComponents
 
     private void patientIdTextFieldActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_patientIdTextFieldActionPerformed
-        // TODO add your handling code here:
+        searchPatient();
     }//GEN-LAST:event_patientIdTextFieldActionPerformed
 
 
@@ -189,11 +287,11 @@ public class VerifyInsuranceEligibilityPanel extends javax.swing.JPanel {
     private javax.swing.JLabel jLabel5;
     private javax.swing.JLabel jLabel6;
     private javax.swing.JLabel jLabel7;
-    private javax.swing.JLabel jLabel9;
-    private javax.swing.JLabel outOfPocketValueLabel;
     private javax.swing.JLabel patientIdLabel;
     private javax.swing.JTextField patientIdTextField;
     private javax.swing.JPanel patientSearchPanel;
+    private javax.swing.JLabel planPaysLabel;
+    private javax.swing.JLabel planPaysValueLabel;
     private javax.swing.JLabel policyNumberValueLabel;
     private javax.swing.JLabel policyTypeValueLabel;
     private javax.swing.JButton printButton;
@@ -0,0 +1,95 @@
+package utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default IdAllocator
+ * Each thread reserves a block of sequence numbers from a shared atomic
+ * high-water mark and hands them out locally, so allocation is lock-free and
+ * threads only touch shared state once per block.
+ */
+public class BlockIdAllocator implements IdAllocator {
+
+    private static final int DEFAULT_BLOCK_SIZE = 32;
+
+    private final int blockSize;
+
+    // Highest reserved sequence per "PREFIX-YEAR"
+    private final ConcurrentHashMap<String, AtomicLong> highWaterMarks;
+
+    // Bumped by advanceTo/restore so threads drop blocks reserved before the change
+    // (unused sequences in dropped blocks are skipped, never reused)
+    private final AtomicLong epoch;
+
+    // Per-thread blocks: key -> {next, end (exclusive), epoch}
+    private final ThreadLocal<Map<String, long[]>> threadBlocks;
+
+    /**
+     * Default constructor
+     */
+    public BlockIdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor with custom block size
+     */
+    public BlockIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        this.blockSize = blockSize;
+        this.highWaterMarks = new ConcurrentHashMap<>();
+        this.epoch = new AtomicLong();
+        this.threadBlocks = ThreadLocal.withInitial(HashMap::new);
+    }
+
+    @Override
+    public long next(String prefix, int year) {
+        String key = key(prefix, year);
+        Map<String, long[]> blocks = threadBlocks.get();
+        long[] block = blocks.get(key);
+        long currentEpoch = epoch.get();
+        if (block == null || block[0] >= block[1] || block[2] != currentEpoch) {
+            long start = highWaterMark(key).getAndAdd(blockSize) + 1;
+            block = new long[] { start, start + blockSize, currentEpoch };
+            blocks.put(key, block);
+        }
+        return block[0]++;
+    }
+
+    @Override
+    public void advanceTo(String prefix, int year, long sequence) {
+        if (sequence <= 0) {
+            return;
+        }
+        highWaterMark(key(prefix, year)).accumulateAndGet(sequence, Math::max);
+        // Even at or below the mark the sequence may sit inside a block a
+        // thread reserved but has not handed out yet, so every block is dropped
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public Map<String, Long> snapshot() {
+        Map<String, Long> state = new HashMap<>();
+        highWaterMarks.forEach((key, mark) -> state.put(key, mark.get()));
+        return state;
+    }
+
+    @Override
+    public void restore(Map<String, Long> state) {
+        state.forEach((key, value) -> highWaterMark(key).accumulateAndGet(value, Math::max));
+        epoch.incrementAndGet();
+    }
+
+    private AtomicLong highWaterMark(String key) {
+        return highWaterMarks.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private static String key(String prefix, int year) {
+        return prefix + "-" + year;
+    }
+}
@@ -1,11 +1,12 @@
 package utils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -17,6 +18,12 @@ import java.util.regex.Pattern;
  */
 public class ClaimDocumentParser {
 
+    // Currency amounts like $500.00, 500.00 or $1,250.00
+    private static final Pattern AMOUNT_PATTERN = Pattern.compile("\\$?\\s*(\\d[\\d,]*\\.\\d{2})");
+    private static final Pattern PLAIN_AMOUNT_PATTERN = Pattern.compile("\\d+(\\.\\d{1,2})?");
+    private static final Pattern ER_PATTERN = Pattern.compile("\\ber\\b"); // "ER", but not "surgery"
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
     /**
      * Parse claim data from a text file
      * Expected format:
@@ -25,16 +32,16 @@ public class ClaimDocumentParser {
      * Diagnosis: [diagnosis]
      * Service Type: [type]
      * Claim Amount: $XXX.XX
+     * Documents for bulk ingestion also carry:
+     * Policy Number: [number]
+     * Patient ID: [id]
      */
     public static Map<String, String> parseClaimDocument(File file) throws IOException {
         Map<String, String> claimData = new HashMap<>();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                parseLine(line, claimData);
-            }
-        }
+        // Claim documents are small: one read is cheaper than a reader's 8K buffers
+        String text = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset());
+        text.lines().forEach(line -> parseLine(line, claimData));
 
         return claimData;
     }
@@ -43,81 +50,130 @@ public class ClaimDocumentParser {
      * Parse a single line and extract claim data
      */
     private static void parseLine(String line, Map<String, String> claimData) {
-        line = line.trim();
-
-        // Service Date pattern: "Service Date: MM/DD/YYYY"
-        if (line.toLowerCase().contains("service date:")) {
-            String date = extractAfterColon(line);
-            if (isValidDate(date)) {
-                claimData.put("serviceDate", date);
-            }
+        int colonIndex = line.indexOf(':');
+        if (colonIndex > 0) {
+            putField(normalizeLabel(line, colonIndex), line.substring(colonIndex + 1), claimData);
         }
+    }
 
-        // Provider Name pattern: "Provider Name:" or "Provider:"
-        else if (line.toLowerCase().contains("provider name:") ||
-                (line.toLowerCase().contains("provider:") && !line.toLowerCase().contains("id"))) {
-            String provider = extractAfterColon(line);
-            if (!provider.isEmpty()) {
-                claimData.put("providerName", provider);
-            }
-        }
+    /**
+     * Add one labeled value to the claim data, e.g. a CSV column or JSON field
+     * Labels are matched like document labels, so "Claim Amount", "claim_amount"
+     * and "claimAmount" are the same field; unknown labels are ignored.
+     */
+    public static void parseField(String label, String value, Map<String, String> claimData) {
+        putField(normalizeLabel(label, label.length()), value, claimData);
+    }
 
-        // Diagnosis pattern: "Diagnosis:"
-        else if (line.toLowerCase().contains("diagnosis:")) {
-            String diagnosis = extractAfterColon(line);
-            if (!diagnosis.isEmpty()) {
-                claimData.put("diagnosis", diagnosis);
+    /**
+     * Look up a normalized label with a switch and store the cleaned value
+     * Unknown labels are retried without their first word, so
+     * "Total Claim Amount:" is read as "Claim Amount:".
+     */
+    private static void putField(String label, String value, Map<String, String> claimData) {
+        String key = keyForLabel(label);
+        while (key == null) {
+            int space = label.indexOf(' ');
+            if (space < 0) {
+                return;
             }
+            label = label.substring(space + 1);
+            key = keyForLabel(label);
         }
 
-        // Service Type pattern: "Service Type:"
-        else if (line.toLowerCase().contains("service type:")) {
-            String serviceType = extractAfterColon(line);
-            if (!serviceType.isEmpty()) {
-                claimData.put("serviceType", mapServiceType(serviceType));
-            }
+        value = value.trim();
+        if (key.isEmpty() || value.isEmpty()) {
+            return;
         }
-
-        // Claim Amount pattern: "Claim Amount: $XXX.XX" or "Amount: $XXX.XX"
-        else if (line.toLowerCase().contains("claim amount:") ||
-                (line.toLowerCase().contains("amount:") && !line.toLowerCase().contains("approved"))) {
-            String amount = extractAmount(line);
-            if (amount != null) {
-                claimData.put("claimAmount", amount);
-            }
+        switch (key) {
+            case "serviceDate":
+                if (isValidDate(value)) {
+                    claimData.put(key, value);
+                }
+                break;
+            case "serviceType":
+                claimData.put(key, mapServiceType(value));
+                break;
+            case "claimAmount":
+                String amount = extractAmount(value);
+                if (amount != null) {
+                    claimData.put(key, amount);
+                }
+                break;
+            default:
+                claimData.put(key, value);
+                break;
         }
+    }
 
-        // Patient Name pattern: "Patient Name:" or "Patient:"
-        else if (line.toLowerCase().contains("patient name:") ||
-                line.toLowerCase().contains("patient:")) {
-            String patientName = extractAfterColon(line);
-            if (!patientName.isEmpty()) {
-                claimData.put("patientName", patientName);
+    /**
+     * Lower-case the label before the colon and separate its words by single spaces
+     * Underscores, hyphens and camelCase boundaries also separate words; other
+     * symbols (e.g. a byte order mark or "($)") are dropped.
+     */
+    private static String normalizeLabel(String line, int colonIndex) {
+        StringBuilder label = new StringBuilder(colonIndex + 4);
+        boolean pendingSpace = false;
+        char previous = ' ';
+        for (int i = 0; i < colonIndex; i++) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c) || c == '_' || c == '-') {
+                pendingSpace = label.length() > 0;
+            } else if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace || (Character.isUpperCase(c) && Character.isLowerCase(previous))) {
+                    label.append(' ');
+                    pendingSpace = false;
+                }
+                label.append(Character.toLowerCase(c));
             }
+            previous = c;
         }
+        return label.toString();
     }
 
     /**
-     * Extract text after colon
+     * Claim data key for a normalized label, or null if the label is not known
      */
-    private static String extractAfterColon(String line) {
-        int colonIndex = line.indexOf(':');
-        if (colonIndex >= 0 && colonIndex < line.length() - 1) {
-            return line.substring(colonIndex + 1).trim();
+    private static String keyForLabel(String label) {
+        switch (label) {
+            case "service date":
+                return "serviceDate";
+            case "policy number":
+                return "policyNumber";
+            case "patient id":
+                return "patientId";
+            case "provider name":
+            case "provider":
+                return "providerName";
+            case "diagnosis":
+                return "diagnosis";
+            case "service type":
+                return "serviceType";
+            case "claim amount":
+            case "amount":
+                return "claimAmount";
+            case "approved amount":
+                return ""; // Known, but not claim data
+            case "patient name":
+            case "patient":
+                return "patientName";
+            default:
+                return null;
         }
-        return "";
     }
 
     /**
      * Extract amount from string (handles $XXX.XX format)
      */
-    private static String extractAmount(String line) {
-        // Pattern to match currency amounts like $500.00 or 500.00
-        Pattern pattern = Pattern.compile("\\$?\\s*(\\d+\\.\\d{2})");
-        Matcher matcher = pattern.matcher(line);
-
+    private static String extractAmount(String value) {
+        Matcher matcher = AMOUNT_PATTERN.matcher(value);
         if (matcher.find()) {
-            return matcher.group(1); // Return just the number
+            return matcher.group(1).replace(",", ""); // Return just the number
+        }
+        // Plain numbers from CSV or JSON, e.g. 150 or 1,250.5
+        String number = value.replace("$", "").replace(",", "").trim();
+        if (PLAIN_AMOUNT_PATTERN.matcher(number).matches()) {
+            return number;
         }
         return null;
     }
@@ -127,10 +183,9 @@ public class ClaimDocumentParser {
      */
     private static boolean isValidDate(String date) {
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-            LocalDate.parse(date, formatter);
+            LocalDate.parse(date, DATE_FORMAT);
             return true;
-        } catch (Exception e) {
+        } catch (DateTimeParseException e) {
             return false;
         }
     }
@@ -143,7 +198,7 @@ public class ClaimDocumentParser {
 
         if (lower.contains("doctor") || lower.contains("physician")) {
             return "Doctor Visit";
-        } else if (lower.contains("emergency") || lower.contains("er")) {
+        } else if (lower.contains("emergency") || ER_PATTERN.matcher(lower).find()) {
             return "Emergency Room Visit";
         } else if (lower.contains("hospital") && lower.contains("stay")) {
             return "Hospital Stay";
@@ -155,6 +210,10 @@ public class ClaimDocumentParser {
             return "Prescription Medication";
         } else if (lower.contains("therapy") || lower.contains("physical")) {
             return "Physical Therapy";
+        } else if (lower.contains("dental") || lower.contains("dentist")) {
+            return "Dental";
+        } else if (lower.contains("vision") || lower.contains("eye")) {
+            return "Vision";
         }
 
         return "Doctor Visit"; // Default
@@ -0,0 +1,66 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Streaming reader for batch files that carry many claims per file
+ * Records are read one at a time, so the file is never held in memory.
+ * Each record uses the same keys as ClaimDocumentParser.parseClaimDocument.
+ */
+public interface ClaimRecordReader extends Closeable {
+
+    /**
+     * Key set instead of claim data when a record is malformed
+     */
+    String ERROR_KEY = "error";
+
+    /**
+     * Read the next record, or null at the end of the file
+     * A malformed record is returned as a map holding only ERROR_KEY; an
+     * IOException means the rest of the file cannot be read.
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * Where the last record started, for reports (e.g. "line 12")
+     */
+    String getLocation();
+
+    /**
+     * Check if a file has a supported batch format (by extension)
+     */
+    static boolean isBatchFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".jsonl") || name.endsWith(".ndjson")
+                || name.endsWith(".837") || name.endsWith(".x12") || name.endsWith(".edi");
+    }
+
+    /**
+     * Open a batch file with the reader for its extension
+     * .csv: header row plus one claim per row
+     * .jsonl, .ndjson: one flat JSON object per line
+     * .837, .x12, .edi: simplified X12 837 segments
+     */
+    static ClaimRecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        // Same lenient default-charset decoding as the document parser
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), Charset.defaultCharset()));
+        if (name.endsWith(".csv")) {
+            return new CsvClaimReader(reader);
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonLinesClaimReader(reader);
+        } else if (name.endsWith(".837") || name.endsWith(".x12") || name.endsWith(".edi")) {
+            return new X12ClaimReader(reader);
+        }
+        reader.close();
+        throw new IOException("Unsupported batch file format: " + file.getFileName());
+    }
+}
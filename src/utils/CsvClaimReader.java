@@ -0,0 +1,106 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads claims from CSV: a header row of labels, then one claim per row
+ * Header labels are matched like document labels ("Claim Amount",
+ * "claim_amount", ...); unknown columns are ignored. Quoted fields may
+ * contain commas, doubled quotes and line breaks.
+ */
+public class CsvClaimReader extends StreamingClaimReader {
+
+    private String[] header;
+    private int recordLine;
+
+    /**
+     * Constructor
+     */
+    public CsvClaimReader(Reader reader) {
+        super(reader);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            List<String> labels = readRecord();
+            if (labels == null) {
+                return null;
+            }
+            header = labels.toArray(new String[0]);
+        }
+
+        List<String> fields = readRecord();
+        if (fields == null) {
+            return null;
+        }
+        Map<String, String> claimData = new HashMap<>();
+        if (fields.size() != header.length) {
+            claimData.put(ERROR_KEY, "Expected " + header.length + " columns, found " + fields.size());
+            return claimData;
+        }
+        for (int i = 0; i < header.length; i++) {
+            ClaimDocumentParser.parseField(header[i], fields.get(i), claimData);
+        }
+        return claimData;
+    }
+
+    /**
+     * Read the fields of the next non-blank row, or null at the end of the file
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = getLine();
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unclosed quote in row starting at line " + recordLine);
+                } else if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                length += field.length();
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            checkLength(length + field.length());
+            c = read();
+        }
+    }
+
+    @Override
+    public String getLocation() {
+        return "line " + recordLine;
+    }
+}
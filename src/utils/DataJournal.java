@@ -0,0 +1,379 @@
+package utils;
+
+import business.MutationLog;
+import business.MutationRecord;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of SystemData mutations
+ * Records are serialized on the calling thread (so they capture the state at
+ * append time) and queued. A background writer appends whatever is queued
+ * and fsyncs once per batch (group commit), so the UI never waits on disk.
+ *
+ * File format: 4-byte magic, then frames of [int length][int crc32][record bytes].
+ * A torn or corrupt tail (e.g. after a crash mid-write) ends the journal and is
+ * cut off when the journal is reopened.
+ *
+ * Records are counted from the start of the file, including those left by an
+ * earlier session; a checkpoint up to a count drops the records covered by a
+ * snapshot and keeps later ones.
+ */
+public class DataJournal implements MutationLog {
+
+    private static final int MAGIC = 0x48474A31; // "HGJ1"
+    private static final int HEADER_SIZE = 4;
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private final Path path;
+    private FileChannel channel; // Guarded by channelLock, replaced by partial checkpoints
+    private long checkpointedCount; // Records dropped so far, guarded by channelLock
+    private final BlockingQueue<byte[]> pendingFrames;
+    private final Thread writerThread;
+    private final Object channelLock; // Serializes writes with checkpoint truncation
+    private final Object syncLock; // Guards durableCount for flush() waiters
+    private final AtomicLong appendedCount;
+    private long durableCount; // Guarded by syncLock
+    private volatile boolean closed;
+    private volatile IOException writeError;
+
+    /**
+     * Open (or create) a journal for appending
+     * Any torn tail left by a crash is truncated first.
+     */
+    public static DataJournal open(String filePath) throws IOException {
+        AtomicLong existing = new AtomicLong();
+        long validLength = scan(filePath, frame -> existing.incrementAndGet());
+        Path path = Paths.get(filePath);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (validLength < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+            header.flip();
+            channel.write(header, 0);
+            validLength = HEADER_SIZE;
+            existing.set(0);
+        } else {
+            channel.truncate(validLength);
+        }
+        channel.force(true);
+        channel.position(validLength);
+        return new DataJournal(path, channel, existing.get());
+    }
+
+    /**
+     * Read every intact record of a journal file (empty list if none)
+     */
+    public static List<MutationRecord> readRecords(String filePath) throws IOException {
+        List<MutationRecord> records = new ArrayList<>();
+        scan(filePath, frame -> records.add(decode(frame)));
+        return records;
+    }
+
+    /**
+     * Check if a journal file holds at least one record
+     */
+    public static boolean hasRecords(String filePath) {
+        File file = new File(filePath);
+        return file.exists() && file.length() > HEADER_SIZE;
+    }
+
+    /**
+     * Receiver of the record bytes of each intact frame
+     */
+    private interface FrameVisitor {
+        void visit(byte[] data) throws IOException;
+    }
+
+    /**
+     * Walk the journal, passing each intact frame to the visitor
+     * Returns the length of the intact prefix (0 if the file is missing or invalid)
+     */
+    private static long scan(String filePath, FrameVisitor visitor) throws IOException {
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                System.err.println("❌ Journal has an unknown format, ignoring: " + filePath);
+                return 0;
+            }
+            long validLength = HEADER_SIZE;
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] data;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > file.length()) {
+                        break;
+                    }
+                    data = new byte[length];
+                    in.readFully(data);
+                } catch (EOFException e) {
+                    break; // Torn tail
+                }
+                crc.reset();
+                crc.update(data);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                visitor.visit(data);
+                validLength += FRAME_HEADER_SIZE + length;
+            }
+            return validLength;
+        } catch (EOFException e) {
+            return 0; // Shorter than the header
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param existingRecords Records already in the file, counted as appended and durable
+     */
+    private DataJournal(Path path, FileChannel channel, long existingRecords) {
+        this.path = path;
+        this.channel = channel;
+        this.checkpointedCount = 0;
+        this.pendingFrames = new LinkedBlockingQueue<>();
+        this.channelLock = new Object();
+        this.syncLock = new Object();
+        this.appendedCount = new AtomicLong(existingRecords);
+        this.durableCount = existingRecords;
+        this.closed = false;
+        this.writerThread = new Thread(this::writeLoop, "healthguard360-journal");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a record for appending (never blocks on disk)
+     */
+    @Override
+    public void append(MutationRecord record) {
+        if (closed) {
+            return;
+        }
+        byte[] frame;
+        try {
+            frame = encode(record);
+        } catch (IOException e) {
+            System.err.println("❌ Error journaling " + record + ": " + e.getMessage());
+            return;
+        }
+        pendingFrames.add(frame);
+        appendedCount.incrementAndGet();
+    }
+
+    /**
+     * Number of records in the journal since it was created, including those
+     * found when it was opened
+     * Pass to checkpoint(long) to drop exactly the records a snapshot covers.
+     */
+    public long getAppendedCount() {
+        return appendedCount.get();
+    }
+
+    /**
+     * Wait until every record appended so far is on disk
+     */
+    public void flush() throws IOException {
+        flush(appendedCount.get());
+    }
+
+    private void flush(long target) throws IOException {
+        synchronized (syncLock) {
+            while (durableCount < target && writeError == null) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while flushing journal", e);
+                }
+            }
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    /**
+     * Drop all records appended so far
+     */
+    public void checkpoint() throws IOException {
+        checkpoint(appendedCount.get());
+    }
+
+    /**
+     * Drop the first records after a snapshot covering them has been saved
+     * Records appended after the snapshot was captured are kept. They are
+     * copied to a new journal file that atomically replaces the old one, so
+     * a crash never leaves a half-rewritten journal.
+     *
+     * @param count value of getAppendedCount() when the snapshot was captured
+     */
+    public void checkpoint(long count) throws IOException {
+        flush(count);
+        synchronized (channelLock) {
+            if (count <= checkpointedCount) {
+                return;
+            }
+            long keepFrom = frameOffset(count - checkpointedCount);
+            long end = channel.size();
+            if (keepFrom == end) {
+                channel.truncate(HEADER_SIZE);
+                channel.position(HEADER_SIZE);
+                channel.force(true);
+            } else {
+                ByteBuffer kept = ByteBuffer.allocate(Math.toIntExact(end - keepFrom));
+                while (kept.hasRemaining()) {
+                    if (channel.read(kept, keepFrom + kept.position()) < 0) {
+                        throw new EOFException("Journal shorter than expected");
+                    }
+                }
+                kept.flip();
+                Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+                try (FileChannel temp = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+                    header.flip();
+                    temp.write(header);
+                    while (kept.hasRemaining()) {
+                        temp.write(kept);
+                    }
+                    temp.force(true);
+                }
+                FileHandler.replaceAtomically(tempPath, path);
+                channel.close();
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            }
+            checkpointedCount = count;
+        }
+    }
+
+    /**
+     * Byte offset just past the first frames in the file (caller holds channelLock)
+     */
+    private long frameOffset(long frames) throws IOException {
+        long offset = HEADER_SIZE;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        for (long i = 0; i < frames; i++) {
+            length.clear();
+            while (length.hasRemaining()) {
+                if (channel.read(length, offset + length.position()) < 0) {
+                    throw new EOFException("Journal shorter than expected");
+                }
+            }
+            offset += FRAME_HEADER_SIZE + length.getInt(0);
+        }
+        return offset;
+    }
+
+    /**
+     * Flush outstanding records and stop the writer
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            closed = true;
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (channelLock) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Background writer: append each batch, then fsync once
+     */
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                byte[] first = pendingFrames.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pendingFrames.drainTo(batch);
+                synchronized (channelLock) {
+                    for (byte[] frame : batch) {
+                        ByteBuffer buffer = ByteBuffer.wrap(frame);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                    channel.force(false);
+                }
+                synchronized (syncLock) {
+                    durableCount += batch.size();
+                    syncLock.notifyAll();
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("❌ Error writing journal: " + e.getMessage());
+                synchronized (syncLock) {
+                    writeError = e;
+                    syncLock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private static byte[] encode(MutationRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(record);
+        }
+        byte[] data = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return ByteBuffer.allocate(FRAME_HEADER_SIZE + data.length)
+                .putInt(data.length)
+                .putInt((int) crc.getValue())
+                .put(data)
+                .array();
+    }
+
+    private static MutationRecord decode(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (MutationRecord) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown journal record class", e);
+        }
+    }
+}
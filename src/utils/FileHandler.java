@@ -1,7 +1,18 @@
 package utils;
 
+import business.MutationRecord;
 import business.SystemData;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Complete FileHandler class
@@ -11,13 +22,40 @@ public class FileHandler {
     
     // File path for storing data
     private static final String DATA_FILE_PATH = "healthguard360_data.dat";
+    private static final String JOURNAL_FILE_PATH = "healthguard360_data.journal";
     
     /**
-     * Save SystemData to file
+     * Save SystemData to file (binary snapshot format)
+     * Safe on any thread; directories are read-locked only while copying.
      */
     public static boolean saveSystemData(SystemData systemData) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE_PATH))) {
-            oos.writeObject(systemData);
+        try {
+            return writeDataFile(SnapshotCodec.encode(systemData));
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ Error saving data: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Write an encoded snapshot as the data file
+     * The bytes go to a temp file that is synced and then renamed over the
+     * data file, so a crash mid-save never leaves a truncated data file.
+     */
+    public static boolean writeDataFile(byte[] data) {
+        Path target = Paths.get(DATA_FILE_PATH);
+        Path temp = Paths.get(DATA_FILE_PATH + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            replaceAtomically(temp, target);
             System.out.println("✅ Data saved successfully to " + DATA_FILE_PATH);
             return true;
         } catch (IOException e) {
@@ -27,20 +65,45 @@ public class FileHandler {
         }
     }
     
+    /**
+     * Rename a file over another, atomically where the file system allows it
+     */
+    public static void replaceAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
     /**
      * Load SystemData from file
+     * Binary snapshots are read into memory in one go, but policies and
+     * claims are only decoded when first used. The file is not memory-mapped:
+     * a live mapping would keep it open until GC and block the rename of the
+     * next save on Windows. Data files saved by earlier versions are read
+     * with Java serialization.
      */
     public static SystemData loadSystemData() {
-        File file = new File(DATA_FILE_PATH);
+        Path path = Paths.get(DATA_FILE_PATH);
         
         // Check if file exists
-        if (!file.exists()) {
+        if (!Files.exists(path)) {
             System.out.println("ℹ️ No saved data file found. Starting with fresh data.");
             return null;
         }
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(DATA_FILE_PATH))) {
-            SystemData loadedData = (SystemData) ois.readObject();
+        try {
+            byte[] contents = Files.readAllBytes(path);
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            SystemData loadedData;
+            if (SnapshotCodec.isSnapshot(buffer)) {
+                loadedData = SnapshotCodec.read(buffer);
+            } else {
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(contents))) {
+                    loadedData = (SystemData) ois.readObject();
+                }
+            }
             System.out.println("✅ Data loaded successfully from " + DATA_FILE_PATH);
             return loadedData;
         } catch (IOException | ClassNotFoundException e) {
@@ -50,6 +113,37 @@ public class FileHandler {
         }
     }
     
+    /**
+     * Open the write-ahead journal for appending (null if it cannot be opened)
+     */
+    public static DataJournal openJournal() {
+        try {
+            return DataJournal.open(JOURNAL_FILE_PATH);
+        } catch (IOException e) {
+            System.err.println("❌ Error opening journal: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Read journaled changes since the last snapshot
+     */
+    public static List<MutationRecord> loadJournalRecords() {
+        try {
+            return DataJournal.readRecords(JOURNAL_FILE_PATH);
+        } catch (IOException e) {
+            System.err.println("❌ Error reading journal: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Check if the journal holds unsaved changes
+     */
+    public static boolean journalExists() {
+        return DataJournal.hasRecords(JOURNAL_FILE_PATH);
+    }
+    
     /**
      * Check if data file exists
      */
@@ -100,6 +194,36 @@ public class FileHandler {
         return String.format("%.2f MB", bytes / (1024.0 * 1024.0));
     }
     
+    /**
+     * Move the data file and journal aside (e.g. the user started with fresh data)
+     * They are renamed to timestamped backups, so a new session never replays
+     * the old journal onto its own data file and nothing is lost.
+     */
+    public static boolean archiveSavedData() {
+        String suffix = "healthguard360_data_backup_" + System.currentTimeMillis();
+        boolean dataArchived = archive(DATA_FILE_PATH, suffix + ".dat");
+        boolean journalArchived = archive(JOURNAL_FILE_PATH, suffix + ".journal");
+        boolean archived = dataArchived && journalArchived;
+        if (archived) {
+            System.out.println("💾 Previous data moved to " + suffix + ".*");
+        }
+        return archived;
+    }
+    
+    private static boolean archive(String filePath, String archivePath) {
+        Path source = Paths.get(filePath);
+        if (!Files.exists(source)) {
+            return true;
+        }
+        try {
+            Files.move(source, Paths.get(archivePath));
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Error archiving " + filePath + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Backup current data file
      */
@@ -0,0 +1,32 @@
+package utils;
+
+import java.util.Map;
+
+/**
+ * Allocates unique sequence numbers for year-prefixed record IDs
+ * (e.g. CLM-2025-00042). Implementations must be thread-safe and must never
+ * hand out the same sequence twice for a prefix and year.
+ */
+public interface IdAllocator {
+
+    /**
+     * Get the next unused sequence number for a prefix and year
+     */
+    long next(String prefix, int year);
+
+    /**
+     * Make sure sequences at or below the given value are never handed out
+     * Used to skip IDs that already exist in loaded data
+     */
+    void advanceTo(String prefix, int year, long sequence);
+
+    /**
+     * Get persistable state (key = "PREFIX-YEAR", value = highest reserved sequence)
+     */
+    Map<String, Long> snapshot();
+
+    /**
+     * Restore state captured by snapshot()
+     */
+    void restore(Map<String, Long> state);
+}
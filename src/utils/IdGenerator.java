@@ -0,0 +1,64 @@
+package utils;
+
+import java.time.LocalDate;
+
+/**
+ * Generates year-prefixed record IDs (e.g. CLM-2025-00042)
+ * Delegates sequence allocation to a pluggable IdAllocator
+ */
+public class IdGenerator {
+
+    // Allocator shared by all model classes
+    private static volatile IdAllocator allocator = new BlockIdAllocator();
+
+    /**
+     * Get the current allocator
+     */
+    public static IdAllocator getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * Replace the allocator (e.g. with a database-backed sequence)
+     */
+    public static void setAllocator(IdAllocator newAllocator) {
+        if (newAllocator == null) {
+            throw new IllegalArgumentException("Allocator cannot be null");
+        }
+        allocator = newAllocator;
+    }
+
+    /**
+     * Generate the next ID for a prefix in the current year
+     *
+     * @param prefix ID prefix such as "CLM"
+     * @param digits Minimum number of sequence digits (zero padded)
+     */
+    public static String nextId(String prefix, int digits) {
+        int year = LocalDate.now().getYear();
+        long sequence = allocator.next(prefix, year);
+        return String.format("%s-%d-%0" + digits + "d", prefix, year, sequence);
+    }
+
+    /**
+     * Register an existing ID so its sequence is never handed out again
+     * IDs that do not follow the PREFIX-YEAR-SEQUENCE format are ignored
+     */
+    public static void reserveExistingId(String id) {
+        if (id == null) {
+            return;
+        }
+        int firstDash = id.indexOf('-');
+        int secondDash = id.indexOf('-', firstDash + 1);
+        if (firstDash <= 0 || secondDash < 0 || id.indexOf('-', secondDash + 1) >= 0) {
+            return;
+        }
+        try {
+            int year = Integer.parseInt(id.substring(firstDash + 1, secondDash));
+            long sequence = Long.parseLong(id.substring(secondDash + 1));
+            allocator.advanceTo(id.substring(0, firstDash), year, sequence);
+        } catch (NumberFormatException e) {
+            // Not a sequence-based ID
+        }
+    }
+}
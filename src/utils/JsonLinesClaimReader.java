@@ -0,0 +1,192 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads claims from JSON lines: one flat JSON object per line, e.g.
+ * {"policyNumber": "POL-1", "patientId": "PAT-1", "serviceDate": "03/15/2025", "claimAmount": 150.5}
+ * Field names are matched like document labels; unknown fields are ignored.
+ * Nested objects and arrays are not supported and make the line malformed.
+ */
+public class JsonLinesClaimReader extends StreamingClaimReader {
+
+    private final StringBuilder line = new StringBuilder();
+    private int recordLine;
+
+    /**
+     * Constructor
+     */
+    public JsonLinesClaimReader(Reader reader) {
+        super(reader);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        do {
+            recordLine = getLine();
+            if (!readLine()) {
+                return null;
+            }
+        } while (line.toString().trim().isEmpty());
+
+        Map<String, String> claimData = new HashMap<>();
+        try {
+            new FlatObjectParser(line, claimData).parse();
+        } catch (IllegalArgumentException e) {
+            claimData.clear();
+            claimData.put(ERROR_KEY, "Invalid JSON: " + e.getMessage());
+        }
+        return claimData;
+    }
+
+    /**
+     * Read the next line into the buffer, false at the end of the file
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+                checkLength(line.length());
+            }
+            c = read();
+        }
+        return true;
+    }
+
+    @Override
+    public String getLocation() {
+        return "line " + recordLine;
+    }
+
+    /**
+     * Parser for one flat JSON object; values are passed to ClaimDocumentParser.parseField
+     */
+    private static final class FlatObjectParser {
+        private final CharSequence text;
+        private final Map<String, String> claimData;
+        private int position;
+
+        FlatObjectParser(CharSequence text, Map<String, String> claimData) {
+            this.text = text;
+            this.claimData = claimData;
+        }
+
+        void parse() {
+            expect('{');
+            if (peek() == '}') {
+                position++;
+            } else {
+                do {
+                    String name = readString();
+                    expect(':');
+                    String value = readValue();
+                    if (value != null) {
+                        ClaimDocumentParser.parseField(name, value, claimData);
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            if (peek() != -1) {
+                throw new IllegalArgumentException("unexpected text after object at column " + (position + 1));
+            }
+        }
+
+        /**
+         * Read a string, number or literal; null for JSON null
+         */
+        private String readValue() {
+            int c = peek();
+            if (c == '"') {
+                return readString();
+            } else if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("nested values are not supported");
+            }
+            int start = position;
+            while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.subSequence(start, position).toString();
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("missing value at column " + (start + 1));
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                } else if (c != '\\') {
+                    value.append(c);
+                } else if (position < text.length()) {
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            value.append('\n');
+                            break;
+                        case 't':
+                            value.append('\t');
+                            break;
+                        case 'r':
+                            value.append('\r');
+                            break;
+                        case 'b':
+                            value.append('\b');
+                            break;
+                        case 'f':
+                            value.append('\f');
+                            break;
+                        case 'u':
+                            if (position + 4 > text.length()) {
+                                throw new IllegalArgumentException("bad unicode escape");
+                            }
+                            try {
+                                value.append((char) Integer.parseInt(
+                                        text.subSequence(position, position + 4).toString(), 16));
+                            } catch (NumberFormatException e) {
+                                throw new IllegalArgumentException("bad unicode escape");
+                            }
+                            position += 4;
+                            break;
+                        default:
+                            value.append(escaped); // \" \\ \/
+                            break;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("unclosed string");
+        }
+
+        private int peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : -1;
+        }
+
+        private boolean consume(char expected) {
+            if (peek() == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (!consume(expected)) {
+                throw new IllegalArgumentException("expected '" + expected + "' at column " + (position + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package utils;
+
+import business.SystemData;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Versioned binary snapshot format for SystemData
+ * Layout: 4-byte magic, varint format version, then every directory in a
+ * fixed order (see SystemData.writeSnapshot). Replaces default Java
+ * serialization, which repeats class descriptors and field names and
+ * resolves every field through reflection.
+ *
+ * Policies and claims are length-prefixed sections at the end of the file,
+ * so they can stay undecoded until first use.
+ * Only the current version is read; earlier versions never shipped.
+ */
+public class SnapshotCodec {
+
+    private static final int MAGIC = 0x48475331; // "HGS1"
+    private static final int VERSION = 3;
+
+    /**
+     * Writes the snapshot body (see SystemData.writeSnapshot)
+     */
+    public interface BodyWriter {
+        void write(SnapshotWriter out) throws IOException;
+    }
+
+    /**
+     * Write a snapshot of system data
+     */
+    public static void write(SystemData systemData, OutputStream outputStream) throws IOException {
+        write(systemData::writeSnapshot, outputStream);
+    }
+
+    /**
+     * Write a snapshot whose body is written by the given writer
+     */
+    public static void write(BodyWriter body, OutputStream outputStream) throws IOException {
+        SnapshotWriter out = new SnapshotWriter(outputStream);
+        out.writeInt(MAGIC);
+        out.writeVarInt(VERSION);
+        body.write(out);
+        out.flush();
+    }
+
+    /**
+     * Encode a snapshot of system data in memory
+     */
+    public static byte[] encode(SystemData systemData) throws IOException {
+        return encode(systemData::writeSnapshot);
+    }
+
+    /**
+     * Encode a snapshot whose body is written by the given writer in memory
+     */
+    public static byte[] encode(BodyWriter body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(body, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a snapshot of system data from a buffer
+     * The buffer must stay valid while policies and claims are not yet decoded.
+     */
+    public static SystemData read(ByteBuffer buffer) throws IOException {
+        SnapshotReader in = new SnapshotReader(buffer.duplicate());
+        if (in.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a HealthGuard360 snapshot");
+        }
+        int version = in.readVarInt();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported snapshot version: " + version);
+        }
+        return SystemData.readSnapshot(in);
+    }
+
+    /**
+     * Check if a buffer starts with the snapshot magic
+     * Used to tell binary snapshots from older Java-serialized data files.
+     */
+    public static boolean isSnapshot(ByteBuffer buffer) {
+        return buffer.limit() >= 4 && buffer.getInt(0) == MAGIC;
+    }
+}
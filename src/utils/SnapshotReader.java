@@ -0,0 +1,310 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffered decoder for the binary snapshot format written by SnapshotWriter
+ * Reads from a stream or straight from a ByteBuffer.
+ * Not thread-safe.
+ */
+public class SnapshotReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in; // null when reading from a ByteBuffer
+    private final ByteBuffer source; // null when reading from a stream
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    // String dictionary in order of first appearance
+    private final List<String> dictionary;
+    private final boolean externalDictionary;
+
+    // Enum constants per enum class (values() clones on every call)
+    private final Map<Class<?>, Object[]> enumConstants;
+
+    /**
+     * Constructor
+     */
+    public SnapshotReader(InputStream in) {
+        this(in, null, new ArrayList<>(), false);
+    }
+
+    /**
+     * Constructor for reading from the buffer's position onwards
+     */
+    public SnapshotReader(ByteBuffer source) {
+        this(null, source, new ArrayList<>(), false);
+    }
+
+    /**
+     * Constructor for records written with an external dictionary
+     */
+    public SnapshotReader(ByteBuffer source, List<String> dictionary) {
+        this(null, source, dictionary, true);
+    }
+
+    private SnapshotReader(InputStream in, ByteBuffer source, List<String> dictionary, boolean externalDictionary) {
+        this.in = in;
+        this.source = source;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.position = 0;
+        this.limit = 0;
+        this.dictionary = dictionary;
+        this.externalDictionary = externalDictionary;
+        this.enumConstants = new IdentityHashMap<>();
+    }
+
+    // ==================== PRIMITIVES ====================
+
+    public int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException("Unexpected end of snapshot");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    public int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value > 0xFFFFFFFFL) {
+            throw new StreamCorruptedException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() throws IOException {
+        long high = readInt() & 0xFFFFFFFFL;
+        return (high << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Return the next bytes as a view of the source buffer and skip past them
+     * Only available when reading from a ByteBuffer; nothing is copied.
+     */
+    public ByteBuffer readSlice(int length) throws IOException {
+        if (source == null) {
+            throw new IllegalStateException("Slices need a ByteBuffer source");
+        }
+        int start = source.position() - (limit - position);
+        if (length < 0 || length > source.limit() - start) {
+            throw new EOFException("Section runs past end of snapshot");
+        }
+        ByteBuffer slice = source.duplicate();
+        slice.position(start).limit(start + length);
+        source.position(start + length);
+        position = 0;
+        limit = 0;
+        return slice.slice();
+    }
+
+    /**
+     * Return everything left in the source buffer as a view (see readSlice)
+     */
+    public ByteBuffer readRemaining() throws IOException {
+        if (source == null) {
+            throw new IllegalStateException("Slices need a ByteBuffer source");
+        }
+        return readSlice(source.limit() - (source.position() - (limit - position)));
+    }
+
+    // ==================== STRINGS ====================
+
+    /**
+     * Read a dictionary-encoded string
+     */
+    public String readString() throws IOException {
+        int reference = readVarInt();
+        if (reference == 0) {
+            return null;
+        }
+        if (reference <= dictionary.size()) {
+            return dictionary.get(reference - 1);
+        }
+        if (externalDictionary || reference != dictionary.size() + 1) {
+            throw new StreamCorruptedException("Bad string reference: " + reference);
+        }
+        String value = readUtf8(readVarInt());
+        dictionary.add(value);
+        return value;
+    }
+
+    /**
+     * Read a string written with writeUniqueString
+     */
+    public String readUniqueString() throws IOException {
+        int length = readVarInt();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+
+    public List<String> readStringList() throws IOException {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size - 1);
+        for (int i = 1; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public String[] readStringArray() throws IOException {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        String[] values = new String[size - 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString();
+        }
+        return values;
+    }
+
+    // ==================== ENUMS AND DATES ====================
+
+    /**
+     * Read an enum constant written as an ordinal
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        int ordinal = readVarInt();
+        if (ordinal == 0) {
+            return null;
+        }
+        Object[] constants = enumConstants.computeIfAbsent(type, Class::getEnumConstants);
+        if (ordinal > constants.length) {
+            throw new StreamCorruptedException("Unknown " + type.getSimpleName() + " ordinal: " + (ordinal - 1));
+        }
+        return type.cast(constants[ordinal - 1]);
+    }
+
+    public LocalDate readDate() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(readSignedVarLong());
+    }
+
+    public List<LocalDate> readDates() throws IOException {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        List<LocalDate> values = new ArrayList<>(size - 1);
+        for (int i = 1; i < size; i++) {
+            values.add(readDate());
+        }
+        return values;
+    }
+
+    public LocalDateTime readDateTime() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        long seconds = readSignedVarLong();
+        return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+    }
+
+    // ==================== BUFFER ====================
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private String readUtf8(int length) throws IOException {
+        if (length <= buffer.length) {
+            if (limit - position < length) {
+                compactAndFill(length);
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean fill() throws IOException {
+        int read = read(0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void compactAndFill(int needed) throws IOException {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        while (limit < needed) {
+            int read = read(limit, buffer.length - limit);
+            if (read <= 0) {
+                throw new EOFException("Unexpected end of snapshot");
+            }
+            limit += read;
+        }
+    }
+
+    private int read(int offset, int length) throws IOException {
+        if (in != null) {
+            return in.read(buffer, offset, length);
+        }
+        int count = Math.min(length, source.remaining());
+        if (count == 0) {
+            return -1;
+        }
+        source.get(buffer, offset, count);
+        return count;
+    }
+}
@@ -0,0 +1,148 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Self-contained block of records inside a snapshot
+ * Layout: record count, the section's own string dictionary, a fixed-width
+ * offset per record, then the records. Because records only refer to the
+ * section dictionary, any record can be decoded on its own, and a section can
+ * be decoded on several threads at once. Sections are kept as views of the
+ * loaded data file until they are first needed.
+ */
+public class SnapshotSection<T> {
+
+    // Records decoded per task when decoding in parallel
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * Encodes one record
+     */
+    public interface RecordWriter<T> {
+        void write(T record, SnapshotWriter out) throws IOException;
+    }
+
+    /**
+     * Decodes one record
+     */
+    public interface RecordReader<T> {
+        T read(SnapshotReader in) throws IOException;
+    }
+
+    private final int[] offsets;
+    private final List<String> dictionary;
+    private final ByteBuffer records;
+    private final RecordReader<T> reader;
+
+    private SnapshotSection(int[] offsets, List<String> dictionary, ByteBuffer records, RecordReader<T> reader) {
+        this.offsets = offsets;
+        this.dictionary = dictionary;
+        this.records = records;
+        this.reader = reader;
+    }
+
+    /**
+     * Write records as a length-prefixed section
+     */
+    public static <T> void write(SnapshotWriter out, List<T> items, RecordWriter<T> recordWriter) throws IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        SnapshotWriter recordOut = new SnapshotWriter(recordBytes, true);
+        int[] offsets = new int[items.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = Math.toIntExact(recordOut.size());
+            recordWriter.write(items.get(i), recordOut);
+        }
+        recordOut.flush();
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        SnapshotWriter header = new SnapshotWriter(headerBytes);
+        header.writeVarInt(offsets.length);
+        List<String> entries = recordOut.getDictionaryEntries();
+        header.writeVarInt(entries.size());
+        for (String entry : entries) {
+            header.writeUniqueString(entry);
+        }
+        for (int offset : offsets) {
+            header.writeInt(offset);
+        }
+        header.flush();
+
+        out.writeLong((long) headerBytes.size() + recordBytes.size());
+        out.writeBytes(headerBytes.toByteArray());
+        out.writeBytes(recordBytes.toByteArray());
+    }
+
+    /**
+     * Map the next section without decoding its records
+     * The reader must be reading from a ByteBuffer.
+     */
+    public static <T> SnapshotSection<T> read(SnapshotReader in, RecordReader<T> reader) throws IOException {
+        long length = in.readLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Bad section length: " + length);
+        }
+        ByteBuffer section = in.readSlice((int) length);
+        SnapshotReader header = new SnapshotReader(section.duplicate());
+        int count = header.readVarInt();
+        int dictionarySize = header.readVarInt();
+        List<String> dictionary = new ArrayList<>(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary.add(header.readUniqueString());
+        }
+        int[] offsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = header.readInt();
+        }
+        ByteBuffer records = header.readRemaining();
+        for (int offset : offsets) {
+            if (offset < 0 || offset >= records.limit()) {
+                throw new StreamCorruptedException("Bad record offset: " + offset);
+            }
+        }
+        return new SnapshotSection<>(offsets, Collections.unmodifiableList(dictionary), records, reader);
+    }
+
+    /**
+     * Number of records in this section
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Decode every record, in parallel for large sections
+     */
+    public List<T> readAll() throws IOException {
+        @SuppressWarnings("unchecked")
+        T[] items = (T[]) new Object[offsets.length];
+        int chunks = (offsets.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        try {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int start = chunk * CHUNK_SIZE;
+                int end = Math.min(start + CHUNK_SIZE, offsets.length);
+                ByteBuffer view = records.duplicate();
+                view.position(offsets[start]);
+                SnapshotReader in = new SnapshotReader(view, dictionary);
+                try {
+                    for (int i = start; i < end; i++) {
+                        items[i] = reader.read(in);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new ArrayList<>(Arrays.asList(items));
+    }
+}
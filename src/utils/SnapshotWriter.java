@@ -0,0 +1,289 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffered encoder for the binary snapshot format
+ * Integers are varints (zig-zag for signed values), enums are ordinals and
+ * repeated strings (provider names, statuses, IDs used as references) are
+ * written once and then referred to by their dictionary index.
+ * With an external dictionary, strings are written as indexes only and the
+ * dictionary is stored separately (see SnapshotSection), so records can be
+ * decoded independently of each other.
+ * Not thread-safe.
+ */
+public class SnapshotWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long drainedBytes;
+
+    // String dictionary: value -> index, in order of first appearance
+    private final Map<String, Integer> dictionary;
+    private final List<String> dictionaryEntries;
+    private final boolean externalDictionary;
+
+    /**
+     * Constructor
+     */
+    public SnapshotWriter(OutputStream out) {
+        this(out, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param externalDictionary true to write only dictionary indexes and
+     *                           leave the entries to getDictionaryEntries()
+     */
+    public SnapshotWriter(OutputStream out, boolean externalDictionary) {
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.position = 0;
+        this.drainedBytes = 0;
+        this.dictionary = new HashMap<>();
+        this.dictionaryEntries = new ArrayList<>();
+        this.externalDictionary = externalDictionary;
+    }
+
+    /**
+     * Number of bytes written so far
+     */
+    public long size() {
+        return drainedBytes + position;
+    }
+
+    /**
+     * Dictionary entries in index order
+     */
+    public List<String> getDictionaryEntries() {
+        return dictionaryEntries;
+    }
+
+    // ==================== PRIMITIVES ====================
+
+    public void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    /**
+     * Write a non-negative int in 1-5 bytes
+     */
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Write an unsigned long, 7 bits per byte
+     */
+    public void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /**
+     * Write a signed long so that small negative values stay short
+     */
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeLong(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Write raw bytes with no length prefix
+     */
+    public void writeBytes(byte[] bytes) throws IOException {
+        writeRaw(bytes);
+    }
+
+    // ==================== STRINGS ====================
+
+    /**
+     * Write a string through the dictionary (null allowed)
+     * Use for values that repeat across records.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarInt(index + 1);
+            return;
+        }
+        int newIndex = dictionary.size();
+        dictionary.put(value, newIndex);
+        dictionaryEntries.add(value);
+        writeVarInt(newIndex + 1);
+        if (!externalDictionary) {
+            writeUtf8(value);
+        }
+    }
+
+    /**
+     * Write a string inline, bypassing the dictionary (null allowed)
+     * Use for values that are unique per record, such as record IDs and notes,
+     * to keep the dictionary small.
+     */
+    public void writeUniqueString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeRaw(bytes);
+    }
+
+    public void writeStringList(List<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    public void writeStringArray(String[] values) throws IOException {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.length + 1);
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    // ==================== ENUMS AND DATES ====================
+
+    /**
+     * Write an enum constant as its ordinal (null allowed)
+     */
+    public void writeEnum(Enum<?> value) throws IOException {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * Write a date as a zig-zag epoch day (null allowed)
+     */
+    public void writeDate(LocalDate value) throws IOException {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeSignedVarLong(value.toEpochDay());
+    }
+
+    public void writeDates(List<LocalDate> values) throws IOException {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (LocalDate value : values) {
+            writeDate(value);
+        }
+    }
+
+    /**
+     * Write a date-time as epoch seconds plus nanos (null allowed)
+     */
+    public void writeDateTime(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(value.getNano());
+    }
+
+    // ==================== BUFFER ====================
+
+    /**
+     * Write buffered bytes to the underlying stream
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeUtf8(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeRaw(bytes);
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                drainedBytes += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            drainedBytes += position;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Base class for the batch readers: character input with line counting
+ * and a cap on record length, so a broken file (e.g. an unclosed quote)
+ * fails instead of being buffered whole.
+ */
+abstract class StreamingClaimReader implements ClaimRecordReader {
+
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private final Reader reader;
+    private int line = 1;
+    private int pushedBack = -2; // -2 = nothing pushed back
+
+    StreamingClaimReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read one character, or -1 at the end of the file
+     */
+    int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * Push back the last character read (at most one)
+     */
+    void unread(int c) {
+        if (c == '\n') {
+            line--;
+        }
+        pushedBack = c;
+    }
+
+    int getLine() {
+        return line;
+    }
+
+    void checkLength(int recordLength) throws IOException {
+        if (recordLength > MAX_RECORD_CHARS) {
+            throw new IOException("Record at line " + line + " is longer than " + MAX_RECORD_CHARS
+                    + " characters");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
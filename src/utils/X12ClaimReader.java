@@ -0,0 +1,194 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads claims from a simplified X12 837 (professional claim) file
+ * Segments end with '~', elements are separated by '*' and components by ':'.
+ * Segments used, all others are skipped:
+ * - SBR*P*18*[policy number]        subscriber; policy applies to following claims
+ * - NM1*IL*1*[last]*[first]****MI*[patient id]   subscriber name and id
+ * - NM1*85*2*[provider name]        billing provider; applies to following claims
+ * - CLM*[id]*[amount]***[place of service]:B:1   starts a claim
+ * - DTP*472*D8*[CCYYMMDD]           service date (RD8 ranges use the first date)
+ * - HI*ABK:[code]                   principal diagnosis code
+ * - HL*[id]*[parent]*[20|22]         billing provider or subscriber level; resets the above
+ * A claim ends at the next CLM, HL or SE segment, or at the end of the file.
+ */
+public class X12ClaimReader extends StreamingClaimReader {
+
+    private final StringBuilder segment = new StringBuilder();
+    private String policyNumber;
+    private String patientId;
+    private String patientName;
+    private String providerName;
+    private Map<String, String> claim; // Claim being read, null between claims
+    private int segmentCount;
+    private int claimSegment; // Segment number of the current claim's CLM
+    private int returnedSegment; // Segment number of the last claim returned
+
+    /**
+     * Constructor
+     */
+    public X12ClaimReader(Reader reader) {
+        super(reader);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        while (readSegment()) {
+            String[] elements = segment.toString().split("\\*", -1);
+            String id = elements[0];
+            Map<String, String> finished = null;
+            if (claim != null && (id.equals("CLM") || id.equals("HL") || id.equals("SE"))) {
+                finished = claim;
+                returnedSegment = claimSegment;
+                claim = null;
+            }
+            switch (id) {
+                case "HL":
+                    startLevel(element(elements, 3));
+                    break;
+                case "SBR":
+                    policyNumber = element(elements, 3);
+                    break;
+                case "NM1":
+                    readName(elements);
+                    break;
+                case "CLM":
+                    startClaim(elements);
+                    break;
+                case "DTP":
+                    if (claim != null && "472".equals(element(elements, 1))) {
+                        readServiceDate(elements);
+                    }
+                    break;
+                case "HI":
+                    if (claim != null) {
+                        String code = element(elements, 1);
+                        int colon = code.indexOf(':');
+                        ClaimDocumentParser.parseField("diagnosis", code.substring(colon + 1), claim);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (finished != null) {
+                return finished;
+            }
+        }
+        Map<String, String> last = claim;
+        returnedSegment = claimSegment;
+        claim = null;
+        return last;
+    }
+
+    /**
+     * Forget the context a new billing provider (20) or subscriber (22) level replaces
+     */
+    private void startLevel(String levelCode) {
+        if (levelCode.equals("20")) {
+            providerName = null;
+        }
+        if (levelCode.equals("20") || levelCode.equals("22")) {
+            policyNumber = null;
+            patientId = null;
+            patientName = null;
+        }
+    }
+
+    private void readName(String[] elements) {
+        String entity = element(elements, 1);
+        if (entity.equals("IL")) {
+            patientId = element(elements, 9);
+            patientName = (element(elements, 4) + " " + element(elements, 3)).trim();
+        } else if (entity.equals("85")) {
+            providerName = element(elements, 3);
+        }
+    }
+
+    private void startClaim(String[] elements) {
+        claimSegment = segmentCount;
+        claim = new HashMap<>();
+        ClaimDocumentParser.parseField("policyNumber", nullToEmpty(policyNumber), claim);
+        ClaimDocumentParser.parseField("patientId", nullToEmpty(patientId), claim);
+        ClaimDocumentParser.parseField("patientName", nullToEmpty(patientName), claim);
+        ClaimDocumentParser.parseField("providerName", nullToEmpty(providerName), claim);
+        ClaimDocumentParser.parseField("claimAmount", element(elements, 2), claim);
+        String placeOfService = element(elements, 5);
+        int colon = placeOfService.indexOf(':');
+        String serviceType = serviceTypeFor(colon < 0 ? placeOfService : placeOfService.substring(0, colon));
+        if (serviceType != null) {
+            ClaimDocumentParser.parseField("serviceType", serviceType, claim);
+        }
+    }
+
+    private void readServiceDate(String[] elements) {
+        String date = element(elements, 3);
+        if (date.length() >= 8) {
+            // CCYYMMDD to MM/DD/YYYY
+            ClaimDocumentParser.parseField("serviceDate",
+                    date.substring(4, 6) + "/" + date.substring(6, 8) + "/" + date.substring(0, 4), claim);
+        }
+    }
+
+    /**
+     * Service type for a CMS place-of-service code, null if there is no match
+     */
+    private static String serviceTypeFor(String placeOfService) {
+        switch (placeOfService) {
+            case "11":
+                return "Doctor Visit";
+            case "21":
+                return "Hospital Stay";
+            case "23":
+                return "Emergency Room Visit";
+            case "22":
+            case "24":
+                return "Surgery";
+            case "81":
+                return "Diagnostic Test";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Read the next segment without its terminator, false at the end of the file
+     */
+    private boolean readSegment() throws IOException {
+        segment.setLength(0);
+        int c = read();
+        while (c == '\r' || c == '\n' || c == ' ') {
+            c = read();
+        }
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '~') {
+            if (c != '\r' && c != '\n') {
+                segment.append((char) c);
+                checkLength(segment.length());
+            }
+            c = read();
+        }
+        segmentCount++;
+        return true;
+    }
+
+    private static String element(String[] elements, int index) {
+        return index < elements.length ? elements[index].trim() : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public String getLocation() {
+        return "segment " + returnedSegment;
+    }
+}
@@ -0,0 +1,73 @@
+package business;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import model.Claim;
+import model.Claim.ClaimStatus;
+import model.Claim.ServiceType;
+import org.junit.Test;
+
+/**
+ * Tests for ClaimDirectory claim number handling and statistics
+ */
+public class ClaimDirectoryTest {
+
+    @Test
+    public void renumberingOntoTakenNumberKeepsBothClaims() {
+        ClaimDirectory directory = new ClaimDirectory();
+        Claim first = directory.createClaim("POL-T-1", "PAT-T-1", LocalDate.now(), "Clinic",
+                "Checkup", ServiceType.SURGERY, 100.0);
+        Claim second = directory.createClaim("POL-T-1", "PAT-T-2", LocalDate.now(), "Clinic",
+                "Checkup", ServiceType.SURGERY, 200.0);
+
+        second.setClaimNumber(first.getClaimNumber());
+
+        assertNotEquals(first.getClaimNumber(), second.getClaimNumber());
+        assertSame(first, directory.findClaimByNumber(first.getClaimNumber()));
+        assertSame(second, directory.findClaimByNumber(second.getClaimNumber()));
+        assertEquals(1, directory.getClaimsByPatient("PAT-T-1").size());
+        assertEquals(1, directory.getClaimsByPatient("PAT-T-2").size());
+    }
+
+    @Test
+    public void removeClaimRemovesOnlyIndexedInstance() {
+        ClaimDirectory directory = new ClaimDirectory();
+        Claim claim = directory.createClaim("POL-T-1", "PAT-T-1", LocalDate.now(), "Clinic",
+                "Checkup", ServiceType.SURGERY, 100.0);
+        int before = directory.getAllClaims().size();
+
+        Claim copy = claim.copy();
+        directory.addClaim(copy); // Same number, skipped
+
+        assertEquals(before, directory.getAllClaims().size());
+        assertTrue(directory.removeClaim(claim.getClaimNumber()));
+        assertEquals(before - 1, directory.getAllClaims().size());
+        assertEquals(0, directory.getClaimsByPatient("PAT-T-1").size());
+    }
+
+    @Test
+    public void claimTotalsReturnExactlyAfterAddAndRemove() {
+        ClaimDirectory directory = new ClaimDirectory();
+        ClaimStatistics statistics = directory.getStatistics();
+        ClaimStatus status = directory.createClaim("POL-T-1", "PAT-T-1", LocalDate.now(), "Clinic",
+                "Checkup", ServiceType.SURGERY, 1.0).getClaimStatus();
+        double before = statistics.getTotalClaimAmountByStatus(status);
+
+        List<Claim> added = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            added.add(directory.createClaim("POL-T-1", "PAT-T-" + i, LocalDate.now().minusDays(i % 300),
+                    "Clinic " + i, "Checkup", ServiceType.SURGERY, 0.1 + i * 0.01));
+        }
+        for (Claim claim : added) {
+            directory.removeClaim(claim.getClaimNumber());
+        }
+
+        assertEquals(before, statistics.getTotalClaimAmountByStatus(status), 0.0);
+    }
+}
@@ -0,0 +1,44 @@
+package business;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import model.Claim.ServiceType;
+import org.junit.Test;
+
+/**
+ * Tests for EligibilityService
+ */
+public class EligibilityServiceTest {
+
+    @Test
+    public void nullPatientIdGivesErrorResult() {
+        EligibilityService service = new EligibilityService(new PolicyDirectory(), CoverageRule.defaults(),
+                EligibilityService.DEFAULT_TTL_SECONDS);
+
+        EligibilityService.Eligibility eligibility = service.check(null, ServiceType.SURGERY, LocalDate.now());
+
+        assertFalse(eligibility.isEligible());
+        assertNotNull(eligibility.getReason());
+    }
+
+    @Test
+    public void nullPatientIdInAppointmentListGivesErrorResult() {
+        EligibilityService service = new EligibilityService(new PolicyDirectory(), CoverageRule.defaults(),
+                EligibilityService.DEFAULT_TTL_SECONDS);
+
+        List<EligibilityService.Eligibility> answers = service.checkAppointments(Arrays.asList(
+                new EligibilityService.Appointment("PAT-T-1", ServiceType.SURGERY, LocalDate.now()),
+                new EligibilityService.Appointment(null, ServiceType.SURGERY, LocalDate.now())));
+
+        assertEquals(2, answers.size());
+        assertFalse(answers.get(1).isEligible());
+        assertNotNull(answers.get(1).getReason());
+        assertEquals(1, service.getMisses());
+        assertEquals(0, service.getHits());
+    }
+}
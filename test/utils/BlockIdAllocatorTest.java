@@ -0,0 +1,34 @@
+package utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for BlockIdAllocator
+ */
+public class BlockIdAllocatorTest {
+
+    @Test
+    public void advanceInsideReservedBlockSkipsExistingSequence() {
+        BlockIdAllocator allocator = new BlockIdAllocator(32);
+        assertEquals(1, allocator.next("CLM", 2025));
+        assertEquals(2, allocator.next("CLM", 2025));
+
+        // Sequence 10 already exists but is below the high-water mark (32)
+        allocator.advanceTo("CLM", 2025, 10);
+
+        assertTrue(allocator.next("CLM", 2025) > 10);
+    }
+
+    @Test
+    public void advanceAboveMarkMovesMark() {
+        BlockIdAllocator allocator = new BlockIdAllocator(32);
+        allocator.next("POL", 2025);
+
+        allocator.advanceTo("POL", 2025, 100);
+
+        assertEquals(101, allocator.next("POL", 2025));
+    }
+}
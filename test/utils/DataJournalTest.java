@@ -0,0 +1,95 @@
+package utils;
+
+import static org.junit.Assert.assertEquals;
+
+import business.MutationRecord;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for DataJournal checkpoints across sessions
+ */
+public class DataJournalTest {
+
+    private File directory;
+    private String journalPath;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-test").toFile();
+        journalPath = new File(directory, "test.journal").getPath();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void checkpointAfterReopenDropsEarlierSessionRecords() throws IOException {
+        appendAndClose("old", 5);
+
+        DataJournal journal = DataJournal.open(journalPath);
+        assertEquals(5, journal.getAppendedCount());
+        append(journal, "new", 3);
+        journal.checkpoint();
+        journal.close();
+
+        assertEquals(new ArrayList<String>(), keys(DataJournal.readRecords(journalPath)));
+    }
+
+    @Test
+    public void partialCheckpointAfterReopenKeepsOnlyLaterRecords() throws IOException {
+        appendAndClose("old", 5);
+
+        DataJournal journal = DataJournal.open(journalPath);
+        append(journal, "new", 3);
+        long mark = journal.getAppendedCount(); // Snapshot covers old and the first new records
+        append(journal, "later", 2);
+        journal.checkpoint(mark);
+        journal.close();
+
+        assertEquals(List.of("later0", "later1"), keys(DataJournal.readRecords(journalPath)));
+    }
+
+    @Test
+    public void appendAfterReopenKeepsEarlierSessionRecords() throws IOException {
+        appendAndClose("old", 2);
+
+        DataJournal journal = DataJournal.open(journalPath);
+        append(journal, "new", 1);
+        journal.close();
+
+        assertEquals(List.of("old0", "old1", "new0"), keys(DataJournal.readRecords(journalPath)));
+    }
+
+    private void appendAndClose(String prefix, int count) throws IOException {
+        DataJournal journal = DataJournal.open(journalPath);
+        append(journal, prefix, count);
+        journal.close();
+    }
+
+    private static void append(DataJournal journal, String prefix, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            journal.append(MutationRecord.removal(MutationRecord.Type.CLAIM_REMOVED, prefix + i));
+        }
+        journal.flush();
+    }
+
+    private static List<String> keys(List<MutationRecord> records) {
+        List<String> keys = new ArrayList<>();
+        for (MutationRecord record : records) {
+            keys.add(record.getKey());
+        }
+        return keys;
+    }
+}